@@ -0,0 +1,72 @@
+package io.github.yerektus.aitryon.tryon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InpaintPreprocessingBenchmark {
+
+    private static final NormalizedBoundingBox TORSO = new NormalizedBoundingBox(0.3, 0.25, 0.4, 0.4);
+
+    private final InpaintMaskBuilder builder = new InpaintMaskBuilder();
+    private byte[] phonePhoto;
+
+    @Setup
+    public void setUp() throws IOException {
+        final int width = 4000;
+        final int height = 3000;
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, new Color(236, 232, 226), width, height, new Color(214, 210, 204)));
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(new Color(40, 52, 70));
+            graphics.fillRoundRect(width / 3, height / 8, width / 3, height * 3 / 4, 400, 400);
+        } finally {
+            graphics.dispose();
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", output);
+        phonePhoto = output.toByteArray();
+    }
+
+    @Benchmark
+    public void decodePerStep(Blackhole blackhole) throws IOException {
+        final byte[] png = encodePng(ImageIO.read(new ByteArrayInputStream(phonePhoto)));
+        blackhole.consume(builder.detectForegroundBoundingBox(png));
+        blackhole.consume(builder.buildMaskPng(png, TORSO));
+    }
+
+    @Benchmark
+    public void decodeOnce(Blackhole blackhole) throws IOException {
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(phonePhoto));
+        blackhole.consume(encodePng(image));
+        blackhole.consume(builder.detectForegroundBoundingBox(image));
+        blackhole.consume(builder.buildMaskPng(image.getWidth(), image.getHeight(), TORSO));
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
@@ -11,6 +11,7 @@ import io.github.yerektus.aitryon.security.AuthenticatedUser;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -59,4 +60,10 @@ public class AuthController {
     public UserResponse me(@AuthenticationPrincipal AuthenticatedUser user) {
         return authService.me(user);
     }
+
+    @DeleteMapping("/me/sessions")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeSessions(@AuthenticationPrincipal AuthenticatedUser user) {
+        authService.revokeAllSessions(user);
+    }
 }
@@ -13,10 +13,12 @@ import io.github.yerektus.aitryon.domain.CreditLedgerReason;
 import io.github.yerektus.aitryon.domain.RefreshTokenEntity;
 import io.github.yerektus.aitryon.domain.UserEntity;
 import io.github.yerektus.aitryon.domain.repo.RefreshTokenRepository;
+import io.github.yerektus.aitryon.domain.repo.UserAccountView;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
 import io.github.yerektus.aitryon.security.JwtService;
 import io.github.yerektus.aitryon.security.TokenHashService;
+import io.github.yerektus.aitryon.security.TokenRevocationService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +39,7 @@ public class AuthService {
     private final TokenHashService tokenHashService;
     private final GoogleTokenVerifier googleTokenVerifier;
     private final CreditService creditService;
+    private final TokenRevocationService tokenRevocationService;
     private final SecureRandom secureRandom = new SecureRandom();
 
     public AuthService(UserRepository userRepository,
@@ -45,7 +48,8 @@ public class AuthService {
                        JwtService jwtService,
                        TokenHashService tokenHashService,
                        GoogleTokenVerifier googleTokenVerifier,
-                       CreditService creditService) {
+                       CreditService creditService,
+                       TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.refreshTokenRepository = refreshTokenRepository;
         this.passwordEncoder = passwordEncoder;
@@ -53,6 +57,7 @@ public class AuthService {
         this.tokenHashService = tokenHashService;
         this.googleTokenVerifier = googleTokenVerifier;
         this.creditService = creditService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Transactional
@@ -155,10 +160,21 @@ public class AuthService {
         });
     }
 
+    @Transactional
+    public void revokeAllSessions(AuthenticatedUser authenticatedUser) {
+        refreshTokenRepository.revokeAllForUser(authenticatedUser.userId(), Instant.now());
+        tokenRevocationService.revokeAll(authenticatedUser.userId());
+    }
+
     public UserResponse me(AuthenticatedUser authenticatedUser) {
-        final UserEntity user = userRepository.findById(authenticatedUser.userId())
+        final UserAccountView account = userRepository.findAccountViewById(authenticatedUser.userId())
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
-        return toUserResponse(user);
+        return new UserResponse(
+                account.getId(),
+                account.getEmail(),
+                account.getDisplayName(),
+                creditService.getBalance(account.getId())
+        );
     }
 
     private AuthResponse issueTokens(UserEntity user) {
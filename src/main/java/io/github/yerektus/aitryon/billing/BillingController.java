@@ -7,7 +7,10 @@ import io.github.yerektus.aitryon.billing.dto.PaymentPackageResponse;
 import io.github.yerektus.aitryon.billing.dto.PaymentStatusResponse;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -36,8 +40,12 @@ public class BillingController {
     }
 
     @GetMapping("/balance")
-    public BalanceResponse getBalance(@AuthenticationPrincipal AuthenticatedUser user) {
-        return billingService.getBalance(user.userId());
+    public ResponseEntity<BalanceResponse> getBalance(@AuthenticationPrincipal AuthenticatedUser user) {
+        final BalanceResponse balance = billingService.getBalance(user.userId());
+        return ResponseEntity.ok()
+                .eTag("balance-" + balance.creditsBalance())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(balance);
     }
 
     @PostMapping("/checkout")
@@ -52,4 +60,10 @@ public class BillingController {
                                                @PathVariable UUID paymentId) {
         return billingService.getPaymentStatus(user.userId(), paymentId);
     }
+
+    @GetMapping(value = "/payments/{paymentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter paymentEvents(@AuthenticationPrincipal AuthenticatedUser user,
+                                    @PathVariable UUID paymentId) {
+        return billingService.subscribePaymentStatus(user.userId(), paymentId);
+    }
 }
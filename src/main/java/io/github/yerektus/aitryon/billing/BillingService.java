@@ -18,10 +18,10 @@ import io.github.yerektus.aitryon.domain.PaymentWebhookEventEntity;
 import io.github.yerektus.aitryon.domain.UserEntity;
 import io.github.yerektus.aitryon.domain.repo.PaymentPackageRepository;
 import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
-import io.github.yerektus.aitryon.domain.repo.PaymentWebhookEventRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -40,30 +40,36 @@ public class BillingService {
 
     private final PaymentPackageRepository paymentPackageRepository;
     private final PaymentRepository paymentRepository;
-    private final PaymentWebhookEventRepository webhookEventRepository;
     private final UserRepository userRepository;
     private final CreditService creditService;
     private final StripeClient stripeClient;
     private final PaymentSettlementService paymentSettlementService;
+    private final StripeWebhookInbox stripeWebhookInbox;
+    private final PaymentStatusReconciler paymentStatusReconciler;
+    private final PaymentStatusEvents paymentStatusEvents;
     private final StripeProperties stripeProperties;
     private final ObjectMapper objectMapper;
 
     public BillingService(PaymentPackageRepository paymentPackageRepository,
                           PaymentRepository paymentRepository,
-                          PaymentWebhookEventRepository webhookEventRepository,
                           UserRepository userRepository,
                           CreditService creditService,
                           StripeClient stripeClient,
                           PaymentSettlementService paymentSettlementService,
+                          StripeWebhookInbox stripeWebhookInbox,
+                          PaymentStatusReconciler paymentStatusReconciler,
+                          PaymentStatusEvents paymentStatusEvents,
                           StripeProperties stripeProperties,
                           ObjectMapper objectMapper) {
         this.paymentPackageRepository = paymentPackageRepository;
         this.paymentRepository = paymentRepository;
-        this.webhookEventRepository = webhookEventRepository;
         this.userRepository = userRepository;
         this.creditService = creditService;
         this.stripeClient = stripeClient;
         this.paymentSettlementService = paymentSettlementService;
+        this.stripeWebhookInbox = stripeWebhookInbox;
+        this.paymentStatusReconciler = paymentStatusReconciler;
+        this.paymentStatusEvents = paymentStatusEvents;
         this.stripeProperties = stripeProperties;
         this.objectMapper = objectMapper;
     }
@@ -75,7 +81,6 @@ public class BillingService {
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public BalanceResponse getBalance(UUID userId) {
         return new BalanceResponse(creditService.getBalance(userId));
     }
@@ -113,47 +118,38 @@ public class BillingService {
         );
     }
 
-    @Transactional
     public PaymentStatusResponse getPaymentStatus(UUID userId, UUID paymentId) {
-        final PaymentEntity payment = paymentRepository.findByIdAndUser_Id(paymentId, userId)
-                .orElseThrow(() -> new NotFoundException("Payment not found"));
-
-        if (!payment.getStatus().isTerminal()
-                && payment.getProvider() == PaymentProvider.STRIPE
-                && payment.getProviderInvoiceId() != null) {
-            final StripeStatusResult statusResult = stripeClient.getCheckoutSessionStatus(payment.getProviderInvoiceId());
-            paymentSettlementService.applyProviderStatus(payment.getId(), statusResult.status(), statusResult.rawPayload());
-        }
+        final PaymentStatusResponse payment = paymentSettlementService.describe(userId, paymentId);
+        paymentStatusReconciler.request(payment);
+        return payment;
+    }
 
-        final PaymentEntity refreshed = paymentRepository.findByIdAndUser_Id(paymentId, userId)
-                .orElseThrow(() -> new NotFoundException("Payment not found"));
-        return toStatusResponse(refreshed);
+    public SseEmitter subscribePaymentStatus(UUID userId, UUID paymentId) {
+        paymentStatusReconciler.request(paymentSettlementService.describe(userId, paymentId));
+        return paymentStatusEvents.subscribe(paymentId, () -> paymentSettlementService.describe(userId, paymentId));
     }
 
-    @Transactional
-    public void processStripeWebhook(String signatureHeader, String rawBody) {
+    public boolean receiveStripeWebhook(String signatureHeader, String rawBody) {
         if (!verifyStripeSignature(signatureHeader, rawBody)) {
             throw new BadRequestException("Invalid webhook signature");
         }
 
-        final JsonNode payload;
-        try {
-            payload = objectMapper.readTree(rawBody);
-        } catch (Exception e) {
-            throw new BadRequestException("Webhook payload is not valid JSON");
-        }
+        final JsonNode payload = parseWebhookPayload(rawBody);
+        return stripeWebhookInbox.enqueue(resolveStripeEventId(payload, rawBody), rawBody);
+    }
 
-        final String eventId = resolveStripeEventId(payload, rawBody);
-        if (webhookEventRepository.existsByProviderEventId(eventId)) {
+    @Transactional
+    public void processStripeWebhookEvent(UUID eventId) {
+        final PaymentWebhookEventEntity event = stripeWebhookInbox.lockPending(eventId).orElse(null);
+        if (event == null) {
             return;
         }
 
-        final PaymentWebhookEventEntity event = new PaymentWebhookEventEntity();
-        event.setProvider(PaymentProvider.STRIPE);
-        event.setProviderEventId(eventId);
-        event.setPayload(rawBody);
-        webhookEventRepository.save(event);
+        applyStripeEvent(parseWebhookPayload(event.getPayload()), event.getPayload());
+        stripeWebhookInbox.markProcessed(event, Instant.now());
+    }
 
+    private void applyStripeEvent(JsonNode payload, String rawBody) {
         final JsonNode eventObject = payload.path("data").path("object");
         final String sessionId = text(eventObject, "id");
         if (sessionId == null || sessionId.isBlank()) {
@@ -180,6 +176,14 @@ public class BillingService {
         paymentSettlementService.applyProviderStatus(payment.getId(), status, rawBody);
     }
 
+    private JsonNode parseWebhookPayload(String rawBody) {
+        try {
+            return objectMapper.readTree(rawBody);
+        } catch (Exception e) {
+            throw new BadRequestException("Webhook payload is not valid JSON");
+        }
+    }
+
     private PaymentPackageResponse toPackageResponse(PaymentPackageEntity pkg) {
         return new PaymentPackageResponse(
                 pkg.getCode(),
@@ -190,21 +194,6 @@ public class BillingService {
         );
     }
 
-    private PaymentStatusResponse toStatusResponse(PaymentEntity payment) {
-        return new PaymentStatusResponse(
-                payment.getId(),
-                payment.getProvider().name(),
-                payment.getProviderInvoiceId(),
-                payment.getStatus().name(),
-                payment.getAmountMinor(),
-                payment.getCurrency(),
-                payment.getPaymentPackage().getCredits(),
-                payment.getRedirectUrl(),
-                payment.getCreatedAt(),
-                payment.getUpdatedAt()
-        );
-    }
-
     private boolean verifyStripeSignature(String signatureHeader, String payload) {
         if (signatureHeader == null || signatureHeader.isBlank()) {
             return false;
@@ -0,0 +1,77 @@
+package io.github.yerektus.aitryon.billing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.yerektus.aitryon.common.NotFoundException;
+import io.github.yerektus.aitryon.config.BillingProperties;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class CreditBalanceCache {
+
+    static final String NOTIFY_CHANNEL = "credit_balance";
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final boolean notifyEnabled;
+    private final Cache<UUID, Integer> balances;
+
+    public CreditBalanceCache(UserRepository userRepository,
+                              EntityManager entityManager,
+                              BillingProperties billingProperties,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.notifyEnabled = billingProperties.isBalanceNotifyEnabled();
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, billingProperties.getBalanceCacheMaxSize()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, billingProperties.getBalanceCacheTtlSeconds())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, "billing.credit-balances");
+    }
+
+    public int get(UUID userId) {
+        return balances.get(
+                userId,
+                key -> userRepository.findCreditsBalance(key)
+                        .orElseThrow(() -> new NotFoundException("User not found"))
+        );
+    }
+
+    public void evict(UUID userId) {
+        balances.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    balances.invalidate(userId);
+                }
+            });
+        }
+        if (notifyEnabled) {
+            entityManager.createNativeQuery("SELECT COUNT(*) FROM (SELECT pg_notify(:channel, :payload)) AS notified")
+                    .setParameter("channel", NOTIFY_CHANNEL)
+                    .setParameter("payload", userId.toString())
+                    .getSingleResult();
+        }
+    }
+
+    void evictLocally(UUID userId) {
+        balances.invalidate(userId);
+    }
+
+    void evictAllLocally() {
+        balances.invalidateAll();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.yerektus.aitryon.billing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(prefix = "app.billing", name = "balance-notify-enabled", havingValue = "true")
+public class CreditBalanceNotificationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditBalanceNotificationListener.class);
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final DataSource dataSource;
+    private final CreditBalanceCache creditBalanceCache;
+    private volatile boolean running;
+    private Thread listener;
+
+    public CreditBalanceNotificationListener(DataSource dataSource, CreditBalanceCache creditBalanceCache) {
+        this.dataSource = dataSource;
+        this.creditBalanceCache = creditBalanceCache;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofVirtual().name("credit-balance-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openDedicatedConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CreditBalanceCache.NOTIFY_CHANNEL);
+                creditBalanceCache.evictAllLocally();
+
+                final PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    final PGNotification[] received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        evict(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Credit balance listener disconnected: error={}", ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * LISTEN holds its connection for the listener's lifetime, so it opens one outside the pool instead of pinning
+     * a Hikari slot that maxLifetime would recycle out from under the subscription.
+     */
+    private Connection openDedicatedConnection() throws SQLException {
+        final HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        return DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+    }
+
+    private void evict(String payload) {
+        try {
+            creditBalanceCache.evictLocally(UUID.fromString(payload));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed credit balance notification: payload={}", payload);
+        }
+    }
+}
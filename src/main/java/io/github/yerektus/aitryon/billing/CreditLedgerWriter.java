@@ -0,0 +1,130 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.PaymentEntity;
+import io.github.yerektus.aitryon.domain.TryOnJobEntity;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+@Component
+public class CreditLedgerWriter {
+
+    private static final String APPLY_DELTA_SQL = """
+            WITH updated AS (
+                UPDATE users
+                SET credits_balance = credits_balance + :delta, updated_at = NOW()
+                WHERE id = :userId AND credits_balance + :delta >= 0
+                RETURNING credits_balance
+            )
+            INSERT INTO credit_ledger (id, user_id, delta, balance_after, reason, payment_id, try_on_job_id, created_at)
+            SELECT :ledgerId, :userId, :delta, credits_balance, :reason,
+                   CAST(:paymentId AS UUID), CAST(:tryOnJobId AS UUID), NOW()
+            FROM updated
+            RETURNING balance_after
+            """;
+
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final boolean singleStatement;
+
+    public CreditLedgerWriter(EntityManager entityManager,
+                              UserRepository userRepository,
+                              CreditLedgerRepository creditLedgerRepository) {
+        this.entityManager = entityManager;
+        this.userRepository = userRepository;
+        this.creditLedgerRepository = creditLedgerRepository;
+        this.singleStatement = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    public OptionalInt apply(UUID userId,
+                             int delta,
+                             CreditLedgerReason reason,
+                             PaymentEntity payment,
+                             TryOnJobEntity tryOnJob) {
+        final OptionalInt balance = singleStatement
+                ? applyInSingleStatement(userId, delta, reason, payment, tryOnJob)
+                : applyConditionalUpdate(userId, delta, reason, payment, tryOnJob);
+        balance.ifPresent(value -> syncManagedBalance(userId, value));
+        return balance;
+    }
+
+    /**
+     * Records a transition that moves no credits, such as capturing a hold that already debited the balance, as a
+     * zero-delta row stamped with the current balance. The user row is not updated.
+     */
+    public int record(UUID userId, CreditLedgerReason reason, TryOnJobEntity tryOnJob) {
+        final int balance = userRepository.findCreditsBalance(userId).orElseThrow();
+        final CreditLedgerEntity ledger = new CreditLedgerEntity();
+        ledger.setUser(userRepository.getReferenceById(userId));
+        ledger.setDelta(0);
+        ledger.setBalanceAfter(balance);
+        ledger.setReason(reason);
+        ledger.setTryOnJob(tryOnJob);
+        creditLedgerRepository.save(ledger);
+        return balance;
+    }
+
+    private OptionalInt applyInSingleStatement(UUID userId,
+                                               int delta,
+                                               CreditLedgerReason reason,
+                                               PaymentEntity payment,
+                                               TryOnJobEntity tryOnJob) {
+        entityManager.flush();
+        final List<?> rows = entityManager.createNativeQuery(APPLY_DELTA_SQL)
+                .setParameter("delta", delta)
+                .setParameter("userId", userId)
+                .setParameter("ledgerId", UUID.randomUUID())
+                .setParameter("reason", reason.name())
+                .setParameter("paymentId", payment == null ? null : payment.getId())
+                .setParameter("tryOnJobId", tryOnJob == null ? null : tryOnJob.getId())
+                .getResultList();
+        if (rows.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(((Number) rows.get(0)).intValue());
+    }
+
+    private OptionalInt applyConditionalUpdate(UUID userId,
+                                               int delta,
+                                               CreditLedgerReason reason,
+                                               PaymentEntity payment,
+                                               TryOnJobEntity tryOnJob) {
+        if (userRepository.applyCreditDelta(userId, delta, Instant.now()) == 0) {
+            return OptionalInt.empty();
+        }
+
+        final int balance = userRepository.findCreditsBalance(userId).orElseThrow();
+        final CreditLedgerEntity ledger = new CreditLedgerEntity();
+        ledger.setUser(userRepository.getReferenceById(userId));
+        ledger.setDelta(delta);
+        ledger.setBalanceAfter(balance);
+        ledger.setReason(reason);
+        ledger.setPayment(payment);
+        ledger.setTryOnJob(tryOnJob);
+        creditLedgerRepository.save(ledger);
+        return OptionalInt.of(balance);
+    }
+
+    private void syncManagedBalance(UUID userId, int balance) {
+        final UserEntity user = entityManager.getReference(UserEntity.class, userId);
+        if (Hibernate.isInitialized(user)) {
+            user.setCreditsBalance(balance);
+        }
+    }
+}
@@ -2,27 +2,42 @@ package io.github.yerektus.aitryon.billing;
 
 import io.github.yerektus.aitryon.common.NotFoundException;
 import io.github.yerektus.aitryon.common.PaymentRequiredException;
-import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditHoldEntity;
+import io.github.yerektus.aitryon.domain.CreditHoldStatus;
 import io.github.yerektus.aitryon.domain.CreditLedgerReason;
 import io.github.yerektus.aitryon.domain.PaymentEntity;
 import io.github.yerektus.aitryon.domain.TryOnJobEntity;
-import io.github.yerektus.aitryon.domain.UserEntity;
-import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.CreditHoldRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class CreditService {
 
+    private static final Logger log = LoggerFactory.getLogger(CreditService.class);
+
     private final UserRepository userRepository;
-    private final CreditLedgerRepository creditLedgerRepository;
+    private final CreditHoldRepository creditHoldRepository;
+    private final CreditLedgerWriter creditLedgerWriter;
+    private final CreditBalanceCache creditBalanceCache;
 
-    public CreditService(UserRepository userRepository, CreditLedgerRepository creditLedgerRepository) {
+    public CreditService(UserRepository userRepository,
+                         CreditHoldRepository creditHoldRepository,
+                         CreditLedgerWriter creditLedgerWriter,
+                         CreditBalanceCache creditBalanceCache) {
         this.userRepository = userRepository;
-        this.creditLedgerRepository = creditLedgerRepository;
+        this.creditHoldRepository = creditHoldRepository;
+        this.creditLedgerWriter = creditLedgerWriter;
+        this.creditBalanceCache = creditBalanceCache;
     }
 
     @Transactional
@@ -31,33 +46,88 @@ public class CreditService {
                              CreditLedgerReason reason,
                              PaymentEntity payment,
                              TryOnJobEntity tryOnJob) {
-        final UserEntity user = userRepository.findByIdForUpdate(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        final int balance = creditLedgerWriter.apply(userId, delta, reason, payment, tryOnJob)
+                .orElseThrow(() -> rejectAdjustment(userId));
+        creditBalanceCache.evict(userId);
+        return balance;
+    }
+
+    @Transactional
+    public int placeHold(UUID userId, TryOnJobEntity tryOnJob, int amount, Instant expiresAt) {
+        final int balance = adjustCredits(userId, -amount, CreditLedgerReason.TRY_ON_HOLD, null, tryOnJob);
+
+        final CreditHoldEntity hold = new CreditHoldEntity();
+        hold.setUser(userRepository.getReferenceById(userId));
+        hold.setTryOnJob(tryOnJob);
+        hold.setAmount(amount);
+        hold.setStatus(CreditHoldStatus.HELD);
+        hold.setExpiresAt(expiresAt);
+        creditHoldRepository.save(hold);
+        return balance;
+    }
 
-        final int nextBalance = user.getCreditsBalance() + delta;
-        if (nextBalance < 0) {
-            throw new PaymentRequiredException("Not enough credits");
+    @Transactional
+    public int captureHold(TryOnJobEntity tryOnJob) {
+        final UUID userId = tryOnJob.getUser().getId();
+        final Optional<CreditHoldEntity> hold = creditHoldRepository.findByTryOnJob_Id(tryOnJob.getId());
+        if (hold.isEmpty()) {
+            return adjustCredits(userId, -1, CreditLedgerReason.TRY_ON_CHARGE, null, tryOnJob);
         }
 
-        user.setCreditsBalance(nextBalance);
-        userRepository.save(user);
+        if (!transition(hold.get(), CreditHoldStatus.CAPTURED)) {
+            log.warn("Credit hold was not held at capture: try_on_job_id={} status={}",
+                    tryOnJob.getId(), hold.get().getStatus());
+            return currentBalance(userId);
+        }
+        return creditLedgerWriter.record(userId, CreditLedgerReason.TRY_ON_HOLD_CAPTURE, tryOnJob);
+    }
 
-        final CreditLedgerEntity ledger = new CreditLedgerEntity();
-        ledger.setUser(user);
-        ledger.setDelta(delta);
-        ledger.setBalanceAfter(nextBalance);
-        ledger.setReason(reason);
-        ledger.setPayment(payment);
-        ledger.setTryOnJob(tryOnJob);
-        creditLedgerRepository.save(ledger);
+    @Transactional
+    public boolean releaseHold(TryOnJobEntity tryOnJob) {
+        final Optional<CreditHoldEntity> hold = creditHoldRepository.findByTryOnJob_Id(tryOnJob.getId());
+        if (hold.isEmpty() || !transition(hold.get(), CreditHoldStatus.RELEASED)) {
+            return false;
+        }
 
-        return nextBalance;
+        adjustCredits(
+                tryOnJob.getUser().getId(),
+                hold.get().getAmount(),
+                CreditLedgerReason.TRY_ON_HOLD_RELEASE,
+                null,
+                tryOnJob
+        );
+        return true;
     }
 
     @Transactional(readOnly = true)
+    public List<UUID> findJobsWithExpiredHolds(Instant now, int limit) {
+        return creditHoldRepository.findTryOnJobIdsByStatusAndExpiresAtBefore(
+                CreditHoldStatus.HELD,
+                now,
+                PageRequest.of(0, Math.max(1, limit))
+        );
+    }
+
     public int getBalance(UUID userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"))
-                .getCreditsBalance();
+        return creditBalanceCache.get(userId);
+    }
+
+    private boolean transition(CreditHoldEntity hold, CreditHoldStatus next) {
+        if (hold.getStatus() != CreditHoldStatus.HELD) {
+            return false;
+        }
+        return creditHoldRepository.transition(hold.getId(), CreditHoldStatus.HELD, next, Instant.now()) == 1;
+    }
+
+    private RuntimeException rejectAdjustment(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            return new NotFoundException("User not found");
+        }
+        return new PaymentRequiredException("Not enough credits");
+    }
+
+    private int currentBalance(UUID userId) {
+        return userRepository.findCreditsBalance(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
     }
 }
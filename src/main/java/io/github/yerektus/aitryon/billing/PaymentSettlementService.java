@@ -1,5 +1,6 @@
 package io.github.yerektus.aitryon.billing;
 
+import io.github.yerektus.aitryon.billing.dto.PaymentStatusResponse;
 import io.github.yerektus.aitryon.common.NotFoundException;
 import io.github.yerektus.aitryon.domain.CreditLedgerReason;
 import io.github.yerektus.aitryon.domain.PaymentEntity;
@@ -7,6 +8,8 @@ import io.github.yerektus.aitryon.domain.PaymentStatus;
 import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -16,10 +19,21 @@ public class PaymentSettlementService {
 
     private final PaymentRepository paymentRepository;
     private final CreditService creditService;
+    private final PaymentStatusEvents paymentStatusEvents;
 
-    public PaymentSettlementService(PaymentRepository paymentRepository, CreditService creditService) {
+    public PaymentSettlementService(PaymentRepository paymentRepository,
+                                    CreditService creditService,
+                                    PaymentStatusEvents paymentStatusEvents) {
         this.paymentRepository = paymentRepository;
         this.creditService = creditService;
+        this.paymentStatusEvents = paymentStatusEvents;
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentStatusResponse describe(UUID userId, UUID paymentId) {
+        return paymentRepository.findByIdAndUser_Id(paymentId, userId)
+                .map(this::toStatusResponse)
+                .orElseThrow(() -> new NotFoundException("Payment not found"));
     }
 
     @Transactional
@@ -36,7 +50,7 @@ public class PaymentSettlementService {
         if (status == PaymentStatus.PAID) {
             payment.setStatus(PaymentStatus.PAID);
             payment.setPaidAt(Instant.now());
-            paymentRepository.save(payment);
+            paymentRepository.saveAndFlush(payment);
 
             creditService.adjustCredits(
                     payment.getUser().getId(),
@@ -45,14 +59,41 @@ public class PaymentSettlementService {
                     payment,
                     null
             );
+            publishAfterCommit(payment);
             return payment;
         }
 
-        if (!payment.getStatus().isTerminal()) {
+        if (!payment.getStatus().isTerminal() && payment.getStatus() != status) {
             payment.setStatus(status);
-            paymentRepository.save(payment);
+            paymentRepository.saveAndFlush(payment);
+            publishAfterCommit(payment);
         }
 
         return payment;
     }
+
+    private PaymentStatusResponse toStatusResponse(PaymentEntity payment) {
+        return new PaymentStatusResponse(
+                payment.getId(),
+                payment.getProvider().name(),
+                payment.getProviderInvoiceId(),
+                payment.getStatus().name(),
+                payment.getAmountMinor(),
+                payment.getCurrency(),
+                payment.getPaymentPackage().getCredits(),
+                payment.getRedirectUrl(),
+                payment.getCreatedAt(),
+                payment.getUpdatedAt()
+        );
+    }
+
+    private void publishAfterCommit(PaymentEntity payment) {
+        final PaymentStatusResponse snapshot = toStatusResponse(payment);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                paymentStatusEvents.publish(snapshot);
+            }
+        });
+    }
 }
@@ -0,0 +1,31 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.billing.dto.PaymentStatusResponse;
+import io.github.yerektus.aitryon.common.SseEmitterRegistry;
+import io.github.yerektus.aitryon.domain.PaymentStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+public class PaymentStatusEvents extends SseEmitterRegistry<UUID, PaymentStatusResponse> {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = 15 * 60 * 1000L;
+
+    public PaymentStatusEvents() {
+        super(
+                EMITTER_TIMEOUT_MILLIS,
+                PaymentStatusResponse::paymentId,
+                payment -> PaymentStatus.valueOf(payment.status()).isTerminal()
+        );
+    }
+
+    public Set<UUID> subscribedPaymentIds() {
+        return subscribedKeys();
+    }
+
+    public boolean isSubscribed(UUID paymentId) {
+        return hasSubscribers(paymentId);
+    }
+}
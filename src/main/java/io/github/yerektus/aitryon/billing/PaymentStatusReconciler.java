@@ -0,0 +1,131 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.billing.dto.PaymentStatusResponse;
+import io.github.yerektus.aitryon.config.StripeProperties;
+import io.github.yerektus.aitryon.domain.PaymentEntity;
+import io.github.yerektus.aitryon.domain.PaymentProvider;
+import io.github.yerektus.aitryon.domain.PaymentStatus;
+import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PaymentStatusReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatusReconciler.class);
+
+    private final StripeClient stripeClient;
+    private final PaymentSettlementService paymentSettlementService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentStatusEvents paymentStatusEvents;
+    private final StripeProperties stripeProperties;
+    private final ExecutorService executor;
+    private final Map<UUID, Instant> nextReconcileAt = new ConcurrentHashMap<>();
+    private final Map<UUID, PaymentStatus> observedStatus = new ConcurrentHashMap<>();
+
+    public PaymentStatusReconciler(StripeClient stripeClient,
+                                   PaymentSettlementService paymentSettlementService,
+                                   PaymentRepository paymentRepository,
+                                   PaymentStatusEvents paymentStatusEvents,
+                                   StripeProperties stripeProperties) {
+        this.stripeClient = stripeClient;
+        this.paymentSettlementService = paymentSettlementService;
+        this.paymentRepository = paymentRepository;
+        this.paymentStatusEvents = paymentStatusEvents;
+        this.stripeProperties = stripeProperties;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("payment-reconciler-", 0).factory());
+    }
+
+    public void request(PaymentStatusResponse payment) {
+        if (PaymentStatus.valueOf(payment.status()).isTerminal()
+                || !PaymentProvider.STRIPE.name().equals(payment.provider())
+                || payment.providerInvoiceId() == null) {
+            return;
+        }
+        schedule(payment.paymentId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stripe.status-reconcile-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public void reconcileSubscribed() {
+        final Set<UUID> subscribed = paymentStatusEvents.subscribedPaymentIds();
+        observedStatus.keySet().retainAll(subscribed);
+        subscribed.forEach(this::schedule);
+        final Instant now = Instant.now();
+        nextReconcileAt.values().removeIf(next -> next.isBefore(now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(UUID paymentId) {
+        final Instant now = Instant.now();
+        final Instant next = now.plusSeconds(Math.max(1, stripeProperties.getStatusReconcileIntervalSeconds()));
+        final Instant current = nextReconcileAt.get(paymentId);
+        if (current != null && current.isAfter(now)) {
+            return;
+        }
+        final boolean claimed = current == null
+                ? nextReconcileAt.putIfAbsent(paymentId, next) == null
+                : nextReconcileAt.replace(paymentId, current, next);
+        if (!claimed) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> reconcile(paymentId));
+        } catch (RejectedExecutionException ex) {
+            nextReconcileAt.remove(paymentId, next);
+        }
+    }
+
+    private void reconcile(UUID paymentId) {
+        try {
+            final PaymentEntity payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null) {
+                return;
+            }
+            PaymentStatus status = payment.getStatus();
+            if (!status.isTerminal()
+                    && payment.getProvider() == PaymentProvider.STRIPE
+                    && payment.getProviderInvoiceId() != null) {
+                final StripeStatusResult statusResult = stripeClient.getCheckoutSessionStatus(payment.getProviderInvoiceId());
+                status = paymentSettlementService
+                        .applyProviderStatus(paymentId, statusResult.status(), statusResult.rawPayload())
+                        .getStatus();
+            }
+            publishToLocalSubscribers(payment.getUser().getId(), paymentId, status);
+        } catch (RuntimeException ex) {
+            log.warn("Payment status reconcile failed: payment_id={} error={}", paymentId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Settlement only pushes to streams on the node that applied it, so a stream held open on another node learns
+     * about the change here: terminal payments always get a final snapshot, others only when the status moved.
+     */
+    private void publishToLocalSubscribers(UUID userId, UUID paymentId, PaymentStatus status) {
+        if (!paymentStatusEvents.isSubscribed(paymentId)) {
+            observedStatus.remove(paymentId);
+            return;
+        }
+        final PaymentStatus previous = observedStatus.put(paymentId, status);
+        if (status.isTerminal() || (previous != null && previous != status)) {
+            paymentStatusEvents.publish(paymentSettlementService.describe(userId, paymentId));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.config.StripeProperties;
+import io.github.yerektus.aitryon.domain.PaymentProvider;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventEntity;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventStatus;
+import io.github.yerektus.aitryon.domain.repo.PaymentWebhookEventRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class StripeWebhookInbox {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final StripeProperties stripeProperties;
+
+    public StripeWebhookInbox(PaymentWebhookEventRepository webhookEventRepository,
+                              StripeProperties stripeProperties) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.stripeProperties = stripeProperties;
+    }
+
+    public boolean enqueue(String providerEventId, String payload) {
+        if (webhookEventRepository.existsByProviderEventId(providerEventId)) {
+            return false;
+        }
+
+        final PaymentWebhookEventEntity event = new PaymentWebhookEventEntity();
+        event.setProvider(PaymentProvider.STRIPE);
+        event.setProviderEventId(providerEventId);
+        event.setPayload(payload);
+        try {
+            webhookEventRepository.saveAndFlush(event);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    @Transactional
+    public List<UUID> claim(Instant now) {
+        final List<PaymentWebhookEventEntity> due = webhookEventRepository.findDueForUpdateSkipLocked(
+                PaymentWebhookEventStatus.PENDING,
+                now,
+                PageRequest.of(0, Math.max(1, stripeProperties.getWebhookBatchSize()))
+        );
+        final Instant leaseUntil = now.plus(Math.max(1, stripeProperties.getWebhookLeaseSeconds()), ChronoUnit.SECONDS);
+        for (PaymentWebhookEventEntity event : due) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(leaseUntil);
+        }
+        return due.stream().map(PaymentWebhookEventEntity::getId).toList();
+    }
+
+    /**
+     * Locks the event row until the caller's transaction ends, so a worker whose lease expired mid-run and the
+     * worker that re-claimed the event serialize here and only the first one sees it PENDING.
+     */
+    @Transactional
+    public Optional<PaymentWebhookEventEntity> lockPending(UUID eventId) {
+        return webhookEventRepository.findByIdForUpdate(eventId)
+                .filter(event -> event.getStatus() == PaymentWebhookEventStatus.PENDING);
+    }
+
+    @Transactional
+    public void markProcessed(PaymentWebhookEventEntity event, Instant now) {
+        event.setStatus(PaymentWebhookEventStatus.PROCESSED);
+        event.setProcessedAt(now);
+        event.setLastError(null);
+        webhookEventRepository.save(event);
+    }
+
+    @Transactional
+    public PaymentWebhookEventStatus markAttemptFailed(UUID eventId, String error, boolean retryable, Instant now) {
+        final PaymentWebhookEventEntity event = webhookEventRepository.findByIdForUpdate(eventId).orElse(null);
+        if (event == null || event.getStatus() != PaymentWebhookEventStatus.PENDING) {
+            return null;
+        }
+
+        event.setLastError(truncate(error));
+        if (!retryable || event.getAttempts() >= Math.max(1, stripeProperties.getWebhookMaxAttempts())) {
+            event.setStatus(PaymentWebhookEventStatus.FAILED);
+            event.setProcessedAt(now);
+        } else {
+            event.setNextAttemptAt(now.plusSeconds(backoffSeconds(event.getAttempts())));
+        }
+        webhookEventRepository.save(event);
+        return event.getStatus();
+    }
+
+    private long backoffSeconds(int attempts) {
+        final long base = Math.max(1, stripeProperties.getWebhookRetryBaseSeconds());
+        final long max = Math.max(base, stripeProperties.getWebhookRetryMaxSeconds());
+        final int exponent = Math.min(Math.max(0, attempts - 1), 20);
+        return Math.min(max, base << exponent);
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.common.BadRequestException;
+import io.github.yerektus.aitryon.config.StripeProperties;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class StripeWebhookWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeWebhookWorker.class);
+
+    private final StripeWebhookInbox stripeWebhookInbox;
+    private final BillingService billingService;
+    private final StripeProperties stripeProperties;
+    private final ExecutorService executor;
+    private final AtomicInteger activeDrains = new AtomicInteger();
+
+    public StripeWebhookWorker(StripeWebhookInbox stripeWebhookInbox,
+                               BillingService billingService,
+                               StripeProperties stripeProperties) {
+        this.stripeWebhookInbox = stripeWebhookInbox;
+        this.billingService = billingService;
+        this.stripeProperties = stripeProperties;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stripe-webhook-worker-", 0).factory());
+    }
+
+    public void wakeUp() {
+        final int concurrency = Math.max(1, stripeProperties.getWebhookWorkerConcurrency());
+        int active;
+        do {
+            active = activeDrains.get();
+            if (active >= concurrency) {
+                return;
+            }
+        } while (!activeDrains.compareAndSet(active, active + 1));
+
+        try {
+            executor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    activeDrains.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            activeDrains.decrementAndGet();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.stripe.webhook-poll-interval-seconds:5}",
+            fixedDelayString = "${app.stripe.webhook-poll-interval-seconds:5}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void poll() {
+        wakeUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final List<UUID> eventIds;
+            try {
+                eventIds = stripeWebhookInbox.claim(Instant.now());
+            } catch (RuntimeException ex) {
+                log.warn("Stripe webhook claim failed: error={}", ex.getMessage());
+                return;
+            }
+            if (eventIds.isEmpty()) {
+                return;
+            }
+            eventIds.forEach(this::process);
+        }
+    }
+
+    private void process(UUID eventId) {
+        try {
+            billingService.processStripeWebhookEvent(eventId);
+        } catch (BadRequestException ex) {
+            // A payload that cannot be parsed fails the same way on every attempt, so it is not retried.
+            recordFailure(eventId, ex, false);
+        } catch (RuntimeException ex) {
+            recordFailure(eventId, ex, true);
+        }
+    }
+
+    private void recordFailure(UUID eventId, RuntimeException ex, boolean retryable) {
+        final PaymentWebhookEventStatus status =
+                stripeWebhookInbox.markAttemptFailed(eventId, ex.getMessage(), retryable, Instant.now());
+        if (status == PaymentWebhookEventStatus.FAILED) {
+            log.error("Stripe webhook event gave up: event_id={} error={}", eventId, ex.getMessage());
+        } else if (status != null) {
+            log.warn("Stripe webhook event failed, will retry: event_id={} error={}", eventId, ex.getMessage());
+        }
+    }
+}
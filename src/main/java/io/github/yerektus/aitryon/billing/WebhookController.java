@@ -13,15 +13,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class WebhookController {
 
     private final BillingService billingService;
+    private final StripeWebhookWorker stripeWebhookWorker;
 
-    public WebhookController(BillingService billingService) {
+    public WebhookController(BillingService billingService, StripeWebhookWorker stripeWebhookWorker) {
         this.billingService = billingService;
+        this.stripeWebhookWorker = stripeWebhookWorker;
     }
 
     @PostMapping("/stripe")
     @ResponseStatus(HttpStatus.OK)
     public void stripeWebhook(@RequestHeader(name = "Stripe-Signature") String signature,
                               @RequestBody String body) {
-        billingService.processStripeWebhook(signature, body);
+        if (billingService.receiveStripeWebhook(signature, body)) {
+            stripeWebhookWorker.wakeUp();
+        }
     }
 }
@@ -0,0 +1,83 @@
+package io.github.yerektus.aitryon.common;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Keeps SSE subscribers per resource and pushes "status" snapshots to them, completing each stream once the
+ * resource reaches a terminal state.
+ */
+public class SseEmitterRegistry<K, T> {
+
+    private static final String STATUS_EVENT = "status";
+
+    private final long emitterTimeoutMillis;
+    private final Function<T, K> keyOf;
+    private final Predicate<T> terminal;
+    private final Map<K, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    protected SseEmitterRegistry(long emitterTimeoutMillis, Function<T, K> keyOf, Predicate<T> terminal) {
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.keyOf = keyOf;
+        this.terminal = terminal;
+    }
+
+    public SseEmitter subscribe(K key, Supplier<T> currentState) {
+        final SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        subscribers.computeIfAbsent(key, ignored -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(() -> unsubscribe(key, emitter));
+        emitter.onError(ignored -> unsubscribe(key, emitter));
+
+        // The snapshot is read after registration so a transition racing the subscribe is never missed.
+        send(key, emitter, currentState.get());
+        return emitter;
+    }
+
+    public void publish(T state) {
+        final K key = keyOf.apply(state);
+        final List<SseEmitter> emitters = subscribers.get(key);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(key, emitter, state);
+        }
+    }
+
+    protected Set<K> subscribedKeys() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    protected boolean hasSubscribers(K key) {
+        return subscribers.containsKey(key);
+    }
+
+    private void send(K key, SseEmitter emitter, T state) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(state));
+            if (terminal.test(state)) {
+                emitter.complete();
+                unsubscribe(key, emitter);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            unsubscribe(key, emitter);
+        }
+    }
+
+    private void unsubscribe(K key, SseEmitter emitter) {
+        subscribers.computeIfPresent(key, (ignored, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
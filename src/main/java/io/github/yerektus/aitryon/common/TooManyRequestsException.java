@@ -0,0 +1,9 @@
+package io.github.yerektus.aitryon.common;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends ApiException {
+    public TooManyRequestsException(String message) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "too_many_requests", message);
+    }
+}
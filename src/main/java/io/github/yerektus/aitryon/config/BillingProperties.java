@@ -0,0 +1,34 @@
+package io.github.yerektus.aitryon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.billing")
+public class BillingProperties {
+    private long balanceCacheMaxSize = 100_000;
+    private long balanceCacheTtlSeconds = 300;
+    private boolean balanceNotifyEnabled = true;
+
+    public long getBalanceCacheMaxSize() {
+        return balanceCacheMaxSize;
+    }
+
+    public void setBalanceCacheMaxSize(long balanceCacheMaxSize) {
+        this.balanceCacheMaxSize = balanceCacheMaxSize;
+    }
+
+    public long getBalanceCacheTtlSeconds() {
+        return balanceCacheTtlSeconds;
+    }
+
+    public void setBalanceCacheTtlSeconds(long balanceCacheTtlSeconds) {
+        this.balanceCacheTtlSeconds = balanceCacheTtlSeconds;
+    }
+
+    public boolean isBalanceNotifyEnabled() {
+        return balanceNotifyEnabled;
+    }
+
+    public void setBalanceNotifyEnabled(boolean balanceNotifyEnabled) {
+        this.balanceNotifyEnabled = balanceNotifyEnabled;
+    }
+}
@@ -2,11 +2,21 @@ package io.github.yerektus.aitryon.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "app.jwt")
 public class JwtProperties {
     private String secret;
+    private String algorithm = "HS256";
+    private String activeKeyId;
+    private List<SigningKey> signingKeys = new ArrayList<>();
+    private String legacyHmacAcceptedUntil;
     private long accessTtlMinutes = 60;
     private long refreshTtlDays = 30;
+    private boolean statelessAuth = true;
+    private long revocationRefreshSeconds = 30;
+    private long verifiedTokenCacheSize = 10_000;
 
     public String getSecret() {
         return secret;
@@ -16,6 +26,38 @@ public class JwtProperties {
         this.secret = secret;
     }
 
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    public List<SigningKey> getSigningKeys() {
+        return signingKeys;
+    }
+
+    public void setSigningKeys(List<SigningKey> signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    public String getLegacyHmacAcceptedUntil() {
+        return legacyHmacAcceptedUntil;
+    }
+
+    public void setLegacyHmacAcceptedUntil(String legacyHmacAcceptedUntil) {
+        this.legacyHmacAcceptedUntil = legacyHmacAcceptedUntil;
+    }
+
     public long getAccessTtlMinutes() {
         return accessTtlMinutes;
     }
@@ -31,4 +73,58 @@ public class JwtProperties {
     public void setRefreshTtlDays(long refreshTtlDays) {
         this.refreshTtlDays = refreshTtlDays;
     }
+
+    public boolean isStatelessAuth() {
+        return statelessAuth;
+    }
+
+    public void setStatelessAuth(boolean statelessAuth) {
+        this.statelessAuth = statelessAuth;
+    }
+
+    public long getRevocationRefreshSeconds() {
+        return revocationRefreshSeconds;
+    }
+
+    public void setRevocationRefreshSeconds(long revocationRefreshSeconds) {
+        this.revocationRefreshSeconds = revocationRefreshSeconds;
+    }
+
+    public long getVerifiedTokenCacheSize() {
+        return verifiedTokenCacheSize;
+    }
+
+    public void setVerifiedTokenCacheSize(long verifiedTokenCacheSize) {
+        this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+    }
+
+    public static class SigningKey {
+        private String id;
+        private String privateKey;
+        private String publicKey;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
 }
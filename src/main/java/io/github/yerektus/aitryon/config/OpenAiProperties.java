@@ -9,6 +9,10 @@ public class OpenAiProperties {
     private String model;
     private String imageEditModel;
     private String styleHintModel;
+    private long imageEditTimeoutSeconds = 180;
+    private long responsesTimeoutSeconds = 60;
+    private int maxInFlight = 8;
+    private long acquireTimeoutSeconds = 30;
 
     public String getBaseUrl() {
         return baseUrl;
@@ -49,4 +53,36 @@ public class OpenAiProperties {
     public void setStyleHintModel(String styleHintModel) {
         this.styleHintModel = styleHintModel;
     }
+
+    public long getImageEditTimeoutSeconds() {
+        return imageEditTimeoutSeconds;
+    }
+
+    public void setImageEditTimeoutSeconds(long imageEditTimeoutSeconds) {
+        this.imageEditTimeoutSeconds = imageEditTimeoutSeconds;
+    }
+
+    public long getResponsesTimeoutSeconds() {
+        return responsesTimeoutSeconds;
+    }
+
+    public void setResponsesTimeoutSeconds(long responsesTimeoutSeconds) {
+        this.responsesTimeoutSeconds = responsesTimeoutSeconds;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public long getAcquireTimeoutSeconds() {
+        return acquireTimeoutSeconds;
+    }
+
+    public void setAcquireTimeoutSeconds(long acquireTimeoutSeconds) {
+        this.acquireTimeoutSeconds = acquireTimeoutSeconds;
+    }
 }
@@ -0,0 +1,61 @@
+package io.github.yerektus.aitryon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.social")
+public class SocialProperties {
+    private int counterReconcileBatchSize = 500;
+    private long counterReconcileIntervalMinutes = 360;
+    private long fanOutFollowerThreshold = 10_000;
+    private int timelineBackfillSize = 100;
+    private long followEdgeCacheMaxSize = 100_000;
+    private long followEdgeCacheTtlSeconds = 300;
+
+    public int getCounterReconcileBatchSize() {
+        return counterReconcileBatchSize;
+    }
+
+    public void setCounterReconcileBatchSize(int counterReconcileBatchSize) {
+        this.counterReconcileBatchSize = counterReconcileBatchSize;
+    }
+
+    public long getCounterReconcileIntervalMinutes() {
+        return counterReconcileIntervalMinutes;
+    }
+
+    public void setCounterReconcileIntervalMinutes(long counterReconcileIntervalMinutes) {
+        this.counterReconcileIntervalMinutes = counterReconcileIntervalMinutes;
+    }
+
+    public long getFanOutFollowerThreshold() {
+        return fanOutFollowerThreshold;
+    }
+
+    public void setFanOutFollowerThreshold(long fanOutFollowerThreshold) {
+        this.fanOutFollowerThreshold = fanOutFollowerThreshold;
+    }
+
+    public int getTimelineBackfillSize() {
+        return timelineBackfillSize;
+    }
+
+    public void setTimelineBackfillSize(int timelineBackfillSize) {
+        this.timelineBackfillSize = timelineBackfillSize;
+    }
+
+    public long getFollowEdgeCacheMaxSize() {
+        return followEdgeCacheMaxSize;
+    }
+
+    public void setFollowEdgeCacheMaxSize(long followEdgeCacheMaxSize) {
+        this.followEdgeCacheMaxSize = followEdgeCacheMaxSize;
+    }
+
+    public long getFollowEdgeCacheTtlSeconds() {
+        return followEdgeCacheTtlSeconds;
+    }
+
+    public void setFollowEdgeCacheTtlSeconds(long followEdgeCacheTtlSeconds) {
+        this.followEdgeCacheTtlSeconds = followEdgeCacheTtlSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.yerektus.aitryon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProperties {
+    private String rootDir = "data/blobs";
+
+    public String getRootDir() {
+        return rootDir;
+    }
+
+    public void setRootDir(String rootDir) {
+        this.rootDir = rootDir;
+    }
+}
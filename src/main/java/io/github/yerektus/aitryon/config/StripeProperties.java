@@ -8,6 +8,14 @@ public class StripeProperties {
     private String secretKey;
     private String webhookSecret;
     private long signatureToleranceSeconds = 300;
+    private int webhookWorkerConcurrency = 4;
+    private int webhookBatchSize = 25;
+    private long webhookPollIntervalSeconds = 5;
+    private long webhookLeaseSeconds = 60;
+    private int webhookMaxAttempts = 10;
+    private long webhookRetryBaseSeconds = 5;
+    private long webhookRetryMaxSeconds = 900;
+    private long statusReconcileIntervalSeconds = 10;
 
     public String getBaseUrl() {
         return baseUrl;
@@ -40,4 +48,68 @@ public class StripeProperties {
     public void setSignatureToleranceSeconds(long signatureToleranceSeconds) {
         this.signatureToleranceSeconds = signatureToleranceSeconds;
     }
+
+    public int getWebhookWorkerConcurrency() {
+        return webhookWorkerConcurrency;
+    }
+
+    public void setWebhookWorkerConcurrency(int webhookWorkerConcurrency) {
+        this.webhookWorkerConcurrency = webhookWorkerConcurrency;
+    }
+
+    public int getWebhookBatchSize() {
+        return webhookBatchSize;
+    }
+
+    public void setWebhookBatchSize(int webhookBatchSize) {
+        this.webhookBatchSize = webhookBatchSize;
+    }
+
+    public long getWebhookPollIntervalSeconds() {
+        return webhookPollIntervalSeconds;
+    }
+
+    public void setWebhookPollIntervalSeconds(long webhookPollIntervalSeconds) {
+        this.webhookPollIntervalSeconds = webhookPollIntervalSeconds;
+    }
+
+    public long getWebhookLeaseSeconds() {
+        return webhookLeaseSeconds;
+    }
+
+    public void setWebhookLeaseSeconds(long webhookLeaseSeconds) {
+        this.webhookLeaseSeconds = webhookLeaseSeconds;
+    }
+
+    public int getWebhookMaxAttempts() {
+        return webhookMaxAttempts;
+    }
+
+    public void setWebhookMaxAttempts(int webhookMaxAttempts) {
+        this.webhookMaxAttempts = webhookMaxAttempts;
+    }
+
+    public long getWebhookRetryBaseSeconds() {
+        return webhookRetryBaseSeconds;
+    }
+
+    public void setWebhookRetryBaseSeconds(long webhookRetryBaseSeconds) {
+        this.webhookRetryBaseSeconds = webhookRetryBaseSeconds;
+    }
+
+    public long getWebhookRetryMaxSeconds() {
+        return webhookRetryMaxSeconds;
+    }
+
+    public void setWebhookRetryMaxSeconds(long webhookRetryMaxSeconds) {
+        this.webhookRetryMaxSeconds = webhookRetryMaxSeconds;
+    }
+
+    public long getStatusReconcileIntervalSeconds() {
+        return statusReconcileIntervalSeconds;
+    }
+
+    public void setStatusReconcileIntervalSeconds(long statusReconcileIntervalSeconds) {
+        this.statusReconcileIntervalSeconds = statusReconcileIntervalSeconds;
+    }
 }
@@ -0,0 +1,79 @@
+package io.github.yerektus.aitryon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.try-on")
+public class TryOnProperties {
+    private int workerConcurrency = 4;
+    private int maxPendingJobs = 64;
+    private long staleJobMinutes = 10;
+    private long creditHoldTtlMinutes = 30;
+    private int inputMaxEdgePx = 1536;
+    private float inputJpegQuality = 0.9f;
+    private boolean resultCacheEnabled = true;
+    private long resultCacheTtlMinutes = 60;
+
+    public int getWorkerConcurrency() {
+        return workerConcurrency;
+    }
+
+    public void setWorkerConcurrency(int workerConcurrency) {
+        this.workerConcurrency = workerConcurrency;
+    }
+
+    public int getMaxPendingJobs() {
+        return maxPendingJobs;
+    }
+
+    public void setMaxPendingJobs(int maxPendingJobs) {
+        this.maxPendingJobs = maxPendingJobs;
+    }
+
+    public long getStaleJobMinutes() {
+        return staleJobMinutes;
+    }
+
+    public void setStaleJobMinutes(long staleJobMinutes) {
+        this.staleJobMinutes = staleJobMinutes;
+    }
+
+    public long getCreditHoldTtlMinutes() {
+        return creditHoldTtlMinutes;
+    }
+
+    public void setCreditHoldTtlMinutes(long creditHoldTtlMinutes) {
+        this.creditHoldTtlMinutes = creditHoldTtlMinutes;
+    }
+
+    public int getInputMaxEdgePx() {
+        return inputMaxEdgePx;
+    }
+
+    public void setInputMaxEdgePx(int inputMaxEdgePx) {
+        this.inputMaxEdgePx = inputMaxEdgePx;
+    }
+
+    public float getInputJpegQuality() {
+        return inputJpegQuality;
+    }
+
+    public void setInputJpegQuality(float inputJpegQuality) {
+        this.inputJpegQuality = inputJpegQuality;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public long getResultCacheTtlMinutes() {
+        return resultCacheTtlMinutes;
+    }
+
+    public void setResultCacheTtlMinutes(long resultCacheTtlMinutes) {
+        this.resultCacheTtlMinutes = resultCacheTtlMinutes;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.yerektus.aitryon.domain;
+
+public enum CreditHoldStatus {
+    HELD,
+    CAPTURED,
+    RELEASED
+}
@@ -3,5 +3,8 @@ package io.github.yerektus.aitryon.domain;
 public enum CreditLedgerReason {
     WELCOME_BONUS,
     PAYMENT_TOPUP,
-    TRY_ON_CHARGE
+    TRY_ON_CHARGE,
+    TRY_ON_HOLD,
+    TRY_ON_HOLD_CAPTURE,
+    TRY_ON_HOLD_RELEASE
 }
@@ -0,0 +1,61 @@
+package io.github.yerektus.aitryon.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class ImageRenditionId implements Serializable {
+
+    @Column(name = "source_key", nullable = false, length = 64)
+    private String sourceKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant", nullable = false, length = 16)
+    private ImageRenditionSize variant;
+
+    public ImageRenditionId() {
+    }
+
+    public ImageRenditionId(String sourceKey, ImageRenditionSize variant) {
+        this.sourceKey = sourceKey;
+        this.variant = variant;
+    }
+
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    public void setSourceKey(String sourceKey) {
+        this.sourceKey = sourceKey;
+    }
+
+    public ImageRenditionSize getVariant() {
+        return variant;
+    }
+
+    public void setVariant(ImageRenditionSize variant) {
+        this.variant = variant;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImageRenditionId that)) {
+            return false;
+        }
+        return Objects.equals(sourceKey, that.sourceKey)
+                && variant == that.variant;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceKey, variant);
+    }
+}
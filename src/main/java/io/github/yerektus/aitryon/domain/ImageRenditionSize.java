@@ -0,0 +1,41 @@
+package io.github.yerektus.aitryon.domain;
+
+import io.github.yerektus.aitryon.common.BadRequestException;
+
+import java.util.Locale;
+
+public enum ImageRenditionSize {
+    SMALL(128),
+    MEDIUM(512),
+    LARGE(1024),
+    ORIGINAL(0);
+
+    private final int maxEdgePx;
+
+    ImageRenditionSize(int maxEdgePx) {
+        this.maxEdgePx = maxEdgePx;
+    }
+
+    public int maxEdgePx() {
+        return maxEdgePx;
+    }
+
+    public String toApiValue() {
+        return this == ORIGINAL ? "original" : String.valueOf(maxEdgePx);
+    }
+
+    public static ImageRenditionSize fromApiValue(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+
+        final String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "128", "small" -> SMALL;
+            case "512", "medium" -> MEDIUM;
+            case "1024", "large" -> LARGE;
+            case "original" -> ORIGINAL;
+            default -> throw new BadRequestException("size must be 128, 512, 1024 or original");
+        };
+    }
+}
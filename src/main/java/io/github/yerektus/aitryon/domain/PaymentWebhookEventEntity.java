@@ -29,7 +29,23 @@ public class PaymentWebhookEventEntity {
     @Column(nullable = false)
     private String payload;
 
-    @Column(name = "processed_at", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentWebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private Instant receivedAt;
+
+    @Column(name = "processed_at")
     private Instant processedAt;
 
     @PrePersist
@@ -37,8 +53,14 @@ public class PaymentWebhookEventEntity {
         if (id == null) {
             id = UUID.randomUUID();
         }
-        if (processedAt == null) {
-            processedAt = Instant.now();
+        if (status == null) {
+            status = PaymentWebhookEventStatus.PENDING;
+        }
+        if (receivedAt == null) {
+            receivedAt = Instant.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = receivedAt;
         }
     }
 
@@ -74,6 +96,46 @@ public class PaymentWebhookEventEntity {
         this.payload = payload;
     }
 
+    public PaymentWebhookEventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentWebhookEventStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(Instant receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
     public Instant getProcessedAt() {
         return processedAt;
     }
@@ -29,8 +29,11 @@ public class SocialLookDraftEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
 
-    @Column(name = "image_data", columnDefinition = "BYTEA")
-    private byte[] imageData;
+    @Column(name = "image_key", length = 64)
+    private String imageKey;
+
+    @Column(name = "image_size")
+    private Long imageSize;
 
     @Column(name = "image_mime", length = 64)
     private String imageMime;
@@ -82,12 +85,20 @@ public class SocialLookDraftEntity {
         this.user = user;
     }
 
-    public byte[] getImageData() {
-        return imageData;
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+
+    public Long getImageSize() {
+        return imageSize;
     }
 
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
     }
 
     public String getImageMime() {
@@ -11,6 +11,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -27,8 +28,11 @@ public class SocialLookEntity {
     @JoinColumn(name = "author_id", nullable = false)
     private UserEntity author;
 
-    @Column(name = "image_data", nullable = false, columnDefinition = "BYTEA")
-    private byte[] imageData;
+    @Column(name = "image_key", nullable = false, length = 64)
+    private String imageKey;
+
+    @Column(name = "image_size", nullable = false)
+    private long imageSize;
 
     @Column(name = "image_mime", nullable = false, length = 64)
     private String imageMime;
@@ -49,6 +53,17 @@ public class SocialLookEntity {
     @Column(nullable = false, length = 16)
     private SocialLookVisibility visibility;
 
+    @Column(name = "fan_out_on_read", nullable = false)
+    private boolean fanOutOnRead;
+
+    @ColumnDefault("0")
+    @Column(name = "likes_count", nullable = false, insertable = false, updatable = false)
+    private long likesCount;
+
+    @ColumnDefault("0")
+    @Column(name = "comments_count", nullable = false, insertable = false, updatable = false)
+    private long commentsCount;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -89,12 +104,20 @@ public class SocialLookEntity {
         this.author = author;
     }
 
-    public byte[] getImageData() {
-        return imageData;
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+
+    public long getImageSize() {
+        return imageSize;
     }
 
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    public void setImageSize(long imageSize) {
+        this.imageSize = imageSize;
     }
 
     public String getImageMime() {
@@ -145,6 +168,14 @@ public class SocialLookEntity {
         this.visibility = visibility;
     }
 
+    public boolean isFanOutOnRead() {
+        return fanOutOnRead;
+    }
+
+    public void setFanOutOnRead(boolean fanOutOnRead) {
+        this.fanOutOnRead = fanOutOnRead;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -160,4 +191,20 @@ public class SocialLookEntity {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getLikesCount() {
+        return likesCount;
+    }
+
+    public void setLikesCount(long likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public long getCommentsCount() {
+        return commentsCount;
+    }
+
+    public void setCommentsCount(long commentsCount) {
+        this.commentsCount = commentsCount;
+    }
 }
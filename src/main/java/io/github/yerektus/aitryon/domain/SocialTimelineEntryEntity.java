@@ -0,0 +1,77 @@
+package io.github.yerektus.aitryon.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "social_timeline_entries")
+public class SocialTimelineEntryEntity {
+
+    @EmbeddedId
+    private SocialTimelineEntryId id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @MapsId("ownerId")
+    @JoinColumn(name = "owner_id", nullable = false)
+    private UserEntity owner;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @MapsId("lookId")
+    @JoinColumn(name = "look_id", nullable = false)
+    private SocialLookEntity look;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "author_id", nullable = false)
+    private UserEntity author;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public SocialTimelineEntryId getId() {
+        return id;
+    }
+
+    public void setId(SocialTimelineEntryId id) {
+        this.id = id;
+    }
+
+    public UserEntity getOwner() {
+        return owner;
+    }
+
+    public void setOwner(UserEntity owner) {
+        this.owner = owner;
+    }
+
+    public SocialLookEntity getLook() {
+        return look;
+    }
+
+    public void setLook(SocialLookEntity look) {
+        this.look = look;
+    }
+
+    public UserEntity getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(UserEntity author) {
+        this.author = author;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.yerektus.aitryon.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class SocialTimelineEntryId implements Serializable {
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "look_id", nullable = false)
+    private UUID lookId;
+
+    public SocialTimelineEntryId() {
+    }
+
+    public SocialTimelineEntryId(UUID ownerId, UUID lookId) {
+        this.ownerId = ownerId;
+        this.lookId = lookId;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public UUID getLookId() {
+        return lookId;
+    }
+
+    public void setLookId(UUID lookId) {
+        this.lookId = lookId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SocialTimelineEntryId that)) {
+            return false;
+        }
+        return Objects.equals(ownerId, that.ownerId)
+                && Objects.equals(lookId, that.lookId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ownerId, lookId);
+    }
+}
@@ -27,20 +27,29 @@ public class TryOnJobEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
 
-    @Column(name = "person_image", nullable = false, columnDefinition = "BYTEA")
-    private byte[] personImage;
+    @Column(name = "person_image_key", nullable = false, length = 64)
+    private String personImageKey;
+
+    @Column(name = "person_image_size", nullable = false)
+    private long personImageSize;
 
     @Column(name = "person_image_mime", nullable = false, length = 64)
     private String personImageMime;
 
-    @Column(name = "clothing_image", nullable = false, columnDefinition = "BYTEA")
-    private byte[] clothingImage;
+    @Column(name = "clothing_image_key", nullable = false, length = 64)
+    private String clothingImageKey;
+
+    @Column(name = "clothing_image_size", nullable = false)
+    private long clothingImageSize;
 
     @Column(name = "clothing_image_mime", nullable = false, length = 64)
     private String clothingImageMime;
 
-    @Column(name = "result_image", columnDefinition = "BYTEA")
-    private byte[] resultImage;
+    @Column(name = "result_image_key", length = 64)
+    private String resultImageKey;
+
+    @Column(name = "result_image_size")
+    private Long resultImageSize;
 
     @Column(name = "result_image_mime", length = 64)
     private String resultImageMime;
@@ -74,12 +83,18 @@ public class TryOnJobEntity {
     @Column(name = "credits_spent", nullable = false)
     private int creditsSpent;
 
+    @Column(name = "request_fingerprint", length = 64)
+    private String requestFingerprint;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Column(name = "started_at")
+    private Instant startedAt;
+
     @PrePersist
     public void onCreate() {
         if (id == null) {
@@ -113,12 +128,20 @@ public class TryOnJobEntity {
         this.user = user;
     }
 
-    public byte[] getPersonImage() {
-        return personImage;
+    public String getPersonImageKey() {
+        return personImageKey;
+    }
+
+    public void setPersonImageKey(String personImageKey) {
+        this.personImageKey = personImageKey;
     }
 
-    public void setPersonImage(byte[] personImage) {
-        this.personImage = personImage;
+    public long getPersonImageSize() {
+        return personImageSize;
+    }
+
+    public void setPersonImageSize(long personImageSize) {
+        this.personImageSize = personImageSize;
     }
 
     public String getPersonImageMime() {
@@ -129,12 +152,20 @@ public class TryOnJobEntity {
         this.personImageMime = personImageMime;
     }
 
-    public byte[] getClothingImage() {
-        return clothingImage;
+    public String getClothingImageKey() {
+        return clothingImageKey;
+    }
+
+    public void setClothingImageKey(String clothingImageKey) {
+        this.clothingImageKey = clothingImageKey;
+    }
+
+    public long getClothingImageSize() {
+        return clothingImageSize;
     }
 
-    public void setClothingImage(byte[] clothingImage) {
-        this.clothingImage = clothingImage;
+    public void setClothingImageSize(long clothingImageSize) {
+        this.clothingImageSize = clothingImageSize;
     }
 
     public String getClothingImageMime() {
@@ -145,12 +176,20 @@ public class TryOnJobEntity {
         this.clothingImageMime = clothingImageMime;
     }
 
-    public byte[] getResultImage() {
-        return resultImage;
+    public String getResultImageKey() {
+        return resultImageKey;
     }
 
-    public void setResultImage(byte[] resultImage) {
-        this.resultImage = resultImage;
+    public void setResultImageKey(String resultImageKey) {
+        this.resultImageKey = resultImageKey;
+    }
+
+    public Long getResultImageSize() {
+        return resultImageSize;
+    }
+
+    public void setResultImageSize(Long resultImageSize) {
+        this.resultImageSize = resultImageSize;
     }
 
     public String getResultImageMime() {
@@ -248,4 +287,20 @@ public class TryOnJobEntity {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
 }
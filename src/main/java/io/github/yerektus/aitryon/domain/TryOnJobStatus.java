@@ -3,5 +3,9 @@ package io.github.yerektus.aitryon.domain;
 public enum TryOnJobStatus {
     PROCESSING,
     SUCCEEDED,
-    FAILED
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
 }
@@ -6,6 +6,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.Locale;
@@ -40,9 +41,21 @@ public class UserEntity {
     @Column(name = "avatar_url")
     private String avatarUrl;
 
-    @Column(name = "credits_balance", nullable = false)
+    @Column(name = "credits_balance", nullable = false, updatable = false)
     private int creditsBalance = 5;
 
+    @ColumnDefault("0")
+    @Column(name = "followers_count", nullable = false, insertable = false, updatable = false)
+    private long followersCount;
+
+    @ColumnDefault("0")
+    @Column(name = "following_count", nullable = false, insertable = false, updatable = false)
+    private long followingCount;
+
+    @ColumnDefault("0")
+    @Column(name = "looks_count", nullable = false, insertable = false, updatable = false)
+    private long looksCount;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -165,4 +178,28 @@ public class UserEntity {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getFollowersCount() {
+        return followersCount;
+    }
+
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public long getLooksCount() {
+        return looksCount;
+    }
+
+    public void setLooksCount(long looksCount) {
+        this.looksCount = looksCount;
+    }
 }
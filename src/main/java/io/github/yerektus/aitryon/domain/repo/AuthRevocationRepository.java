@@ -0,0 +1,31 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import io.github.yerektus.aitryon.domain.AuthRevocationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface AuthRevocationRepository extends JpaRepository<AuthRevocationEntity, UUID> {
+    List<AuthRevocationEntity> findByNotBeforeAfter(Instant since);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO auth_revocations (user_id, not_before)
+            VALUES (:userId, :notBefore)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("notBefore") Instant notBefore);
+
+    @Modifying
+    @Query("""
+            update AuthRevocationEntity r
+            set r.notBefore = :notBefore
+            where r.userId = :userId and r.notBefore < :notBefore
+            """)
+    int raiseNotBefore(@Param("userId") UUID userId, @Param("notBefore") Instant notBefore);
+}
@@ -0,0 +1,38 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import io.github.yerektus.aitryon.domain.CreditHoldEntity;
+import io.github.yerektus.aitryon.domain.CreditHoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CreditHoldRepository extends JpaRepository<CreditHoldEntity, UUID> {
+    Optional<CreditHoldEntity> findByTryOnJob_Id(UUID tryOnJobId);
+
+    @Modifying
+    @Query("""
+            update CreditHoldEntity h
+            set h.status = :next, h.updatedAt = :now
+            where h.id = :id and h.status = :expected
+            """)
+    int transition(@Param("id") UUID id,
+                   @Param("expected") CreditHoldStatus expected,
+                   @Param("next") CreditHoldStatus next,
+                   @Param("now") Instant now);
+
+    @Query("""
+            select h.tryOnJob.id from CreditHoldEntity h
+            where h.status = :status and h.expiresAt < :expiresBefore
+            order by h.expiresAt asc
+            """)
+    List<UUID> findTryOnJobIdsByStatusAndExpiresAtBefore(@Param("status") CreditHoldStatus status,
+                                                          @Param("expiresBefore") Instant expiresBefore,
+                                                          Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import java.util.UUID;
+
+public interface IdCount {
+    UUID getId();
+
+    long getTotal();
+}
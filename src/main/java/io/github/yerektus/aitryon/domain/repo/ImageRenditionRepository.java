@@ -0,0 +1,8 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import io.github.yerektus.aitryon.domain.ImageRenditionEntity;
+import io.github.yerektus.aitryon.domain.ImageRenditionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImageRenditionRepository extends JpaRepository<ImageRenditionEntity, ImageRenditionId> {
+}
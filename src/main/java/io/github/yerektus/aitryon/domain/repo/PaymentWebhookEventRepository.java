@@ -1,10 +1,36 @@
 package io.github.yerektus.aitryon.domain.repo;
 
 import io.github.yerektus.aitryon.domain.PaymentWebhookEventEntity;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEventEntity, UUID> {
     boolean existsByProviderEventId(String providerEventId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from PaymentWebhookEventEntity e where e.id = :id")
+    Optional<PaymentWebhookEventEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from PaymentWebhookEventEntity e
+            where e.status = :status and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt asc
+            """)
+    List<PaymentWebhookEventEntity> findDueForUpdateSkipLocked(@Param("status") PaymentWebhookEventStatus status,
+                                                               @Param("now") Instant now,
+                                                               Pageable pageable);
 }
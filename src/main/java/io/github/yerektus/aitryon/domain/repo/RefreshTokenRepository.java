@@ -2,10 +2,22 @@ package io.github.yerektus.aitryon.domain.repo;
 
 import io.github.yerektus.aitryon.domain.RefreshTokenEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, UUID> {
     Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("""
+            update RefreshTokenEntity t
+            set t.revokedAt = :revokedAt
+            where t.user.id = :userId and t.revokedAt is null
+            """)
+    int revokeAllForUser(@Param("userId") UUID userId, @Param("revokedAt") Instant revokedAt);
 }
@@ -2,19 +2,53 @@ package io.github.yerektus.aitryon.domain.repo;
 
 import io.github.yerektus.aitryon.domain.SocialCommentEntity;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface SocialCommentRepository extends JpaRepository<SocialCommentEntity, UUID> {
-    List<SocialCommentEntity> findByLook_IdAndParentIsNullOrderByCreatedAtDescIdDesc(UUID lookId, Pageable pageable);
+    @Query("""
+            select c
+            from SocialCommentEntity c
+            join fetch c.author
+            where c.look.id = :lookId
+              and c.parent is null
+              and (c.createdAt, c.id) < (:createdAt, :id)
+            order by c.createdAt desc, c.id desc
+            """)
+    Slice<SocialCommentEntity> findRootPage(@Param("lookId") UUID lookId,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("id") UUID id,
+                                            Pageable pageable);
 
-    List<SocialCommentEntity> findByLook_IdAndParent_IdOrderByCreatedAtDescIdDesc(UUID lookId, UUID parentId, Pageable pageable);
+    @Query("""
+            select c
+            from SocialCommentEntity c
+            join fetch c.author
+            where c.look.id = :lookId
+              and c.parent.id = :parentId
+              and (c.createdAt, c.id) < (:createdAt, :id)
+            order by c.createdAt desc, c.id desc
+            """)
+    Slice<SocialCommentEntity> findReplyPage(@Param("lookId") UUID lookId,
+                                             @Param("parentId") UUID parentId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
 
-    long countByLook_Id(UUID lookId);
+    @Query("""
+            select c.parent.id as id, count(c) as total
+            from SocialCommentEntity c
+            where c.parent.id in :parentIds
+            group by c.parent.id
+            """)
+    List<IdCount> countRepliesByParentIds(@Param("parentIds") Collection<UUID> parentIds);
 
-    long countByParent_Id(UUID parentId);
-
-    void deleteByParent_Id(UUID parentId);
+    long deleteByParent_Id(UUID parentId);
 }
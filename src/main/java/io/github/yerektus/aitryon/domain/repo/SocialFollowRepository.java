@@ -3,35 +3,52 @@ package io.github.yerektus.aitryon.domain.repo;
 import io.github.yerektus.aitryon.domain.SocialFollowEntity;
 import io.github.yerektus.aitryon.domain.SocialFollowId;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface SocialFollowRepository extends JpaRepository<SocialFollowEntity, SocialFollowId> {
     boolean existsByFollower_IdAndFollowee_Id(UUID followerId, UUID followeeId);
 
-    long countByFollowee_Id(UUID followeeId);
+    long deleteByFollower_IdAndFollowee_Id(UUID followerId, UUID followeeId);
 
-    long countByFollower_Id(UUID followerId);
-
-    void deleteByFollower_IdAndFollowee_Id(UUID followerId, UUID followeeId);
+    @Query("""
+            select sf.followee.id
+            from SocialFollowEntity sf
+            where sf.follower.id = :followerId
+              and sf.followee.id in :followeeIds
+            """)
+    List<UUID> findFolloweeIds(@Param("followerId") UUID followerId, @Param("followeeIds") Collection<UUID> followeeIds);
 
     @Query("""
             select sf
             from SocialFollowEntity sf
+            join fetch sf.follower
             where sf.followee.id = :followeeId
+              and (sf.createdAt, sf.follower.id) < (:createdAt, :id)
             order by sf.createdAt desc, sf.follower.id desc
             """)
-    List<SocialFollowEntity> findFollowersPage(@Param("followeeId") UUID followeeId, Pageable pageable);
+    Slice<SocialFollowEntity> findFollowersPage(@Param("followeeId") UUID followeeId,
+                                                @Param("createdAt") Instant createdAt,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
 
     @Query("""
             select sf
             from SocialFollowEntity sf
+            join fetch sf.followee
             where sf.follower.id = :followerId
+              and (sf.createdAt, sf.followee.id) < (:createdAt, :id)
             order by sf.createdAt desc, sf.followee.id desc
             """)
-    List<SocialFollowEntity> findFollowingPage(@Param("followerId") UUID followerId, Pageable pageable);
+    Slice<SocialFollowEntity> findFollowingPage(@Param("followerId") UUID followerId,
+                                                @Param("createdAt") Instant createdAt,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
 }
@@ -3,13 +3,23 @@ package io.github.yerektus.aitryon.domain.repo;
 import io.github.yerektus.aitryon.domain.SocialLookLikeEntity;
 import io.github.yerektus.aitryon.domain.SocialLookLikeId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface SocialLookLikeRepository extends JpaRepository<SocialLookLikeEntity, SocialLookLikeId> {
     boolean existsByLook_IdAndUser_Id(UUID lookId, UUID userId);
 
-    long countByLook_Id(UUID lookId);
+    long deleteByLook_IdAndUser_Id(UUID lookId, UUID userId);
 
-    void deleteByLook_IdAndUser_Id(UUID lookId, UUID userId);
+    @Query("""
+            select sl.look.id
+            from SocialLookLikeEntity sl
+            where sl.user.id = :userId
+              and sl.look.id in :lookIds
+            """)
+    List<UUID> findLikedLookIds(@Param("userId") UUID userId, @Param("lookIds") Collection<UUID> lookIds);
 }
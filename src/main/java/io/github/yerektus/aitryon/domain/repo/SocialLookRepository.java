@@ -3,25 +3,99 @@ package io.github.yerektus.aitryon.domain.repo;
 import io.github.yerektus.aitryon.domain.SocialLookEntity;
 import io.github.yerektus.aitryon.domain.SocialLookVisibility;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface SocialLookRepository extends JpaRepository<SocialLookEntity, UUID> {
-    long countByAuthor_Id(UUID authorId);
+    @Modifying
+    @Query("update SocialLookEntity l set l.likesCount = l.likesCount + :delta where l.id = :id")
+    int adjustLikesCount(@Param("id") UUID id, @Param("delta") long delta);
 
-    List<SocialLookEntity> findByAuthor_IdOrderByCreatedAtDescIdDesc(UUID authorId, Pageable pageable);
+    @Modifying
+    @Query("update SocialLookEntity l set l.commentsCount = l.commentsCount + :delta where l.id = :id")
+    int adjustCommentsCount(@Param("id") UUID id, @Param("delta") long delta);
 
-    List<SocialLookEntity> findByAuthor_IdAndVisibilityInOrderByCreatedAtDescIdDesc(
-            UUID authorId,
-            Collection<SocialLookVisibility> visibility,
-            Pageable pageable
-    );
+    @Modifying
+    @Query("update SocialLookEntity l set l.fanOutOnRead = true where l.id = :id")
+    int markFanOutOnRead(@Param("id") UUID id);
 
-    List<SocialLookEntity> findByVisibilityOrderByCreatedAtDescIdDesc(
-            SocialLookVisibility visibility,
-            Pageable pageable
-    );
+    @Query("select l.id from SocialLookEntity l where l.id > :after order by l.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update SocialLookEntity l
+            set l.likesCount = (select count(sl) from SocialLookLikeEntity sl where sl.look.id = l.id),
+                l.commentsCount = (select count(c) from SocialCommentEntity c where c.look.id = l.id)
+            where l.id in :ids
+            """)
+    int reconcileCounters(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select l
+            from SocialLookEntity l
+            join fetch l.author
+            where l.author.id = :authorId
+              and (l.createdAt, l.id) < (:createdAt, :id)
+            order by l.createdAt desc, l.id desc
+            """)
+    Slice<SocialLookEntity> findAuthorPage(@Param("authorId") UUID authorId,
+                                           @Param("createdAt") Instant createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
+    @Query("""
+            select l
+            from SocialLookEntity l
+            join fetch l.author
+            where l.author.id = :authorId
+              and l.visibility in :visibility
+              and (l.createdAt, l.id) < (:createdAt, :id)
+            order by l.createdAt desc, l.id desc
+            """)
+    Slice<SocialLookEntity> findAuthorPageWithVisibility(@Param("authorId") UUID authorId,
+                                                         @Param("visibility") Collection<SocialLookVisibility> visibility,
+                                                         @Param("createdAt") Instant createdAt,
+                                                         @Param("id") UUID id,
+                                                         Pageable pageable);
+
+    @Query("""
+            select l
+            from SocialLookEntity l
+            join fetch l.author
+            where l.fanOutOnRead = true
+              and l.visibility in :visibility
+              and exists (
+                  select 1 from SocialFollowEntity sf
+                  where sf.follower.id = :viewerId and sf.followee.id = l.author.id
+              )
+              and (l.createdAt, l.id) < (:createdAt, :id)
+            order by l.createdAt desc, l.id desc
+            """)
+    Slice<SocialLookEntity> findFanOutOnReadPage(@Param("viewerId") UUID viewerId,
+                                                 @Param("visibility") Collection<SocialLookVisibility> visibility,
+                                                 @Param("createdAt") Instant createdAt,
+                                                 @Param("id") UUID id,
+                                                 Pageable pageable);
+
+    @Query("""
+            select l
+            from SocialLookEntity l
+            join fetch l.author
+            where l.visibility = :visibility
+              and (l.createdAt, l.id) < (:createdAt, :id)
+            order by l.createdAt desc, l.id desc
+            """)
+    Slice<SocialLookEntity> findVisibilityPage(@Param("visibility") SocialLookVisibility visibility,
+                                               @Param("createdAt") Instant createdAt,
+                                               @Param("id") UUID id,
+                                               Pageable pageable);
 }
@@ -0,0 +1,79 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import io.github.yerektus.aitryon.domain.SocialLookVisibility;
+import io.github.yerektus.aitryon.domain.SocialTimelineEntryEntity;
+import io.github.yerektus.aitryon.domain.SocialTimelineEntryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface SocialTimelineEntryRepository extends JpaRepository<SocialTimelineEntryEntity, SocialTimelineEntryId> {
+    @Modifying
+    @Query(value = """
+            INSERT INTO social_timeline_entries (owner_id, look_id, author_id, created_at)
+            VALUES (:authorId, :lookId, :authorId, :createdAt)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertOwnEntry(@Param("authorId") UUID authorId,
+                       @Param("lookId") UUID lookId,
+                       @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO social_timeline_entries (owner_id, look_id, author_id, created_at)
+            SELECT f.follower_id, :lookId, :authorId, :createdAt
+            FROM social_follows f
+            WHERE f.followee_id = :authorId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int fanOutToFollowers(@Param("authorId") UUID authorId,
+                          @Param("lookId") UUID lookId,
+                          @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO social_timeline_entries (owner_id, look_id, author_id, created_at)
+            SELECT :ownerId, l.id, l.author_id, l.created_at
+            FROM social_looks l
+            WHERE l.author_id = :authorId
+              AND l.visibility IN ('PUBLIC', 'FOLLOWERS')
+            ORDER BY l.created_at DESC, l.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int backfillFromAuthor(@Param("ownerId") UUID ownerId,
+                           @Param("authorId") UUID authorId,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from SocialTimelineEntryEntity e where e.owner.id = :ownerId and e.author.id = :authorId")
+    int deleteByOwnerAndAuthor(@Param("ownerId") UUID ownerId, @Param("authorId") UUID authorId);
+
+    @Query("""
+            select e
+            from SocialTimelineEntryEntity e
+            join fetch e.look l
+            join fetch l.author
+            where e.owner.id = :ownerId
+              and (e.createdAt, e.id.lookId) < (:createdAt, :id)
+              and (l.author.id = :ownerId
+                   or (l.visibility in :visibility
+                       and exists (
+                           select 1 from SocialFollowEntity sf
+                           where sf.follower.id = :ownerId and sf.followee.id = l.author.id
+                       )))
+            order by e.createdAt desc, e.id.lookId desc
+            """)
+    Slice<SocialTimelineEntryEntity> findTimelinePage(@Param("ownerId") UUID ownerId,
+                                                      @Param("visibility") Collection<SocialLookVisibility> visibility,
+                                                      @Param("createdAt") Instant createdAt,
+                                                      @Param("id") UUID id,
+                                                      Pageable pageable);
+}
@@ -1,6 +1,7 @@
 package io.github.yerektus.aitryon.domain.repo;
 
 import io.github.yerektus.aitryon.domain.TryOnJobEntity;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,7 +20,23 @@ public interface TryOnJobRepository extends JpaRepository<TryOnJobEntity, UUID>
 
     Optional<TryOnJobEntity> findByIdAndUser_Id(UUID id, UUID userId);
 
+    Optional<TryOnJobEntity> findFirstByUser_IdAndRequestFingerprintAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+            UUID userId,
+            String requestFingerprint,
+            Collection<TryOnJobStatus> statuses,
+            Instant createdAfter
+    );
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select j from TryOnJobEntity j where j.id = :id")
     Optional<TryOnJobEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("""
+            select j.id from TryOnJobEntity j
+            where j.status = :status and j.startedAt < :startedBefore
+            order by j.startedAt asc
+            """)
+    List<UUID> findIdsByStatusAndStartedAtBefore(@Param("status") TryOnJobStatus status,
+                                                 @Param("startedBefore") Instant startedBefore,
+                                                 Pageable pageable);
 }
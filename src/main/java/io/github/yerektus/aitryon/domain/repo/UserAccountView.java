@@ -0,0 +1,11 @@
+package io.github.yerektus.aitryon.domain.repo;
+
+import java.util.UUID;
+
+public interface UserAccountView {
+    UUID getId();
+
+    String getEmail();
+
+    String getDisplayName();
+}
@@ -1,12 +1,15 @@
 package io.github.yerektus.aitryon.domain.repo;
 
 import io.github.yerektus.aitryon.domain.UserEntity;
-import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,7 +22,41 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     boolean existsByUsername(String username);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select u from UserEntity u where u.id = :id")
-    Optional<UserEntity> findByIdForUpdate(@Param("id") UUID id);
+    @Modifying
+    @Query("""
+            update UserEntity u
+            set u.creditsBalance = u.creditsBalance + :delta, u.updatedAt = :now
+            where u.id = :id and u.creditsBalance + :delta >= 0
+            """)
+    int applyCreditDelta(@Param("id") UUID id, @Param("delta") int delta, @Param("now") Instant now);
+
+    @Query("select u.creditsBalance from UserEntity u where u.id = :id")
+    Optional<Integer> findCreditsBalance(@Param("id") UUID id);
+
+    Optional<UserAccountView> findAccountViewById(UUID id);
+
+    @Modifying
+    @Query("update UserEntity u set u.followersCount = u.followersCount + :delta where u.id = :id")
+    int adjustFollowersCount(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update UserEntity u set u.followingCount = u.followingCount + :delta where u.id = :id")
+    int adjustFollowingCount(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update UserEntity u set u.looksCount = u.looksCount + :delta where u.id = :id")
+    int adjustLooksCount(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Query("select u.id from UserEntity u where u.id > :after order by u.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update UserEntity u
+            set u.followersCount = (select count(f) from SocialFollowEntity f where f.followee.id = u.id),
+                u.followingCount = (select count(f) from SocialFollowEntity f where f.follower.id = u.id),
+                u.looksCount = (select count(l) from SocialLookEntity l where l.author.id = u.id)
+            where u.id in :ids
+            """)
+    int reconcileSocialCounters(@Param("ids") Collection<UUID> ids);
 }
@@ -1,6 +1,6 @@
 package io.github.yerektus.aitryon.security;
 
-import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.config.JwtProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -14,17 +14,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final RequestUserCache requestUserCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtProperties jwtProperties;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   RequestUserCache requestUserCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   JwtProperties jwtProperties) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.requestUserCache = requestUserCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.jwtProperties = jwtProperties;
     }
 
     @Override
@@ -50,14 +59,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            final var userId = jwtService.userIdFromClaims(claims);
-            final var user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
+            final UUID userId = jwtService.userIdFromClaims(claims);
+            final Instant issuedAt = claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+            if (tokenRevocationService.isRevoked(userId, issuedAt)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            final AuthenticatedUser principal = resolvePrincipal(userId, claims);
+            if (principal == null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            final AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail());
             final UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -67,4 +81,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolvePrincipal(UUID userId, Claims claims) {
+        final String email = jwtService.emailFromClaims(claims);
+        if (jwtProperties.isStatelessAuth() && email != null) {
+            return new AuthenticatedUser(userId, email);
+        }
+
+        return requestUserCache.find(userId)
+                .map(user -> new AuthenticatedUser(user.id(), user.email()))
+                .orElse(null);
+    }
 }
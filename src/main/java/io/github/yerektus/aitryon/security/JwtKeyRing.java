@@ -0,0 +1,213 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.config.JwtProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final Profiles EPHEMERAL_KEY_PROFILES = Profiles.of("dev", "test");
+
+    private final SecretKey hmacKey;
+    private final boolean asymmetric;
+    private final Instant legacyHmacAcceptedUntil;
+    private final String activeKeyId;
+    private final PrivateKey activePrivateKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyRing(JwtProperties jwtProperties, Environment environment) {
+        this.hmacKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+
+        final SigningAlgorithm algorithm = SigningAlgorithm.from(jwtProperties.getAlgorithm());
+        this.asymmetric = algorithm != SigningAlgorithm.HS256;
+        this.legacyHmacAcceptedUntil = parseCutoff(jwtProperties.getLegacyHmacAcceptedUntil());
+        if (!asymmetric) {
+            this.activeKeyId = null;
+            this.activePrivateKey = null;
+            this.verificationKeys = Map.of();
+            this.jwks = Map.of("keys", List.of());
+            return;
+        }
+
+        final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        final Map<String, PrivateKey> privateKeys = new HashMap<>();
+        for (JwtProperties.SigningKey signingKey : jwtProperties.getSigningKeys()) {
+            if (isBlank(signingKey.getId()) && isBlank(signingKey.getPublicKey())) {
+                continue;
+            }
+            if (isBlank(signingKey.getId()) || isBlank(signingKey.getPublicKey())) {
+                throw new IllegalStateException("Every app.jwt.signing-keys entry needs an id and a public-key");
+            }
+            publicKeys.put(signingKey.getId(), algorithm.decodePublicKey(signingKey.getPublicKey()));
+            if (!isBlank(signingKey.getPrivateKey())) {
+                privateKeys.put(signingKey.getId(), algorithm.decodePrivateKey(signingKey.getPrivateKey()));
+            }
+        }
+
+        if (publicKeys.isEmpty()) {
+            if (!environment.acceptsProfiles(EPHEMERAL_KEY_PROFILES)) {
+                throw new IllegalStateException(
+                        "app.jwt.algorithm=" + algorithm.jwaName + " requires app.jwt.signing-keys outside the dev and test profiles"
+                );
+            }
+            final String keyId = "ephemeral-" + UUID.randomUUID();
+            final KeyPair keyPair = algorithm.generateKeyPair();
+            publicKeys.put(keyId, keyPair.getPublic());
+            privateKeys.put(keyId, keyPair.getPrivate());
+            log.warn("No app.jwt.signing-keys configured for {}; signing with ephemeral key {}", algorithm.jwaName, keyId);
+        }
+
+        this.activeKeyId = isBlank(jwtProperties.getActiveKeyId())
+                ? publicKeys.keySet().stream().filter(privateKeys::containsKey).findFirst().orElse(null)
+                : jwtProperties.getActiveKeyId();
+        this.activePrivateKey = activeKeyId == null ? null : privateKeys.get(activeKeyId);
+        if (activePrivateKey == null) {
+            throw new IllegalStateException("No private key configured for the active JWT signing key");
+        }
+
+        this.verificationKeys = Collections.unmodifiableMap(publicKeys);
+        this.jwks = Map.of("keys", publicKeys.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), entry.getValue(), algorithm))
+                .toList());
+    }
+
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    public Key signingKey() {
+        return activePrivateKey != null ? activePrivateKey : hmacKey;
+    }
+
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        final String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (asymmetric && !acceptsLegacyHmac()) {
+                throw new UnsupportedJwtException("JWT key id is required");
+            }
+            return hmacKey;
+        }
+
+        final PublicKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown JWT signing key id");
+        }
+        return key;
+    }
+
+    private boolean acceptsLegacyHmac() {
+        return legacyHmacAcceptedUntil != null && Instant.now().isBefore(legacyHmacAcceptedUntil);
+    }
+
+    private static Instant parseCutoff(String value) {
+        if (isBlank(value)) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalStateException("app.jwt.legacy-hmac-accepted-until must be an ISO-8601 instant", ex);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String keyId, PublicKey publicKey, SigningAlgorithm algorithm) {
+        return new LinkedHashMap<>(Jwks.builder()
+                .key(publicKey)
+                .id(keyId)
+                .algorithm(algorithm.jwaName)
+                .publicKeyUse("sig")
+                .build());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private enum SigningAlgorithm {
+        HS256("HS256", null),
+        ES256("ES256", "EC"),
+        EDDSA("EdDSA", "EdDSA");
+
+        private final String jwaName;
+        private final String keyFactoryAlgorithm;
+
+        SigningAlgorithm(String jwaName, String keyFactoryAlgorithm) {
+            this.jwaName = jwaName;
+            this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        }
+
+        static SigningAlgorithm from(String value) {
+            if (value == null || value.isBlank()) {
+                return HS256;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("Unsupported app.jwt.algorithm: " + value, ex);
+            }
+        }
+
+        KeyPair generateKeyPair() {
+            return this == ES256 ? Jwts.SIG.ES256.keyPair().build() : Jwts.SIG.EdDSA.keyPair().build();
+        }
+
+        PublicKey decodePublicKey(String encoded) {
+            try {
+                return KeyFactory.getInstance(keyFactoryAlgorithm).generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+            } catch (GeneralSecurityException | IllegalArgumentException ex) {
+                throw new IllegalStateException("Invalid " + jwaName + " public key in app.jwt.signing-keys", ex);
+            }
+        }
+
+        PrivateKey decodePrivateKey(String encoded) {
+            try {
+                return KeyFactory.getInstance(keyFactoryAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(decodePem(encoded)));
+            } catch (GeneralSecurityException | IllegalArgumentException ex) {
+                throw new IllegalStateException("Invalid " + jwaName + " private key in app.jwt.signing-keys", ex);
+            }
+        }
+
+        private static byte[] decodePem(String encoded) {
+            final String base64 = encoded.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package io.github.yerektus.aitryon.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.github.yerektus.aitryon.config.JwtProperties;
 import io.github.yerektus.aitryon.domain.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
@@ -18,11 +22,22 @@ import java.util.UUID;
 @Service
 public class JwtService {
     private final JwtProperties jwtProperties;
-    private final SecretKey secretKey;
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtParser parser;
+    private final TokenHashService tokenHashService;
+    private final Cache<String, Claims> verifiedTokens;
 
-    public JwtService(JwtProperties jwtProperties) {
+    public JwtService(JwtProperties jwtProperties,
+                      JwtKeyRing jwtKeyRing,
+                      TokenHashService tokenHashService,
+                      MeterRegistry meterRegistry) {
         this.jwtProperties = jwtProperties;
-        this.secretKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.jwtKeyRing = jwtKeyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(jwtKeyRing)
+                .build();
+        this.tokenHashService = tokenHashService;
+        this.verifiedTokens = buildVerifiedTokenCache(jwtProperties.getVerifiedTokenCacheSize(), meterRegistry);
     }
 
     public String createAccessToken(UserEntity user) {
@@ -30,11 +45,12 @@ public class JwtService {
         final Instant exp = now.plus(jwtProperties.getAccessTtlMinutes(), ChronoUnit.MINUTES);
 
         return Jwts.builder()
+                .header().keyId(jwtKeyRing.activeKeyId()).and()
                 .subject(user.getId().toString())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(exp))
                 .claims(Map.of("email", user.getEmail(), "type", "access"))
-                .signWith(secretKey)
+                .signWith(jwtKeyRing.signingKey())
                 .compact();
     }
 
@@ -47,11 +63,19 @@ public class JwtService {
     }
 
     public Claims parseAndValidate(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (verifiedTokens == null) {
+            return verify(token);
+        }
+
+        final String key = tokenHashService.hash(token);
+        final Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && isUnexpired(cached)) {
+            return cached;
+        }
+
+        final Claims claims = verify(token);
+        verifiedTokens.put(key, claims);
+        return claims;
     }
 
     public UUID userIdFromClaims(Claims claims) {
@@ -65,4 +89,48 @@ public class JwtService {
     public long getRefreshTtlDays() {
         return jwtProperties.getRefreshTtlDays();
     }
+
+    private static Cache<String, Claims> buildVerifiedTokenCache(long maximumSize, MeterRegistry meterRegistry) {
+        if (maximumSize <= 0) {
+            return null;
+        }
+
+        final Cache<String, Claims> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+        return cache;
+    }
+
+    private Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private static boolean isUnexpired(Claims claims) {
+        return claims.getExpiration() == null || claims.getExpiration().toInstant().isAfter(Instant.now());
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return 0;
+            }
+            final Duration remaining = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.domain.UserEntity;
+
+import java.util.UUID;
+
+/**
+ * Read-only snapshot of a user row shared across a request, so callers cannot mutate a detached entity.
+ */
+public record RequestUser(
+        UUID id,
+        String email,
+        String username,
+        String displayName,
+        String avatarUrl,
+        String bio,
+        long followersCount,
+        long followingCount,
+        long looksCount
+) {
+
+    public static RequestUser from(UserEntity user) {
+        return new RequestUser(
+                user.getId(),
+                user.getEmail(),
+                user.getUsername(),
+                user.getDisplayName(),
+                user.getAvatarUrl(),
+                user.getBio(),
+                user.getFollowersCount(),
+                user.getFollowingCount(),
+                user.getLooksCount()
+        );
+    }
+}
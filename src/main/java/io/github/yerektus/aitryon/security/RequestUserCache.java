@@ -0,0 +1,67 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class RequestUserCache {
+
+    private static final String ATTRIBUTE = RequestUserCache.class.getName();
+
+    private final UserRepository userRepository;
+    private final Counter hits;
+    private final Counter misses;
+
+    public RequestUserCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hits = Counter.builder("request.user-cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("request.user-cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Optional<RequestUser> find(UUID userId) {
+        final Map<UUID, RequestUser> users = currentRequestUsers();
+        if (users == null) {
+            return userRepository.findById(userId).map(RequestUser::from);
+        }
+
+        final RequestUser cached = users.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        final Optional<RequestUser> loaded = userRepository.findById(userId).map(RequestUser::from);
+        loaded.ifPresent(user -> users.put(userId, user));
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, RequestUser> currentRequestUsers() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<UUID, RequestUser> users =
+                (Map<UUID, RequestUser>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+}
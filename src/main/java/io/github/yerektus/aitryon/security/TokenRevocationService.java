@@ -0,0 +1,65 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.config.JwtProperties;
+import io.github.yerektus.aitryon.domain.AuthRevocationEntity;
+import io.github.yerektus.aitryon.domain.repo.AuthRevocationRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class TokenRevocationService {
+
+    private final AuthRevocationRepository authRevocationRepository;
+    private final JwtProperties jwtProperties;
+    private final Map<UUID, Instant> notBeforeByUser = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(AuthRevocationRepository authRevocationRepository,
+                                  JwtProperties jwtProperties) {
+        this.authRevocationRepository = authRevocationRepository;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * JWT {@code iat} has whole-second precision, so a token minted in the same second as the revocation
+     * cannot be told apart from one minted just before it and is rejected as well.
+     */
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        final Instant notBefore = notBeforeByUser.get(userId);
+        return notBefore != null && (issuedAt == null || !issuedAt.isAfter(notBefore));
+    }
+
+    @Transactional
+    public void revokeAll(UUID userId) {
+        final Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        // Insert-if-absent then raise keeps the later not_before under concurrent revokes for the same user.
+        authRevocationRepository.insertIfAbsent(userId, notBefore);
+        authRevocationRepository.raiseNotBefore(userId, notBefore);
+        notBeforeByUser.merge(userId, notBefore, TokenRevocationService::latest);
+    }
+
+    @Scheduled(
+            initialDelay = 0,
+            fixedDelayString = "${app.jwt.revocation-refresh-seconds:30}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    @Transactional(readOnly = true)
+    public void refresh() {
+        final Instant horizon = Instant.now().minus(jwtProperties.getAccessTtlMinutes(), ChronoUnit.MINUTES);
+        for (AuthRevocationEntity revocation : authRevocationRepository.findByNotBeforeAfter(horizon)) {
+            notBeforeByUser.merge(revocation.getUserId(), revocation.getNotBefore(), TokenRevocationService::latest);
+        }
+        notBeforeByUser.values().removeIf(notBefore -> notBefore.isBefore(horizon));
+    }
+
+    private static Instant latest(Instant left, Instant right) {
+        return left.isAfter(right) ? left : right;
+    }
+}
@@ -4,34 +4,56 @@ import io.github.yerektus.aitryon.common.BadRequestException;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.UUID;
 
 @Component
 public class CursorCodec {
 
-    public String encodePage(int page) {
-        final String payload = "p:" + page;
+    private static final String KEYSET_PREFIX = "k1:";
+    private static final String LEGACY_PAGE_PREFIX = "p:";
+
+    public String encode(Instant createdAt, UUID id) {
+        final String payload = KEYSET_PREFIX + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
         return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
     }
 
-    public int decodePage(String cursor) {
+    public PageCursor decode(String cursor) {
         if (cursor == null || cursor.isBlank()) {
-            return 0;
+            return PageCursor.first();
         }
 
         try {
             final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
-            if (!decoded.startsWith("p:")) {
-                throw new BadRequestException("Invalid cursor");
+            if (decoded.startsWith(KEYSET_PREFIX)) {
+                return decodeKeyset(decoded.substring(KEYSET_PREFIX.length()));
             }
-
-            final int page = Integer.parseInt(decoded.substring(2));
-            if (page < 0) {
-                throw new BadRequestException("Invalid cursor");
+            if (decoded.startsWith(LEGACY_PAGE_PREFIX)) {
+                return decodeLegacyPage(decoded.substring(LEGACY_PAGE_PREFIX.length()));
             }
-            return page;
-        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private PageCursor decodeKeyset(String payload) {
+        final String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        final Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        return PageCursor.after(createdAt, UUID.fromString(parts[2]));
+    }
+
+    private PageCursor decodeLegacyPage(String payload) {
+        final int page = Integer.parseInt(payload);
+        if (page < 0) {
             throw new BadRequestException("Invalid cursor");
         }
+        return PageCursor.legacy(page);
     }
 }
@@ -0,0 +1,55 @@
+package io.github.yerektus.aitryon.social;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.yerektus.aitryon.config.SocialProperties;
+import io.github.yerektus.aitryon.domain.SocialFollowId;
+import io.github.yerektus.aitryon.domain.repo.SocialFollowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class FollowEdgeCache {
+
+    private final SocialFollowRepository socialFollowRepository;
+    private final Cache<SocialFollowId, Boolean> edges;
+
+    public FollowEdgeCache(SocialFollowRepository socialFollowRepository,
+                           SocialProperties socialProperties,
+                           MeterRegistry meterRegistry) {
+        this.socialFollowRepository = socialFollowRepository;
+        this.edges = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, socialProperties.getFollowEdgeCacheMaxSize()))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, socialProperties.getFollowEdgeCacheTtlSeconds())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, edges, "social.follow-edges");
+    }
+
+    public boolean isFollowing(UUID followerId, UUID followeeId) {
+        return edges.get(
+                new SocialFollowId(followerId, followeeId),
+                key -> socialFollowRepository.existsByFollower_IdAndFollowee_Id(followerId, followeeId)
+        );
+    }
+
+    public void evict(UUID followerId, UUID followeeId) {
+        final SocialFollowId key = new SocialFollowId(followerId, followeeId);
+        edges.invalidate(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    edges.invalidate(key);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.yerektus.aitryon.social;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record PageCursor(
+        Instant createdAt,
+        UUID id,
+        int legacyPage
+) {
+
+    private static final Instant UPPER_BOUND = Instant.parse("9999-12-31T23:59:59Z");
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    public static PageCursor first() {
+        return new PageCursor(UPPER_BOUND, MAX_ID, 0);
+    }
+
+    public static PageCursor after(Instant createdAt, UUID id) {
+        return new PageCursor(createdAt, id, 0);
+    }
+
+    public static PageCursor legacy(int page) {
+        return new PageCursor(UPPER_BOUND, MAX_ID, page);
+    }
+
+    public Pageable pageable(int limit) {
+        return PageRequest.of(legacyPage, limit);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.yerektus.aitryon.social;
 
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
 import io.github.yerektus.aitryon.social.dto.CreateSocialCommentRequest;
 import io.github.yerektus.aitryon.social.dto.CursorPageResponse;
@@ -9,9 +10,12 @@ import io.github.yerektus.aitryon.social.dto.SocialLookDraftResponse;
 import io.github.yerektus.aitryon.social.dto.SocialLookResponse;
 import io.github.yerektus.aitryon.social.dto.SocialProfileResponse;
 import io.github.yerektus.aitryon.social.dto.UpdateMySocialProfileRequest;
+import io.github.yerektus.aitryon.storage.BlobResponses;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -121,12 +125,26 @@ public class SocialController {
         return socialService.listPublishedLooks(user.userId(), cursor, limit);
     }
 
+    @GetMapping("/feed")
+    public CursorPageResponse<SocialLookResponse> listFeed(@AuthenticationPrincipal AuthenticatedUser user,
+                                                           @RequestParam(name = "cursor", required = false) String cursor,
+                                                           @RequestParam(name = "limit", required = false) Integer limit) {
+        return socialService.listFeed(user.userId(), cursor, limit);
+    }
+
     @GetMapping("/looks/{lookId}")
     public SocialLookResponse fetchLook(@AuthenticationPrincipal AuthenticatedUser user,
                                         @PathVariable UUID lookId) {
         return socialService.fetchLook(user.userId(), lookId);
     }
 
+    @GetMapping("/looks/{lookId}/image")
+    public ResponseEntity<Resource> fetchLookImage(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @PathVariable UUID lookId,
+                                                   @RequestParam(name = "size", required = false) String size) {
+        return BlobResponses.ok(socialService.fetchLookImage(user.userId(), lookId, ImageRenditionSize.fromApiValue(size)));
+    }
+
     @PostMapping("/looks/{lookId}/likes")
     public SocialLookResponse likeLook(@AuthenticationPrincipal AuthenticatedUser user,
                                        @PathVariable UUID lookId) {
@@ -168,6 +186,12 @@ public class SocialController {
         return socialService.fetchMyLookDraft(user.userId());
     }
 
+    @GetMapping("/look-drafts/me/image")
+    public ResponseEntity<Resource> fetchMyLookDraftImage(@AuthenticationPrincipal AuthenticatedUser user,
+                                                          @RequestParam(name = "size", required = false) String size) {
+        return BlobResponses.ok(socialService.fetchMyLookDraftImage(user.userId(), ImageRenditionSize.fromApiValue(size)));
+    }
+
     @PutMapping(value = "/look-drafts/me", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public SocialLookDraftResponse upsertMyLookDraft(@AuthenticationPrincipal AuthenticatedUser user,
                                                      @RequestParam(name = "title", required = false) String title,
@@ -0,0 +1,65 @@
+package io.github.yerektus.aitryon.social;
+
+import io.github.yerektus.aitryon.config.SocialProperties;
+import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Component
+public class SocialCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(SocialCounterReconciler.class);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final UserRepository userRepository;
+    private final SocialLookRepository socialLookRepository;
+    private final SocialCounterWriter socialCounterWriter;
+    private final SocialProperties socialProperties;
+
+    public SocialCounterReconciler(UserRepository userRepository,
+                                   SocialLookRepository socialLookRepository,
+                                   SocialCounterWriter socialCounterWriter,
+                                   SocialProperties socialProperties) {
+        this.userRepository = userRepository;
+        this.socialLookRepository = socialLookRepository;
+        this.socialCounterWriter = socialCounterWriter;
+        this.socialProperties = socialProperties;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.social.counter-reconcile-interval-minutes:360}",
+            fixedDelayString = "${app.social.counter-reconcile-interval-minutes:360}",
+            timeUnit = TimeUnit.MINUTES
+    )
+    public void reconcile() {
+        final int users = reconcileInBatches(userRepository::findIdsAfter, socialCounterWriter::reconcileUsers);
+        final int looks = reconcileInBatches(socialLookRepository::findIdsAfter, socialCounterWriter::reconcileLooks);
+        log.info("Social counters reconciled: users={} looks={}", users, looks);
+    }
+
+    private int reconcileInBatches(BiFunction<UUID, Pageable, List<UUID>> nextIds,
+                                   Function<List<UUID>, Integer> reconcileBatch) {
+        final Pageable batch = PageRequest.of(0, Math.max(1, socialProperties.getCounterReconcileBatchSize()));
+        UUID after = MIN_ID;
+        int reconciled = 0;
+        while (true) {
+            final List<UUID> ids = nextIds.apply(after, batch);
+            if (ids.isEmpty()) {
+                return reconciled;
+            }
+            reconciled += reconcileBatch.apply(ids);
+            after = ids.getLast();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.yerektus.aitryon.social;
+
+import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Component
+public class SocialCounterWriter {
+
+    private final UserRepository userRepository;
+    private final SocialLookRepository socialLookRepository;
+
+    public SocialCounterWriter(UserRepository userRepository, SocialLookRepository socialLookRepository) {
+        this.userRepository = userRepository;
+        this.socialLookRepository = socialLookRepository;
+    }
+
+    @Transactional
+    public int reconcileUsers(Collection<UUID> userIds) {
+        return userRepository.reconcileSocialCounters(userIds);
+    }
+
+    @Transactional
+    public int reconcileLooks(Collection<UUID> lookIds) {
+        return socialLookRepository.reconcileCounters(lookIds);
+    }
+}
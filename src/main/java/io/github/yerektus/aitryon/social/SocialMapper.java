@@ -1,16 +1,25 @@
 package io.github.yerektus.aitryon.social;
 
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.domain.SocialCommentEntity;
 import io.github.yerektus.aitryon.domain.SocialLookDraftEntity;
 import io.github.yerektus.aitryon.domain.SocialLookEntity;
 import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.security.RequestUser;
 import io.github.yerektus.aitryon.social.dto.SocialCommentResponse;
 import io.github.yerektus.aitryon.social.dto.SocialLookDraftResponse;
 import io.github.yerektus.aitryon.social.dto.SocialLookResponse;
 import io.github.yerektus.aitryon.social.dto.SocialProfileResponse;
 import io.github.yerektus.aitryon.social.dto.SocialUserResponse;
+import io.github.yerektus.aitryon.storage.BlobStore;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +27,17 @@ import java.util.UUID;
 @Component
 public class SocialMapper {
 
+    private static final String LOOK_IMAGE_PATH = "/api/v1/social/looks/%s/image";
+    private static final String LOOK_THUMBNAIL_PATH = LOOK_IMAGE_PATH + "?size=" + ImageRenditionSize.MEDIUM.toApiValue();
+    private static final String DRAFT_IMAGE_PATH = "/api/v1/social/look-drafts/me/image?v=%s";
+    private static final int IMAGE_VERSION_LENGTH = 16;
+
+    private final BlobStore blobStore;
+
+    public SocialMapper(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
     public SocialUserResponse toSocialUser(UserEntity user) {
         return new SocialUserResponse(
                 user.getId(),
@@ -27,23 +47,18 @@ public class SocialMapper {
         );
     }
 
-    public SocialProfileResponse toSocialProfile(UserEntity user,
-                                                 long followersCount,
-                                                 long followingCount,
-                                                 long looksCount,
-                                                 boolean isFollowing,
-                                                 UUID viewerId) {
+    public SocialProfileResponse toSocialProfile(RequestUser user, boolean isFollowing, UUID viewerId) {
         return new SocialProfileResponse(
-                user.getId(),
-                user.getUsername(),
-                user.getDisplayName(),
-                user.getAvatarUrl(),
-                user.getBio(),
-                followersCount,
-                followingCount,
-                looksCount,
+                user.id(),
+                user.username(),
+                user.displayName(),
+                user.avatarUrl(),
+                user.bio(),
+                user.followersCount(),
+                user.followingCount(),
+                user.looksCount(),
                 isFollowing,
-                user.getId().equals(viewerId)
+                user.id().equals(viewerId)
         );
     }
 
@@ -55,7 +70,8 @@ public class SocialMapper {
         return new SocialLookResponse(
                 look.getId(),
                 toSocialUser(look.getAuthor()),
-                toDataUri(look.getImageData(), look.getImageMime()),
+                LOOK_IMAGE_PATH.formatted(look.getId()),
+                LOOK_THUMBNAIL_PATH.formatted(look.getId()),
                 look.getTitle(),
                 look.getDescription(),
                 tags,
@@ -86,26 +102,36 @@ public class SocialMapper {
     }
 
     public SocialLookDraftResponse toSocialLookDraft(SocialLookDraftEntity draft, List<String> tags) {
-        final String dataUri = toDataUri(draft.getImageData(), draft.getImageMime());
+        final String imageUrl = draft.getImageKey() != null
+                ? DRAFT_IMAGE_PATH.formatted(draft.getImageKey().substring(0, IMAGE_VERSION_LENGTH))
+                : null;
         return new SocialLookDraftResponse(
                 draft.getTitle(),
                 draft.getDescription(),
                 tags,
                 draft.getStyle(),
                 draft.getVisibility().toApiValue(),
-                dataUri,
-                dataUri,
+                imageUrl,
+                toDataUri(draft.getImageKey(), draft.getImageSize(), draft.getImageMime()),
                 draft.getUpdatedAt()
         );
     }
 
-    private String toDataUri(byte[] bytes, String mimeType) {
-        if (bytes == null || bytes.length == 0) {
+    // Kept only for clients that still read SocialLookDraftResponse.imageDataUri; new clients load imageUrl.
+    private String toDataUri(String imageKey, Long imageSize, String mimeType) {
+        if (imageKey == null) {
             return null;
         }
 
         final String mime = (mimeType == null || mimeType.isBlank()) ? "image/jpeg" : mimeType;
-        final String payload = Base64.getEncoder().encodeToString(bytes);
-        return "data:" + mime + ";base64," + payload;
+        final long encodedSize = imageSize == null ? 0 : (imageSize + 2) / 3 * 4;
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream((int) Math.min(encodedSize, Integer.MAX_VALUE - 8));
+        try (InputStream input = blobStore.open(imageKey).getInputStream();
+             OutputStream encoder = Base64.getEncoder().wrap(payload)) {
+            input.transferTo(encoder);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read image " + imageKey, ex);
+        }
+        return "data:" + mime + ";base64," + payload.toString(StandardCharsets.US_ASCII);
     }
 }
@@ -7,6 +7,7 @@ import io.github.yerektus.aitryon.common.BadRequestException;
 import io.github.yerektus.aitryon.common.ForbiddenException;
 import io.github.yerektus.aitryon.common.NotFoundException;
 import io.github.yerektus.aitryon.common.PayloadTooLargeException;
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.domain.SocialCommentEntity;
 import io.github.yerektus.aitryon.domain.SocialFollowEntity;
 import io.github.yerektus.aitryon.domain.SocialFollowId;
@@ -16,12 +17,15 @@ import io.github.yerektus.aitryon.domain.SocialLookLikeEntity;
 import io.github.yerektus.aitryon.domain.SocialLookLikeId;
 import io.github.yerektus.aitryon.domain.SocialLookVisibility;
 import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.IdCount;
 import io.github.yerektus.aitryon.domain.repo.SocialCommentRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialFollowRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookDraftRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookLikeRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.security.RequestUser;
+import io.github.yerektus.aitryon.security.RequestUserCache;
 import io.github.yerektus.aitryon.social.dto.CursorPageResponse;
 import io.github.yerektus.aitryon.social.dto.FollowRelationResponse;
 import io.github.yerektus.aitryon.social.dto.SocialCommentResponse;
@@ -29,16 +33,25 @@ import io.github.yerektus.aitryon.social.dto.SocialLookDraftResponse;
 import io.github.yerektus.aitryon.social.dto.SocialLookResponse;
 import io.github.yerektus.aitryon.social.dto.SocialProfileResponse;
 import io.github.yerektus.aitryon.social.dto.UpdateMySocialProfileRequest;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import io.github.yerektus.aitryon.storage.BlobContent;
+import io.github.yerektus.aitryon.storage.BlobStore;
+import io.github.yerektus.aitryon.storage.ImageRenditionService;
+import io.github.yerektus.aitryon.storage.StoredBlob;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SocialService {
@@ -56,6 +69,11 @@ public class SocialService {
     private final SocialMapper socialMapper;
     private final CursorCodec cursorCodec;
     private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    private final ImageRenditionService imageRenditionService;
+    private final SocialTimelineService socialTimelineService;
+    private final FollowEdgeCache followEdgeCache;
+    private final RequestUserCache requestUserCache;
 
     public SocialService(UserRepository userRepository,
                          SocialFollowRepository socialFollowRepository,
@@ -66,7 +84,12 @@ public class SocialService {
                          SocialVisibilityPolicy socialVisibilityPolicy,
                          SocialMapper socialMapper,
                          CursorCodec cursorCodec,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         BlobStore blobStore,
+                         ImageRenditionService imageRenditionService,
+                         SocialTimelineService socialTimelineService,
+                         FollowEdgeCache followEdgeCache,
+                         RequestUserCache requestUserCache) {
         this.userRepository = userRepository;
         this.socialFollowRepository = socialFollowRepository;
         this.socialLookRepository = socialLookRepository;
@@ -77,6 +100,11 @@ public class SocialService {
         this.socialMapper = socialMapper;
         this.cursorCodec = cursorCodec;
         this.objectMapper = objectMapper;
+        this.blobStore = blobStore;
+        this.imageRenditionService = imageRenditionService;
+        this.socialTimelineService = socialTimelineService;
+        this.followEdgeCache = followEdgeCache;
+        this.requestUserCache = requestUserCache;
     }
 
     @Transactional(readOnly = true)
@@ -86,8 +114,7 @@ public class SocialService {
 
     @Transactional(readOnly = true)
     public SocialProfileResponse fetchProfile(UUID viewerId, UUID profileId) {
-        final UserEntity profile = getUser(profileId);
-        return buildProfileResponse(profile, viewerId);
+        return buildProfileResponse(getCachedUser(profileId), viewerId);
     }
 
     @Transactional
@@ -113,7 +140,7 @@ public class SocialService {
         }
 
         final UserEntity saved = userRepository.save(user);
-        return buildProfileResponse(saved, viewerId);
+        return buildProfileResponse(RequestUser.from(saved), viewerId);
     }
 
     @Transactional
@@ -132,10 +159,14 @@ public class SocialService {
             relation.setFollower(follower);
             relation.setFollowee(followee);
             socialFollowRepository.save(relation);
+            followEdgeCache.evict(viewerId, targetUserId);
+            userRepository.adjustFollowingCount(viewerId, 1);
+            userRepository.adjustFollowersCount(targetUserId, 1);
+            followee.setFollowersCount(followee.getFollowersCount() + 1);
+            socialTimelineService.onFollow(viewerId, followee);
         }
 
-        final long followersCount = socialFollowRepository.countByFollowee_Id(targetUserId);
-        return new FollowRelationResponse(targetUserId, true, followersCount);
+        return new FollowRelationResponse(targetUserId, true, followee.getFollowersCount());
     }
 
     @Transactional
@@ -144,11 +175,16 @@ public class SocialService {
             throw new BadRequestException("Cannot unfollow yourself");
         }
 
-        getUser(targetUserId);
-        socialFollowRepository.deleteByFollower_IdAndFollowee_Id(viewerId, targetUserId);
+        final UserEntity followee = getUser(targetUserId);
+        if (socialFollowRepository.deleteByFollower_IdAndFollowee_Id(viewerId, targetUserId) > 0) {
+            followEdgeCache.evict(viewerId, targetUserId);
+            userRepository.adjustFollowingCount(viewerId, -1);
+            userRepository.adjustFollowersCount(targetUserId, -1);
+            followee.setFollowersCount(followee.getFollowersCount() - 1);
+            socialTimelineService.onUnfollow(viewerId, targetUserId);
+        }
 
-        final long followersCount = socialFollowRepository.countByFollowee_Id(targetUserId);
-        return new FollowRelationResponse(targetUserId, false, followersCount);
+        return new FollowRelationResponse(targetUserId, false, followee.getFollowersCount());
     }
 
     @Transactional(readOnly = true)
@@ -156,22 +192,27 @@ public class SocialService {
                                                                    UUID profileId,
                                                                    String cursor,
                                                                    Integer limit) {
-        getUser(profileId);
+        getCachedUser(profileId);
 
         final int safeLimit = normalizeLimit(limit);
-        final int page = cursorCodec.decodePage(cursor);
-        final Pageable pageable = PageRequest.of(page, safeLimit);
-
-        final List<SocialFollowEntity> rows = socialFollowRepository.findFollowersPage(profileId, pageable);
-        final boolean hasMore = !socialFollowRepository.findFollowersPage(profileId, PageRequest.of(page + 1, safeLimit))
-                .isEmpty();
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
 
-        final List<SocialProfileResponse> items = rows.stream()
-                .map(SocialFollowEntity::getFollower)
-                .map(user -> buildProfileResponse(user, viewerId))
-                .toList();
+        final Slice<SocialFollowEntity> rows = socialFollowRepository.findFollowersPage(
+                profileId,
+                pageCursor.createdAt(),
+                pageCursor.id(),
+                pageCursor.pageable(safeLimit)
+        );
 
-        return new CursorPageResponse<>(items, hasMore ? cursorCodec.encodePage(page + 1) : null, hasMore);
+        return toCursorPage(
+                rows,
+                SocialFollowEntity::getCreatedAt,
+                follow -> follow.getFollower().getId(),
+                follows -> toProfileResponses(
+                        follows.stream().map(follow -> RequestUser.from(follow.getFollower())).toList(),
+                        viewerId
+                )
+        );
     }
 
     @Transactional(readOnly = true)
@@ -179,22 +220,27 @@ public class SocialService {
                                                                    UUID profileId,
                                                                    String cursor,
                                                                    Integer limit) {
-        getUser(profileId);
+        getCachedUser(profileId);
 
         final int safeLimit = normalizeLimit(limit);
-        final int page = cursorCodec.decodePage(cursor);
-        final Pageable pageable = PageRequest.of(page, safeLimit);
-
-        final List<SocialFollowEntity> rows = socialFollowRepository.findFollowingPage(profileId, pageable);
-        final boolean hasMore = !socialFollowRepository.findFollowingPage(profileId, PageRequest.of(page + 1, safeLimit))
-                .isEmpty();
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
 
-        final List<SocialProfileResponse> items = rows.stream()
-                .map(SocialFollowEntity::getFollowee)
-                .map(user -> buildProfileResponse(user, viewerId))
-                .toList();
+        final Slice<SocialFollowEntity> rows = socialFollowRepository.findFollowingPage(
+                profileId,
+                pageCursor.createdAt(),
+                pageCursor.id(),
+                pageCursor.pageable(safeLimit)
+        );
 
-        return new CursorPageResponse<>(items, hasMore ? cursorCodec.encodePage(page + 1) : null, hasMore);
+        return toCursorPage(
+                rows,
+                SocialFollowEntity::getCreatedAt,
+                follow -> follow.getFollowee().getId(),
+                follows -> toProfileResponses(
+                        follows.stream().map(follow -> RequestUser.from(follow.getFollowee())).toList(),
+                        viewerId
+                )
+        );
     }
 
     @Transactional(readOnly = true)
@@ -202,36 +248,34 @@ public class SocialService {
                                                                    UUID profileId,
                                                                    String cursor,
                                                                    Integer limit) {
-        getUser(profileId);
+        getCachedUser(profileId);
 
         final int safeLimit = normalizeLimit(limit);
-        final int page = cursorCodec.decodePage(cursor);
-        final Pageable pageable = PageRequest.of(page, safeLimit);
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
 
-        final List<SocialLookEntity> rows;
-        final boolean hasMore;
+        final Slice<SocialLookEntity> rows;
         if (viewerId.equals(profileId)) {
-            rows = socialLookRepository.findByAuthor_IdOrderByCreatedAtDescIdDesc(profileId, pageable);
-            hasMore = !socialLookRepository.findByAuthor_IdOrderByCreatedAtDescIdDesc(profileId, PageRequest.of(page + 1, safeLimit))
-                    .isEmpty();
+            rows = socialLookRepository.findAuthorPage(
+                    profileId,
+                    pageCursor.createdAt(),
+                    pageCursor.id(),
+                    pageCursor.pageable(safeLimit)
+            );
         } else {
-            final boolean followsAuthor = socialFollowRepository.existsByFollower_IdAndFollowee_Id(viewerId, profileId);
+            final boolean followsAuthor = followEdgeCache.isFollowing(viewerId, profileId);
             final List<SocialLookVisibility> visible = followsAuthor
                     ? List.of(SocialLookVisibility.PUBLIC, SocialLookVisibility.FOLLOWERS)
                     : List.of(SocialLookVisibility.PUBLIC);
-            rows = socialLookRepository.findByAuthor_IdAndVisibilityInOrderByCreatedAtDescIdDesc(profileId, visible, pageable);
-            hasMore = !socialLookRepository.findByAuthor_IdAndVisibilityInOrderByCreatedAtDescIdDesc(
+            rows = socialLookRepository.findAuthorPageWithVisibility(
                     profileId,
                     visible,
-                    PageRequest.of(page + 1, safeLimit)
-            ).isEmpty();
+                    pageCursor.createdAt(),
+                    pageCursor.id(),
+                    pageCursor.pageable(safeLimit)
+            );
         }
 
-        final List<SocialLookResponse> items = rows.stream()
-                .map(look -> toLookResponse(look, viewerId))
-                .toList();
-
-        return new CursorPageResponse<>(items, hasMore ? cursorCodec.encodePage(page + 1) : null, hasMore);
+        return toLookPage(rows, viewerId);
     }
 
     @Transactional(readOnly = true)
@@ -239,23 +283,29 @@ public class SocialService {
                                                                      String cursor,
                                                                      Integer limit) {
         final int safeLimit = normalizeLimit(limit);
-        final int page = cursorCodec.decodePage(cursor);
-        final Pageable pageable = PageRequest.of(page, safeLimit);
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
 
-        final List<SocialLookEntity> rows = socialLookRepository.findByVisibilityOrderByCreatedAtDescIdDesc(
+        final Slice<SocialLookEntity> rows = socialLookRepository.findVisibilityPage(
                 SocialLookVisibility.PUBLIC,
-                pageable
+                pageCursor.createdAt(),
+                pageCursor.id(),
+                pageCursor.pageable(safeLimit)
         );
-        final boolean hasMore = !socialLookRepository.findByVisibilityOrderByCreatedAtDescIdDesc(
-                SocialLookVisibility.PUBLIC,
-                PageRequest.of(page + 1, safeLimit)
-        ).isEmpty();
 
-        final List<SocialLookResponse> items = rows.stream()
-                .map(look -> toLookResponse(look, viewerId))
-                .toList();
+        return toLookPage(rows, viewerId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SocialLookResponse> listFeed(UUID viewerId,
+                                                           String cursor,
+                                                           Integer limit) {
+        final int safeLimit = normalizeLimit(limit);
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
+        if (pageCursor.legacyPage() > 0) {
+            throw new BadRequestException("Invalid cursor");
+        }
 
-        return new CursorPageResponse<>(items, hasMore ? cursorCodec.encodePage(page + 1) : null, hasMore);
+        return toLookPage(socialTimelineService.readPage(viewerId, pageCursor, safeLimit), viewerId);
     }
 
     @Transactional
@@ -276,9 +326,12 @@ public class SocialService {
         final SocialLookVisibility normalizedVisibility = SocialLookVisibility.fromApiValue(visibility);
         final List<String> tags = normalizeTags(rawTags);
 
+        final StoredBlob image = blobStore.put(imageBytes);
+
         final SocialLookEntity look = new SocialLookEntity();
         look.setAuthor(user);
-        look.setImageData(imageBytes);
+        look.setImageKey(image.key());
+        look.setImageSize(image.sizeBytes());
         look.setImageMime(normalizeMime(imageMime));
         look.setTitle(normalizedTitle);
         look.setDescription(normalizedDescription);
@@ -286,7 +339,9 @@ public class SocialService {
         look.setVisibility(normalizedVisibility);
         look.setTagsJson(writeTagsJson(tags));
 
-        final SocialLookEntity saved = socialLookRepository.save(look);
+        final SocialLookEntity saved = socialLookRepository.saveAndFlush(look);
+        userRepository.adjustLooksCount(viewerId, 1);
+        socialTimelineService.publish(saved);
         return toLookResponse(saved, viewerId);
     }
 
@@ -297,6 +352,17 @@ public class SocialService {
         return toLookResponse(look, viewerId);
     }
 
+    public BlobContent fetchLookImage(UUID viewerId, UUID lookId, ImageRenditionSize size) {
+        final SocialLookEntity look = getLook(lookId);
+        ensureCanViewLook(look, viewerId);
+        final BlobContent original = new BlobContent(
+                look.getImageKey(),
+                look.getImageMime(),
+                blobStore.open(look.getImageKey())
+        );
+        return imageRenditionService.resolve(original, size);
+    }
+
     @Transactional
     public SocialLookResponse likeLook(UUID viewerId, UUID lookId) {
         final SocialLookEntity look = getLook(lookId);
@@ -309,6 +375,8 @@ public class SocialService {
             entity.setLook(look);
             entity.setUser(getUser(viewerId));
             socialLookLikeRepository.save(entity);
+            socialLookRepository.adjustLikesCount(lookId, 1);
+            look.setLikesCount(look.getLikesCount() + 1);
         }
 
         return toLookResponse(look, viewerId);
@@ -319,7 +387,10 @@ public class SocialService {
         final SocialLookEntity look = getLook(lookId);
         ensureCanViewLook(look, viewerId);
 
-        socialLookLikeRepository.deleteByLook_IdAndUser_Id(lookId, viewerId);
+        if (socialLookLikeRepository.deleteByLook_IdAndUser_Id(lookId, viewerId) > 0) {
+            socialLookRepository.adjustLikesCount(lookId, -1);
+            look.setLikesCount(look.getLikesCount() - 1);
+        }
         return toLookResponse(look, viewerId);
     }
 
@@ -340,28 +411,29 @@ public class SocialService {
         }
 
         final int safeLimit = normalizeLimit(limit);
-        final int page = cursorCodec.decodePage(cursor);
-        final Pageable pageable = PageRequest.of(page, safeLimit);
+        final PageCursor pageCursor = cursorCodec.decode(cursor);
 
-        final List<SocialCommentEntity> rows = parentId == null
-                ? socialCommentRepository.findByLook_IdAndParentIsNullOrderByCreatedAtDescIdDesc(lookId, pageable)
-                : socialCommentRepository.findByLook_IdAndParent_IdOrderByCreatedAtDescIdDesc(lookId, parentId, pageable);
-
-        final boolean hasMore = parentId == null
-                ? !socialCommentRepository.findByLook_IdAndParentIsNullOrderByCreatedAtDescIdDesc(
+        final Slice<SocialCommentEntity> rows = parentId == null
+                ? socialCommentRepository.findRootPage(
                 lookId,
-                PageRequest.of(page + 1, safeLimit)
-        ).isEmpty()
-                : !socialCommentRepository.findByLook_IdAndParent_IdOrderByCreatedAtDescIdDesc(
+                pageCursor.createdAt(),
+                pageCursor.id(),
+                pageCursor.pageable(safeLimit)
+        )
+                : socialCommentRepository.findReplyPage(
                 lookId,
                 parentId,
-                PageRequest.of(page + 1, safeLimit)
-        ).isEmpty();
-        final List<SocialCommentResponse> items = rows.stream()
-                .map(comment -> toCommentResponse(comment, viewerId))
-                .toList();
+                pageCursor.createdAt(),
+                pageCursor.id(),
+                pageCursor.pageable(safeLimit)
+        );
 
-        return new CursorPageResponse<>(items, hasMore ? cursorCodec.encodePage(page + 1) : null, hasMore);
+        return toCursorPage(
+                rows,
+                SocialCommentEntity::getCreatedAt,
+                SocialCommentEntity::getId,
+                comments -> toCommentResponses(comments, viewerId)
+        );
     }
 
     @Transactional
@@ -393,6 +465,7 @@ public class SocialService {
         comment.setBody(normalizedBody);
 
         final SocialCommentEntity saved = socialCommentRepository.save(comment);
+        socialLookRepository.adjustCommentsCount(lookId, 1);
         return toCommentResponse(saved, viewerId);
     }
 
@@ -403,8 +476,9 @@ public class SocialService {
             throw new ForbiddenException("You cannot delete this comment");
         }
 
-        socialCommentRepository.deleteByParent_Id(commentId);
+        final long deletedReplies = socialCommentRepository.deleteByParent_Id(commentId);
         socialCommentRepository.delete(comment);
+        socialLookRepository.adjustCommentsCount(comment.getLook().getId(), -(deletedReplies + 1));
     }
 
     @Transactional(readOnly = true)
@@ -414,6 +488,20 @@ public class SocialService {
         return socialMapper.toSocialLookDraft(draft, readTagsJson(draft.getTagsJson()));
     }
 
+    public BlobContent fetchMyLookDraftImage(UUID viewerId, ImageRenditionSize size) {
+        final SocialLookDraftEntity draft = socialLookDraftRepository.findById(viewerId)
+                .orElseThrow(() -> new NotFoundException("Look draft not found"));
+        if (draft.getImageKey() == null) {
+            throw new NotFoundException("Look draft image not found");
+        }
+        final BlobContent original = new BlobContent(
+                draft.getImageKey(),
+                draft.getImageMime(),
+                blobStore.open(draft.getImageKey())
+        );
+        return imageRenditionService.resolve(original, size);
+    }
+
     @Transactional
     public SocialLookDraftResponse upsertMyLookDraft(UUID viewerId,
                                                      byte[] imageBytes,
@@ -454,10 +542,13 @@ public class SocialService {
         draft.setTagsJson(writeTagsJson(tags));
 
         if (imageBytes != null && imageBytes.length > 0) {
-            draft.setImageData(imageBytes);
+            final StoredBlob image = blobStore.put(imageBytes);
+            draft.setImageKey(image.key());
+            draft.setImageSize(image.sizeBytes());
             draft.setImageMime(normalizeMime(imageMime));
         } else if (clearImage) {
-            draft.setImageData(null);
+            draft.setImageKey(null);
+            draft.setImageSize(null);
             draft.setImageMime(null);
         }
 
@@ -470,29 +561,84 @@ public class SocialService {
         socialLookDraftRepository.deleteById(viewerId);
     }
 
-    private SocialProfileResponse buildProfileResponse(UserEntity profile, UUID viewerId) {
-        final UUID profileId = profile.getId();
-        final long followersCount = socialFollowRepository.countByFollowee_Id(profileId);
-        final long followingCount = socialFollowRepository.countByFollower_Id(profileId);
-        final long looksCount = socialLookRepository.countByAuthor_Id(profileId);
+    private SocialProfileResponse buildProfileResponse(RequestUser profile, UUID viewerId) {
+        final UUID profileId = profile.id();
         final boolean isFollowing = !viewerId.equals(profileId)
-                && socialFollowRepository.existsByFollower_IdAndFollowee_Id(viewerId, profileId);
+                && followEdgeCache.isFollowing(viewerId, profileId);
 
-        return socialMapper.toSocialProfile(profile, followersCount, followingCount, looksCount, isFollowing, viewerId);
+        return socialMapper.toSocialProfile(profile, isFollowing, viewerId);
+    }
+
+    private List<SocialProfileResponse> toProfileResponses(List<RequestUser> profiles, UUID viewerId) {
+        if (profiles.isEmpty()) {
+            return List.of();
+        }
+
+        final List<UUID> profileIds = profiles.stream()
+                .map(RequestUser::id)
+                .toList();
+        final Set<UUID> followedByViewer = new HashSet<>(socialFollowRepository.findFolloweeIds(viewerId, profileIds));
+
+        return profiles.stream()
+                .map(profile -> socialMapper.toSocialProfile(
+                        profile,
+                        !viewerId.equals(profile.id()) && followedByViewer.contains(profile.id()),
+                        viewerId
+                ))
+                .toList();
     }
 
     private SocialLookResponse toLookResponse(SocialLookEntity look, UUID viewerId) {
-        final List<String> tags = readTagsJson(look.getTagsJson());
-        final long likesCount = socialLookLikeRepository.countByLook_Id(look.getId());
-        final long commentsCount = socialCommentRepository.countByLook_Id(look.getId());
-        final boolean isLikedByMe = socialLookLikeRepository.existsByLook_IdAndUser_Id(look.getId(), viewerId);
-        return socialMapper.toSocialLook(look, tags, likesCount, commentsCount, isLikedByMe);
+        return toLookResponses(List.of(look), viewerId).getFirst();
+    }
+
+    private List<SocialLookResponse> toLookResponses(List<SocialLookEntity> looks, UUID viewerId) {
+        if (looks.isEmpty()) {
+            return List.of();
+        }
+
+        final List<UUID> lookIds = looks.stream()
+                .map(SocialLookEntity::getId)
+                .toList();
+        final Set<UUID> likedByViewer = new HashSet<>(socialLookLikeRepository.findLikedLookIds(viewerId, lookIds));
+
+        return looks.stream()
+                .map(look -> socialMapper.toSocialLook(
+                        look,
+                        readTagsJson(look.getTagsJson()),
+                        look.getLikesCount(),
+                        look.getCommentsCount(),
+                        likedByViewer.contains(look.getId())
+                ))
+                .toList();
     }
 
     private SocialCommentResponse toCommentResponse(SocialCommentEntity comment, UUID viewerId) {
-        final long repliesCount = socialCommentRepository.countByParent_Id(comment.getId());
-        final boolean canDelete = comment.getAuthor().getId().equals(viewerId);
-        return socialMapper.toSocialComment(comment, repliesCount, canDelete);
+        return toCommentResponses(List.of(comment), viewerId).getFirst();
+    }
+
+    private List<SocialCommentResponse> toCommentResponses(List<SocialCommentEntity> comments, UUID viewerId) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+
+        final List<UUID> commentIds = comments.stream()
+                .map(SocialCommentEntity::getId)
+                .toList();
+        final Map<UUID, Long> repliesCounts = toCountMap(socialCommentRepository.countRepliesByParentIds(commentIds));
+
+        return comments.stream()
+                .map(comment -> socialMapper.toSocialComment(
+                        comment,
+                        repliesCounts.getOrDefault(comment.getId(), 0L),
+                        comment.getAuthor().getId().equals(viewerId)
+                ))
+                .toList();
+    }
+
+    private static Map<UUID, Long> toCountMap(List<IdCount> counts) {
+        return counts.stream()
+                .collect(Collectors.toMap(IdCount::getId, IdCount::getTotal));
     }
 
     private UserEntity getUser(UUID userId) {
@@ -500,6 +646,35 @@ public class SocialService {
                 .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
+    private RequestUser getCachedUser(UUID userId) {
+        return requestUserCache.find(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
+    private CursorPageResponse<SocialLookResponse> toLookPage(Slice<SocialLookEntity> rows, UUID viewerId) {
+        return toCursorPage(
+                rows,
+                SocialLookEntity::getCreatedAt,
+                SocialLookEntity::getId,
+                looks -> toLookResponses(looks, viewerId)
+        );
+    }
+
+    private <E, R> CursorPageResponse<R> toCursorPage(Slice<E> slice,
+                                                      Function<? super E, Instant> createdAt,
+                                                      Function<? super E, UUID> id,
+                                                      Function<List<E>, List<R>> mapper) {
+        final List<E> rows = slice.getContent();
+        final List<R> items = mapper.apply(rows);
+
+        if (!slice.hasNext() || rows.isEmpty()) {
+            return new CursorPageResponse<>(items, null, false);
+        }
+
+        final E last = rows.getLast();
+        return new CursorPageResponse<>(items, cursorCodec.encode(createdAt.apply(last), id.apply(last)), true);
+    }
+
     private SocialLookEntity getLook(UUID lookId) {
         return socialLookRepository.findById(lookId)
                 .orElseThrow(() -> new NotFoundException("Look not found"));
@@ -0,0 +1,118 @@
+package io.github.yerektus.aitryon.social;
+
+import io.github.yerektus.aitryon.config.SocialProperties;
+import io.github.yerektus.aitryon.domain.SocialLookEntity;
+import io.github.yerektus.aitryon.domain.SocialLookVisibility;
+import io.github.yerektus.aitryon.domain.SocialTimelineEntryEntity;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
+import io.github.yerektus.aitryon.domain.repo.SocialTimelineEntryRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class SocialTimelineService {
+
+    private static final List<SocialLookVisibility> FOLLOWER_VISIBLE = List.of(
+            SocialLookVisibility.PUBLIC,
+            SocialLookVisibility.FOLLOWERS
+    );
+    private static final Comparator<SocialLookEntity> NEWEST_FIRST = Comparator
+            .comparing(SocialLookEntity::getCreatedAt)
+            .thenComparing(SocialLookEntity::getId, SocialTimelineService::compareUnsigned)
+            .reversed();
+
+    private final SocialTimelineEntryRepository socialTimelineEntryRepository;
+    private final SocialLookRepository socialLookRepository;
+    private final SocialProperties socialProperties;
+
+    public SocialTimelineService(SocialTimelineEntryRepository socialTimelineEntryRepository,
+                                 SocialLookRepository socialLookRepository,
+                                 SocialProperties socialProperties) {
+        this.socialTimelineEntryRepository = socialTimelineEntryRepository;
+        this.socialLookRepository = socialLookRepository;
+        this.socialProperties = socialProperties;
+    }
+
+    @Transactional
+    public void publish(SocialLookEntity look) {
+        final UserEntity author = look.getAuthor();
+        socialTimelineEntryRepository.insertOwnEntry(author.getId(), look.getId(), look.getCreatedAt());
+
+        if (isFannedOutOnRead(author)) {
+            look.setFanOutOnRead(true);
+            socialLookRepository.markFanOutOnRead(look.getId());
+        } else if (look.getVisibility() != SocialLookVisibility.PRIVATE) {
+            socialTimelineEntryRepository.fanOutToFollowers(author.getId(), look.getId(), look.getCreatedAt());
+        }
+    }
+
+    @Transactional
+    public void onFollow(UUID followerId, UserEntity followee) {
+        if (!isFannedOutOnRead(followee)) {
+            socialTimelineEntryRepository.backfillFromAuthor(
+                    followerId,
+                    followee.getId(),
+                    Math.max(0, socialProperties.getTimelineBackfillSize())
+            );
+        }
+    }
+
+    @Transactional
+    public void onUnfollow(UUID followerId, UUID followeeId) {
+        socialTimelineEntryRepository.deleteByOwnerAndAuthor(followerId, followeeId);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<SocialLookEntity> readPage(UUID viewerId, PageCursor cursor, int limit) {
+        final Pageable pageable = PageRequest.of(0, limit);
+        final Slice<SocialLookEntity> timeline = socialTimelineEntryRepository.findTimelinePage(
+                viewerId,
+                FOLLOWER_VISIBLE,
+                cursor.createdAt(),
+                cursor.id(),
+                pageable
+        ).map(SocialTimelineEntryEntity::getLook);
+        final Slice<SocialLookEntity> pulled = socialLookRepository.findFanOutOnReadPage(
+                viewerId,
+                FOLLOWER_VISIBLE,
+                cursor.createdAt(),
+                cursor.id(),
+                pageable
+        );
+        if (pulled.getContent().isEmpty()) {
+            return timeline;
+        }
+
+        final Map<UUID, SocialLookEntity> merged = new LinkedHashMap<>();
+        Stream.concat(timeline.getContent().stream(), pulled.getContent().stream())
+                .sorted(NEWEST_FIRST)
+                .forEach(look -> merged.putIfAbsent(look.getId(), look));
+
+        final List<SocialLookEntity> looks = List.copyOf(merged.values());
+        final boolean hasMore = timeline.hasNext() || pulled.hasNext() || looks.size() > limit;
+        return new SliceImpl<>(looks.subList(0, Math.min(limit, looks.size())), pageable, hasMore);
+    }
+
+    private boolean isFannedOutOnRead(UserEntity author) {
+        return author.getFollowersCount() > socialProperties.getFanOutFollowerThreshold();
+    }
+
+    private static int compareUnsigned(UUID left, UUID right) {
+        final int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0
+                ? high
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+}
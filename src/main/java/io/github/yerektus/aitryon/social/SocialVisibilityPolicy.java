@@ -2,7 +2,6 @@ package io.github.yerektus.aitryon.social;
 
 import io.github.yerektus.aitryon.domain.SocialLookEntity;
 import io.github.yerektus.aitryon.domain.SocialLookVisibility;
-import io.github.yerektus.aitryon.domain.repo.SocialFollowRepository;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -10,10 +9,10 @@ import java.util.UUID;
 @Component
 public class SocialVisibilityPolicy {
 
-    private final SocialFollowRepository socialFollowRepository;
+    private final FollowEdgeCache followEdgeCache;
 
-    public SocialVisibilityPolicy(SocialFollowRepository socialFollowRepository) {
-        this.socialFollowRepository = socialFollowRepository;
+    public SocialVisibilityPolicy(FollowEdgeCache followEdgeCache) {
+        this.followEdgeCache = followEdgeCache;
     }
 
     public boolean canViewLook(SocialLookEntity look, UUID viewerId) {
@@ -27,6 +26,6 @@ public class SocialVisibilityPolicy {
         }
 
         return look.getVisibility() == SocialLookVisibility.FOLLOWERS
-                && socialFollowRepository.existsByFollower_IdAndFollowee_Id(viewerId, authorId);
+                && followEdgeCache.isFollowing(viewerId, authorId);
     }
 }
@@ -10,6 +10,7 @@ public record SocialLookDraftResponse(
         String style,
         String visibility,
         String imageUrl,
+        @Deprecated
         String imageDataUri,
         Instant updatedAt
 ) {
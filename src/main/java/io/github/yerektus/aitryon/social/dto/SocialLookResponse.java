@@ -8,6 +8,7 @@ public record SocialLookResponse(
         UUID id,
         SocialUserResponse author,
         String imageUrl,
+        String thumbnailUrl,
         String title,
         String description,
         List<String> tags,
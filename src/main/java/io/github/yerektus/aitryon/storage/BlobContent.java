@@ -0,0 +1,10 @@
+package io.github.yerektus.aitryon.storage;
+
+import org.springframework.core.io.Resource;
+
+public record BlobContent(
+        String key,
+        String mimeType,
+        Resource resource
+) {
+}
@@ -0,0 +1,34 @@
+package io.github.yerektus.aitryon.storage;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+public final class BlobResponses {
+
+    private static final Duration MAX_AGE = Duration.ofDays(30);
+
+    private BlobResponses() {
+    }
+
+    // Every image endpoint sits behind authentication, so only the caller's own cache may keep a copy.
+    public static ResponseEntity<Resource> ok(BlobContent content) {
+        return ResponseEntity.ok()
+                .eTag(content.key())
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePrivate().immutable())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(toMediaType(content.mimeType()))
+                .body(content.resource());
+    }
+
+    private static MediaType toMediaType(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        return MediaType.parseMediaType(mimeType);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.yerektus.aitryon.storage;
+
+import org.springframework.core.io.Resource;
+
+public interface BlobStore {
+    StoredBlob put(byte[] bytes);
+
+    Resource open(String key);
+
+    byte[] read(String key);
+
+    boolean exists(String key);
+}
@@ -0,0 +1,94 @@
+package io.github.yerektus.aitryon.storage;
+
+import io.github.yerektus.aitryon.common.NotFoundException;
+import io.github.yerektus.aitryon.config.StorageProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path rootDir;
+
+    public FileSystemBlobStore(StorageProperties storageProperties) {
+        this.rootDir = Path.of(storageProperties.getRootDir()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredBlob put(byte[] bytes) {
+        final String key = sha256Hex(bytes);
+        final Path target = resolve(key);
+        if (Files.exists(target)) {
+            return new StoredBlob(key, bytes.length);
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            final Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to store blob " + key, ex);
+        }
+
+        return new StoredBlob(key, bytes.length);
+    }
+
+    @Override
+    public Resource open(String key) {
+        final Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NotFoundException("Blob not found");
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public byte[] read(String key) {
+        try {
+            return Files.readAllBytes(resolve(key));
+        } catch (NoSuchFileException ex) {
+            throw new NotFoundException("Blob not found");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read blob " + key, ex);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        return rootDir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.yerektus.aitryon.storage;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public final class ImageProcessing {
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    private ImageProcessing() {
+    }
+
+    public static BufferedImage scaleToFit(BufferedImage source, int maxEdgePx) {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdgePx) {
+            return source;
+        }
+
+        final double scale = (double) maxEdgePx / longEdge;
+        final int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        final int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        final int imageType = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+
+            final BufferedImage next = new BufferedImage(currentWidth, currentHeight, imageType);
+            final Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return current;
+    }
+
+    public static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB || source.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return source;
+        }
+
+        final BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, source.getWidth(), source.getHeight());
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    public static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        final ImageWriteParam params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(quality);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(toRgb(image), null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    public static int readExifOrientation(byte[] jpeg) {
+        if (jpeg == null || jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+
+        int offset = 2;
+        while (offset + 4 <= jpeg.length) {
+            if ((jpeg[offset] & 0xFF) != 0xFF) {
+                return 1;
+            }
+            final int marker = jpeg[offset + 1] & 0xFF;
+            if (marker == 0xFF) {
+                offset++;
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                return 1;
+            }
+
+            final int segmentEnd = offset + 2 + readUnsignedShort(jpeg, offset + 2, false);
+            if (segmentEnd > jpeg.length || segmentEnd < offset + 4) {
+                return 1;
+            }
+            if (marker == 0xE1 && startsWithExifHeader(jpeg, offset + 4, segmentEnd)) {
+                return readTiffOrientation(jpeg, offset + 10, segmentEnd);
+            }
+            offset = segmentEnd;
+        }
+        return 1;
+    }
+
+    public static BufferedImage applyExifOrientation(BufferedImage source, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return source;
+        }
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final boolean swapsAxes = orientation >= 5;
+        final int targetWidth = swapsAxes ? height : width;
+        final int targetHeight = swapsAxes ? width : height;
+        final int[] row = new int[width];
+        final int[] target = new int[targetWidth * targetHeight];
+
+        for (int y = 0; y < height; y++) {
+            source.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                final int targetX;
+                final int targetY;
+                switch (orientation) {
+                    case 2 -> {
+                        targetX = width - 1 - x;
+                        targetY = y;
+                    }
+                    case 3 -> {
+                        targetX = width - 1 - x;
+                        targetY = height - 1 - y;
+                    }
+                    case 4 -> {
+                        targetX = x;
+                        targetY = height - 1 - y;
+                    }
+                    case 5 -> {
+                        targetX = y;
+                        targetY = x;
+                    }
+                    case 6 -> {
+                        targetX = height - 1 - y;
+                        targetY = x;
+                    }
+                    case 7 -> {
+                        targetX = height - 1 - y;
+                        targetY = width - 1 - x;
+                    }
+                    default -> {
+                        targetX = y;
+                        targetY = width - 1 - x;
+                    }
+                }
+                target[targetY * targetWidth + targetX] = row[x];
+            }
+        }
+
+        final int imageType = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        final BufferedImage oriented = new BufferedImage(targetWidth, targetHeight, imageType);
+        oriented.setRGB(0, 0, targetWidth, targetHeight, target, 0, targetWidth);
+        return oriented;
+    }
+
+    public static byte[] encodePng(BufferedImage image) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "png", output)) {
+            throw new IOException("No PNG writer available");
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean startsWithExifHeader(byte[] bytes, int offset, int end) {
+        return offset + 6 <= end
+                && bytes[offset] == 'E'
+                && bytes[offset + 1] == 'x'
+                && bytes[offset + 2] == 'i'
+                && bytes[offset + 3] == 'f'
+                && bytes[offset + 4] == 0
+                && bytes[offset + 5] == 0;
+    }
+
+    private static int readTiffOrientation(byte[] bytes, int tiffStart, int end) {
+        if (tiffStart + 8 > end) {
+            return 1;
+        }
+
+        final boolean littleEndian;
+        if (bytes[tiffStart] == 'I' && bytes[tiffStart + 1] == 'I') {
+            littleEndian = true;
+        } else if (bytes[tiffStart] == 'M' && bytes[tiffStart + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return 1;
+        }
+
+        final long ifdOffset = readUnsignedInt(bytes, tiffStart + 4, littleEndian);
+        if (ifdOffset < 8 || tiffStart + ifdOffset + 2 > end) {
+            return 1;
+        }
+
+        final int ifd = (int) (tiffStart + ifdOffset);
+        final int entries = readUnsignedShort(bytes, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            final int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readUnsignedShort(bytes, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+                final int orientation = readUnsignedShort(bytes, entry + 8, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset, boolean littleEndian) {
+        final int first = bytes[offset] & 0xFF;
+        final int second = bytes[offset + 1] & 0xFF;
+        return littleEndian ? (second << 8) | first : (first << 8) | second;
+    }
+
+    private static long readUnsignedInt(byte[] bytes, int offset, boolean littleEndian) {
+        final long high = readUnsignedShort(bytes, littleEndian ? offset + 2 : offset, littleEndian);
+        final long low = readUnsignedShort(bytes, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.yerektus.aitryon.storage;
+
+import io.github.yerektus.aitryon.domain.ImageRenditionEntity;
+import io.github.yerektus.aitryon.domain.ImageRenditionId;
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
+import io.github.yerektus.aitryon.domain.repo.ImageRenditionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public class ImageRenditionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    private static final String RENDITION_MIME = "image/jpeg";
+    private static final float RENDITION_QUALITY = 0.82f;
+
+    private final ImageRenditionRepository imageRenditionRepository;
+    private final BlobStore blobStore;
+
+    public ImageRenditionService(ImageRenditionRepository imageRenditionRepository, BlobStore blobStore) {
+        this.imageRenditionRepository = imageRenditionRepository;
+        this.blobStore = blobStore;
+    }
+
+    public BlobContent resolve(BlobContent original, ImageRenditionSize size) {
+        if (size == ImageRenditionSize.ORIGINAL) {
+            return original;
+        }
+
+        final ImageRenditionId id = new ImageRenditionId(original.key(), size);
+        final ImageRenditionEntity rendition = imageRenditionRepository.findById(id)
+                .orElseGet(() -> render(original, id));
+        if (rendition == null || rendition.getBlobKey().equals(original.key())) {
+            return original;
+        }
+
+        return new BlobContent(
+                rendition.getBlobKey(),
+                rendition.getMime(),
+                blobStore.open(rendition.getBlobKey())
+        );
+    }
+
+    private ImageRenditionEntity render(BlobContent original, ImageRenditionId id) {
+        final ImageRenditionEntity rendition = new ImageRenditionEntity();
+        rendition.setId(id);
+        rendition.setBlobKey(original.key());
+        rendition.setMime(original.mimeType() != null ? original.mimeType() : RENDITION_MIME);
+
+        try (InputStream input = original.resource().getInputStream()) {
+            rendition.setSizeBytes(original.resource().contentLength());
+
+            // Sources ImageIO cannot decode are stored as "serve the original" so later requests skip the decode.
+            final BufferedImage source = decode(input, id);
+            if (source != null && Math.max(source.getWidth(), source.getHeight()) > id.getVariant().maxEdgePx()) {
+                final byte[] encoded = ImageProcessing.encodeJpeg(
+                        ImageProcessing.scaleToFit(source, id.getVariant().maxEdgePx()),
+                        RENDITION_QUALITY
+                );
+                final StoredBlob blob = blobStore.put(encoded);
+                rendition.setBlobKey(blob.key());
+                rendition.setMime(RENDITION_MIME);
+                rendition.setSizeBytes(blob.sizeBytes());
+            }
+        } catch (IOException ex) {
+            log.warn("Unable to render image variant: source_key={} variant={} error={}",
+                    id.getSourceKey(), id.getVariant(), ex.getMessage());
+            return null;
+        }
+
+        try {
+            return imageRenditionRepository.save(rendition);
+        } catch (DataIntegrityViolationException ex) {
+            return imageRenditionRepository.findById(id).orElse(rendition);
+        }
+    }
+
+    private BufferedImage decode(InputStream input, ImageRenditionId id) throws IOException {
+        try {
+            return ImageIO.read(input);
+        } catch (IIOException ex) {
+            log.warn("Unable to decode image for variant, serving original: source_key={} variant={} error={}",
+                    id.getSourceKey(), id.getVariant(), ex.getMessage());
+            return null;
+        }
+    }
+}
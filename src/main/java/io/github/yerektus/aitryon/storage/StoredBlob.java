@@ -0,0 +1,4 @@
+package io.github.yerektus.aitryon.storage;
+
+public record StoredBlob(String key, long sizeBytes) {
+}
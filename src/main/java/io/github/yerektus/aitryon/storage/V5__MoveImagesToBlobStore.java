@@ -0,0 +1,85 @@
+package io.github.yerektus.aitryon.storage;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class V5__MoveImagesToBlobStore extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final BlobStore blobStore;
+
+    public V5__MoveImagesToBlobStore(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        final Connection connection = context.getConnection();
+        moveColumn(connection, "try_on_jobs", "id", "person_image", "person_image_key", "person_image_size");
+        moveColumn(connection, "try_on_jobs", "id", "clothing_image", "clothing_image_key", "clothing_image_size");
+        moveColumn(connection, "try_on_jobs", "id", "result_image", "result_image_key", "result_image_size");
+        moveColumn(connection, "social_looks", "id", "image_data", "image_key", "image_size");
+        moveColumn(connection, "social_look_drafts", "user_id", "image_data", "image_key", "image_size");
+    }
+
+    private void moveColumn(Connection connection,
+                            String table,
+                            String idColumn,
+                            String dataColumn,
+                            String keyColumn,
+                            String sizeColumn) throws SQLException {
+        final String selectIds = "SELECT " + idColumn + " FROM " + table
+                + " WHERE " + dataColumn + " IS NOT NULL AND " + keyColumn + " IS NULL"
+                + " LIMIT " + BATCH_SIZE;
+        final String selectData = "SELECT " + dataColumn + " FROM " + table + " WHERE " + idColumn + " = ?";
+        final String update = "UPDATE " + table + " SET " + keyColumn + " = ?, " + sizeColumn + " = ?"
+                + " WHERE " + idColumn + " = ?";
+
+        List<Object> ids = nextBatch(connection, selectIds);
+        while (!ids.isEmpty()) {
+            try (PreparedStatement dataStatement = connection.prepareStatement(selectData);
+                 PreparedStatement updateStatement = connection.prepareStatement(update)) {
+                for (Object id : ids) {
+                    dataStatement.setObject(1, id);
+                    try (ResultSet row = dataStatement.executeQuery()) {
+                        if (!row.next()) {
+                            continue;
+                        }
+                        final StoredBlob blob = blobStore.put(row.getBytes(1));
+                        updateStatement.setString(1, blob.key());
+                        updateStatement.setLong(2, blob.sizeBytes());
+                        updateStatement.setObject(3, id);
+                        updateStatement.executeUpdate();
+                    }
+                }
+            }
+            ids = nextBatch(connection, selectIds);
+        }
+    }
+
+    private List<Object> nextBatch(Connection connection, String sql) throws SQLException {
+        final List<Object> ids = new ArrayList<>(BATCH_SIZE);
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                ids.add(rows.getObject(1));
+            }
+        }
+        return ids;
+    }
+}
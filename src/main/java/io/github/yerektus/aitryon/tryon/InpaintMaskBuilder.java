@@ -7,22 +7,37 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 class InpaintMaskBuilder {
 
     static final NormalizedBoundingBox FALLBACK_TORSO_BBOX = new NormalizedBoundingBox(0.25, 0.24, 0.5, 0.52);
     static final NormalizedBoundingBox FALLBACK_PERSON_BBOX = new NormalizedBoundingBox(0.18, 0.06, 0.64, 0.9);
 
+    private static final int FOREGROUND_THRESHOLD = 52;
+    private static final int PROXY_SHORT_EDGE = 320;
+    private static final long PARALLEL_SCAN_MIN_PIXELS = 1L << 18;
+
     byte[] buildMaskPng(byte[] baseImageBytes, NormalizedBoundingBox region) {
         try {
             final BufferedImage source = decodeImage(baseImageBytes);
+            return buildMaskPng(source.getWidth(), source.getHeight(), region);
+        } catch (IOException ex) {
+            throw new ExternalServiceException("Unable to build inpaint mask");
+        }
+    }
 
-            final int width = source.getWidth();
-            final int height = source.getHeight();
-
+    byte[] buildMaskPng(int width, int height, NormalizedBoundingBox region) {
+        try {
             final NormalizedBoundingBox safeRegion = region != null && region.isValid()
                     ? region
                     : FALLBACK_TORSO_BBOX;
@@ -55,70 +70,241 @@ class InpaintMaskBuilder {
 
     NormalizedBoundingBox detectForegroundBoundingBox(byte[] baseImageBytes) {
         try {
-            final BufferedImage source = decodeImage(baseImageBytes);
-            final int width = source.getWidth();
-            final int height = source.getHeight();
-
-            final int[] background = estimateBackgroundColor(source);
-            final int threshold = 52;
-
-            int minX = width;
-            int minY = height;
-            int maxX = -1;
-            int maxY = -1;
-
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    final int argb = source.getRGB(x, y);
-                    final int alpha = (argb >>> 24) & 0xFF;
-                    if (alpha < 10) {
-                        continue;
-                    }
+            return detectForegroundBoundingBox(decodeImage(baseImageBytes));
+        } catch (IOException ex) {
+            return FALLBACK_PERSON_BBOX;
+        }
+    }
 
-                    final int r = (argb >>> 16) & 0xFF;
-                    final int g = (argb >>> 8) & 0xFF;
-                    final int b = argb & 0xFF;
-                    final int distance = Math.abs(r - background[0]) + Math.abs(g - background[1]) + Math.abs(b - background[2]);
+    NormalizedBoundingBox detectForegroundBoundingBox(BufferedImage source) {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
 
-                    if (distance <= threshold) {
-                        continue;
-                    }
+        final int[] background = estimateBackgroundColor(source);
+        final int stride = Math.max(1, Math.min(width, height) / PROXY_SHORT_EDGE);
+        final RowReader rowReader = rowReader(source);
+        final int sampledRows = (height + stride - 1) / stride;
+        final int bandCount = Math.max(1, Math.min(sampledRows, ForkJoinPool.getCommonPoolParallelism() * 4));
+        final int rowsPerBand = (sampledRows + bandCount - 1) / bandCount;
 
-                    if (x < minX) {
-                        minX = x;
-                    }
-                    if (y < minY) {
-                        minY = y;
-                    }
-                    if (x > maxX) {
-                        maxX = x;
-                    }
-                    if (y > maxY) {
-                        maxY = y;
-                    }
+        IntStream bands = IntStream.range(0, bandCount);
+        if ((long) sampledRows * (width / stride) >= PARALLEL_SCAN_MIN_PIXELS) {
+            bands = bands.parallel();
+        }
+        final int[] bounds = bands
+                .mapToObj(band -> scanBand(
+                        rowReader,
+                        width,
+                        band * rowsPerBand * stride,
+                        Math.min(height, (band + 1) * rowsPerBand * stride),
+                        stride,
+                        background
+                ))
+                .reduce(new int[]{width, height, -1, -1}, InpaintMaskBuilder::mergeBounds);
+
+        int minX = bounds[0];
+        int minY = bounds[1];
+        int maxX = bounds[2];
+        int maxY = bounds[3];
+
+        if (maxX < minX || maxY < minY) {
+            return FALLBACK_PERSON_BBOX;
+        }
+
+        if (stride > 1) {
+            final int[] refined = refineBounds(rowReader, width, height, stride, background, bounds);
+            minX = refined[0];
+            minY = refined[1];
+            maxX = refined[2];
+            maxY = refined[3];
+        }
+
+        final int padX = Math.max(2, width / 80);
+        final int padY = Math.max(2, height / 80);
+        minX = clampToRange(minX - padX, 0, width - 1);
+        minY = clampToRange(minY - padY, 0, height - 1);
+        maxX = clampToRange(maxX + padX, 0, width - 1);
+        maxY = clampToRange(maxY + padY, 0, height - 1);
+
+        final double nx = minX / (double) width;
+        final double ny = minY / (double) height;
+        final double nWidth = (maxX - minX + 1) / (double) width;
+        final double nHeight = (maxY - minY + 1) / (double) height;
+        final NormalizedBoundingBox detected = new NormalizedBoundingBox(nx, ny, nWidth, nHeight);
+        return detected.isValid() ? detected : FALLBACK_PERSON_BBOX;
+    }
+
+    private static int[] scanBand(RowReader rowReader,
+                                  int width,
+                                  int fromY,
+                                  int toY,
+                                  int stride,
+                                  int[] background) {
+        final int[] row = new int[width];
+        int minX = width;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+
+        for (int y = fromY; y < toY; y += stride) {
+            rowReader.read(y, 0, width, row);
+            for (int x = 0; x < width; x += stride) {
+                if (!isForeground(row[x], background)) {
+                    continue;
                 }
+
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = y;
             }
+        }
+
+        return new int[]{minX, minY, maxX, maxY};
+    }
+
+    /**
+     * The strided scan only samples every {@code stride}-th pixel, so each true edge can sit up to
+     * {@code stride - 1} pixels outside the sampled box. Rescans just those margins at full resolution
+     * to recover the exact bounds without touching the interior of the box.
+     */
+    private static int[] refineBounds(RowReader rowReader,
+                                      int width,
+                                      int height,
+                                      int stride,
+                                      int[] background,
+                                      int[] sampled) {
+        final int fromX = Math.max(0, sampled[0] - stride + 1);
+        final int toX = Math.min(width - 1, sampled[2] + stride - 1);
+        final int[] row = new int[width];
 
-            if (maxX < minX || maxY < minY) {
-                return FALLBACK_PERSON_BBOX;
+        int minY = sampled[1];
+        for (int y = Math.max(0, sampled[1] - stride + 1); y < sampled[1]; y++) {
+            if (firstForeground(rowReader, row, y, fromX, toX, background) >= 0) {
+                minY = y;
+                break;
             }
+        }
 
-            final int padX = Math.max(2, width / 80);
-            final int padY = Math.max(2, height / 80);
-            minX = clampToRange(minX - padX, 0, width - 1);
-            minY = clampToRange(minY - padY, 0, height - 1);
-            maxX = clampToRange(maxX + padX, 0, width - 1);
-            maxY = clampToRange(maxY + padY, 0, height - 1);
-
-            final double nx = minX / (double) width;
-            final double ny = minY / (double) height;
-            final double nWidth = (maxX - minX + 1) / (double) width;
-            final double nHeight = (maxY - minY + 1) / (double) height;
-            final NormalizedBoundingBox detected = new NormalizedBoundingBox(nx, ny, nWidth, nHeight);
-            return detected.isValid() ? detected : FALLBACK_PERSON_BBOX;
-        } catch (IOException ex) {
-            return FALLBACK_PERSON_BBOX;
+        int maxY = sampled[3];
+        for (int y = Math.min(height - 1, sampled[3] + stride - 1); y > sampled[3]; y--) {
+            if (firstForeground(rowReader, row, y, fromX, toX, background) >= 0) {
+                maxY = y;
+                break;
+            }
+        }
+
+        int minX = sampled[0];
+        int maxX = sampled[2];
+        for (int y = minY; y <= maxY; y++) {
+            final int left = firstForeground(rowReader, row, y, fromX, minX - 1, background);
+            if (left >= 0) {
+                minX = left;
+            }
+            final int right = lastForeground(rowReader, row, y, maxX + 1, toX, background);
+            if (right >= 0) {
+                maxX = right;
+            }
+        }
+
+        return new int[]{minX, minY, maxX, maxY};
+    }
+
+    private static int firstForeground(RowReader rowReader, int[] row, int y, int fromX, int toX, int[] background) {
+        if (toX < fromX) {
+            return -1;
+        }
+        rowReader.read(y, fromX, toX - fromX + 1, row);
+        for (int i = 0; i <= toX - fromX; i++) {
+            if (isForeground(row[i], background)) {
+                return fromX + i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastForeground(RowReader rowReader, int[] row, int y, int fromX, int toX, int[] background) {
+        if (toX < fromX) {
+            return -1;
+        }
+        rowReader.read(y, fromX, toX - fromX + 1, row);
+        for (int i = toX - fromX; i >= 0; i--) {
+            if (isForeground(row[i], background)) {
+                return fromX + i;
+            }
         }
+        return -1;
+    }
+
+    private static boolean isForeground(int argb, int[] background) {
+        if ((argb >>> 24) < 10) {
+            return false;
+        }
+
+        final int distance = Math.abs(((argb >>> 16) & 0xFF) - background[0])
+                + Math.abs(((argb >>> 8) & 0xFF) - background[1])
+                + Math.abs((argb & 0xFF) - background[2]);
+        return distance > FOREGROUND_THRESHOLD;
+    }
+
+    private static int[] mergeBounds(int[] left, int[] right) {
+        return new int[]{
+                Math.min(left[0], right[0]),
+                Math.min(left[1], right[1]),
+                Math.max(left[2], right[2]),
+                Math.max(left[3], right[3])
+        };
+    }
+
+    private static RowReader rowReader(BufferedImage source) {
+        final WritableRaster raster = source.getRaster();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+            return genericRowReader(source);
+        }
+
+        if ((source.getType() == BufferedImage.TYPE_INT_RGB || source.getType() == BufferedImage.TYPE_INT_ARGB)
+                && raster.getDataBuffer() instanceof DataBufferInt buffer
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel) {
+            final int[] data = buffer.getData();
+            final int offset = buffer.getOffset();
+            final int scanline = sampleModel.getScanlineStride();
+            final int opaque = source.getType() == BufferedImage.TYPE_INT_RGB ? 0xFF000000 : 0;
+            return (y, fromX, count, row) -> {
+                System.arraycopy(data, offset + y * scanline + fromX, row, 0, count);
+                if (opaque != 0) {
+                    for (int x = 0; x < count; x++) {
+                        row[x] |= opaque;
+                    }
+                }
+            };
+        }
+
+        if ((source.getType() == BufferedImage.TYPE_3BYTE_BGR || source.getType() == BufferedImage.TYPE_4BYTE_ABGR)
+                && raster.getDataBuffer() instanceof DataBufferByte buffer
+                && raster.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel) {
+            final byte[] data = buffer.getData();
+            final int offset = buffer.getOffset();
+            final int scanline = sampleModel.getScanlineStride();
+            final int pixelStride = sampleModel.getPixelStride();
+            final int[] bandOffsets = sampleModel.getBandOffsets();
+            final boolean hasAlpha = bandOffsets.length > 3;
+            return (y, fromX, count, row) -> {
+                int index = offset + y * scanline + fromX * pixelStride;
+                for (int x = 0; x < count; x++, index += pixelStride) {
+                    final int alpha = hasAlpha ? data[index + bandOffsets[3]] & 0xFF : 0xFF;
+                    row[x] = alpha << 24
+                            | (data[index + bandOffsets[0]] & 0xFF) << 16
+                            | (data[index + bandOffsets[1]] & 0xFF) << 8
+                            | (data[index + bandOffsets[2]] & 0xFF);
+                }
+            };
+        }
+
+        return genericRowReader(source);
+    }
+
+    private static RowReader genericRowReader(BufferedImage source) {
+        return (y, fromX, count, row) -> source.getRGB(fromX, y, count, 1, row, 0, count);
     }
 
     private BufferedImage decodeImage(byte[] bytes) throws IOException {
@@ -165,4 +351,9 @@ class InpaintMaskBuilder {
     private int clampToRange(int value, int min, int max) {
         return Math.max(min, Math.min(max, value));
     }
+
+    @FunctionalInterface
+    private interface RowReader {
+        void read(int y, int fromX, int count, int[] argb);
+    }
 }
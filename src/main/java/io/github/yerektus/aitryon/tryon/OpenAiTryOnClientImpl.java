@@ -1,26 +1,40 @@
 package io.github.yerektus.aitryon.tryon;
 
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.yerektus.aitryon.common.BadRequestException;
 import io.github.yerektus.aitryon.common.ExternalServiceException;
+import io.github.yerektus.aitryon.common.TooManyRequestsException;
 import io.github.yerektus.aitryon.config.OpenAiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -29,6 +43,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
@@ -39,6 +55,15 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
     private static final String DALL_E_2_IMAGE_EDIT_MODEL = "dall-e-2";
     private static final String DEFAULT_STYLE_HINT_MODEL = "gpt-4.1-mini";
     private static final String DEFAULT_IMAGE_MIME = MediaType.IMAGE_PNG_VALUE;
+    private static final String TOP_LEVEL_IMAGE_FIELD = "image_base64";
+    private static final Map<String, String> ARRAY_IMAGE_FIELDS = Map.of(
+            "data", "b64_json",
+            "output", "result"
+    );
+    private static final Base64Variant IMAGE_BASE64 = Base64Variants.MIME_NO_LINEFEEDS.withPaddingAllowed();
+    private static final int PAYLOAD_SNIFF_BYTES = 64;
+    private static final String RESPONSES_ENDPOINT = "/responses";
+    private static final String IMAGE_EDITS_ENDPOINT = "/images/edits";
     private static final String MODERATION_BLOCK_USER_MESSAGE =
             "Запрос отклонен модерацией OpenAI. Используйте нейтральные фотографии без откровенного контента.";
 
@@ -46,38 +71,45 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
     private final ObjectMapper objectMapper;
     private final OpenAiProperties openAiProperties;
     private final InpaintMaskBuilder inpaintMaskBuilder;
+    private final Map<String, EndpointMeters> endpointMeters;
+    private final Semaphore inFlight;
 
-    public OpenAiTryOnClientImpl(HttpClient httpClient, ObjectMapper objectMapper, OpenAiProperties openAiProperties) {
+    public OpenAiTryOnClientImpl(@Qualifier("openAiHttpClient") HttpClient httpClient,
+                                 ObjectMapper objectMapper,
+                                 OpenAiProperties openAiProperties,
+                                 MeterRegistry meterRegistry) {
         this.httpClient = httpClient;
         this.objectMapper = objectMapper;
         this.openAiProperties = openAiProperties;
         this.inpaintMaskBuilder = new InpaintMaskBuilder();
+        this.endpointMeters = Map.of(
+                RESPONSES_ENDPOINT, new EndpointMeters(meterRegistry, RESPONSES_ENDPOINT),
+                IMAGE_EDITS_ENDPOINT, new EndpointMeters(meterRegistry, IMAGE_EDITS_ENDPOINT)
+        );
+        this.inFlight = new Semaphore(Math.max(1, openAiProperties.getMaxInFlight()), true);
     }
 
     @Override
     public OpenAiTryOnResult generateInpaint(TryOnAnalyzeCommand command) {
         ensureConfigured();
 
-        final byte[] personImagePng = toPng(command.personImage());
-        final byte[] clothingImagePng = toPng(command.clothingImage());
+        final boolean pngOnly = isDallE2Model(resolveImageEditModel());
+        final BufferedImage personImage = decodeImage(command.personImage());
+        final TryOnInputImage personUpload = toUpload(command.personImage(), command.personImageMime(), personImage, pngOnly);
+        final TryOnInputImage clothingUpload = pngOnly
+                ? null
+                : toUpload(command.clothingImage(), command.clothingImageMime(), null, false);
         final GarmentRegion garmentRegion = detectGarmentRegion(command.clothingName());
-        final NormalizedBoundingBox maskRegion = resolveMaskRegion(personImagePng, garmentRegion);
-        final byte[] maskBytes = inpaintMaskBuilder.buildMaskPng(personImagePng, maskRegion);
-        final JsonNode body = sendImageEditRequest(
+        final NormalizedBoundingBox maskRegion = resolveMaskRegion(personImage, garmentRegion);
+        final byte[] maskBytes = inpaintMaskBuilder.buildMaskPng(personImage.getWidth(), personImage.getHeight(), maskRegion);
+        return sendImageEditRequest(
                 buildInpaintPrompt(command, garmentRegion, maskRegion),
-                personImagePng,
-                MediaType.IMAGE_PNG_VALUE,
-                clothingImagePng,
-                MediaType.IMAGE_PNG_VALUE,
+                personUpload.bytes(),
+                personUpload.mimeType(),
+                clothingUpload == null ? null : clothingUpload.bytes(),
+                clothingUpload == null ? null : clothingUpload.mimeType(),
                 maskBytes
         );
-
-        final String imageBase64 = extractImageEditBase64(body);
-        if (imageBase64 == null || imageBase64.isBlank()) {
-            throw new ExternalServiceException("OpenAI image edit response does not contain image");
-        }
-
-        return decodeBase64Image(imageBase64);
     }
 
     @Override
@@ -103,7 +135,7 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
                 "content", content
         )));
 
-        final JsonNode body = sendJsonRequest("/responses", root);
+        final JsonNode body = sendJsonRequest(RESPONSES_ENDPOINT, root);
         final String outputText = extractOutputText(body);
         final List<TryOnStyleHint> parsed = parseStyleHints(outputText);
 
@@ -122,35 +154,39 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
                     .uri(URI.create(resolveOpenAiBaseUrl() + path))
                     .header("Authorization", "Bearer " + openAiProperties.getApiKey())
                     .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .timeout(Duration.ofSeconds(Math.max(1, openAiProperties.getResponsesTimeoutSeconds())))
                     .POST(HttpRequest.BodyPublishers.ofString(toJson(payload), StandardCharsets.UTF_8))
                     .build();
 
-            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            final String requestId = extractRequestId(response);
-            log.info("OpenAI request: endpoint=/responses status={} request_id={}", response.statusCode(), requestId);
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                throw new ExternalServiceException(
-                        withRequestId(normalizeOpenAiError(extractApiError(response.body())), requestId)
-                );
-            }
+            return exchange(path, request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8), response -> {
+                final String requestId = extractRequestId(response);
+                log.info("OpenAI request: endpoint=/responses status={} request_id={}", response.statusCode(), requestId);
+                if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                    throw new ExternalServiceException(
+                            withRequestId(normalizeOpenAiError(extractApiError(response.body())), requestId)
+                    );
+                }
 
-            return objectMapper.readTree(response.body());
+                return objectMapper.readTree(response.body());
+            });
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new ExternalServiceException("OpenAI request interrupted");
+        } catch (HttpTimeoutException ex) {
+            throw new ExternalServiceException("OpenAI request timed out");
         } catch (IOException ex) {
             throw new ExternalServiceException("OpenAI response parsing failed");
         }
     }
 
-    private JsonNode sendImageEditRequest(String prompt,
-                                          byte[] baseImage,
-                                          String baseImageMime,
-                                          byte[] referenceImage,
-                                          String referenceImageMime,
-                                          byte[] maskPngBytes) {
+    private OpenAiTryOnResult sendImageEditRequest(String prompt,
+                                                   byte[] baseImage,
+                                                   String baseImageMime,
+                                                   byte[] referenceImage,
+                                                   String referenceImageMime,
+                                                   byte[] maskPngBytes) {
         final String boundary = "----AitryonBoundary" + UUID.randomUUID();
-        final byte[] bodyBytes = buildImageEditMultipartBody(
+        final HttpRequest.BodyPublisher body = buildImageEditMultipartBody(
                 boundary,
                 prompt,
                 baseImage,
@@ -162,146 +198,253 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
 
         try {
             final HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(resolveOpenAiBaseUrl() + "/images/edits"))
+                    .uri(URI.create(resolveOpenAiBaseUrl() + IMAGE_EDITS_ENDPOINT))
                     .header("Authorization", "Bearer " + openAiProperties.getApiKey())
                     .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                    .POST(HttpRequest.BodyPublishers.ofByteArray(bodyBytes))
+                    .timeout(Duration.ofSeconds(Math.max(1, openAiProperties.getImageEditTimeoutSeconds())))
+                    .POST(body)
                     .build();
 
-            final HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
-            final String requestId = extractRequestId(response);
-            log.info("OpenAI request: endpoint=/images/edits status={} request_id={}", response.statusCode(), requestId);
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                throw new ExternalServiceException(
-                        withRequestId(normalizeOpenAiError(extractApiError(response.body())), requestId)
-                );
-            }
+            return exchange(IMAGE_EDITS_ENDPOINT, request, HttpResponse.BodyHandlers.ofInputStream(), response -> {
+                final String requestId = extractRequestId(response);
+                log.info("OpenAI request: endpoint=/images/edits status={} request_id={}", response.statusCode(), requestId);
+                try (InputStream responseBody = response.body()) {
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        throw new ExternalServiceException(
+                                withRequestId(normalizeOpenAiError(extractApiError(responseBody.readAllBytes())), requestId)
+                        );
+                    }
 
-            final String contentType = response.headers()
-                    .firstValue("Content-Type")
-                    .orElse("");
-            return parseImageEditResponse(response.body(), contentType);
+                    final String contentType = response.headers()
+                            .firstValue("Content-Type")
+                            .orElse("");
+                    return parseImageEditResponse(responseBody, contentType);
+                }
+            });
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new ExternalServiceException("OpenAI image edit request interrupted");
         } catch (ExternalServiceException ex) {
             throw ex;
+        } catch (HttpTimeoutException ex) {
+            throw new ExternalServiceException("OpenAI image edit request timed out");
         } catch (IOException ex) {
             throw new ExternalServiceException("OpenAI image edit parsing failed");
         }
     }
 
-    private byte[] buildImageEditMultipartBody(String boundary,
-                                               String prompt,
-                                               byte[] baseImage,
-                                               String baseImageMime,
-                                               byte[] referenceImage,
-                                               String referenceImageMime,
-                                               byte[] maskPngBytes) {
+    /**
+     * Sends the request and hands the response to {@code responseHandler} while the in-flight permit is
+     * still held, so streamed bodies count against the limit and the request timer until fully read.
+     */
+    private <T, R> R exchange(String endpoint,
+                              HttpRequest request,
+                              HttpResponse.BodyHandler<T> bodyHandler,
+                              ResponseHandler<T, R> responseHandler) throws IOException, InterruptedException {
+        final EndpointMeters meters = endpointMeters.get(endpoint);
+        final long queuedAt = System.nanoTime();
+        final boolean acquired = inFlight.tryAcquire(Math.max(0, openAiProperties.getAcquireTimeoutSeconds()), TimeUnit.SECONDS);
+        meters.queueWait(acquired).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new TooManyRequestsException("OpenAI is busy, retry later");
+        }
+
+        final long startedAt = System.nanoTime();
+        String outcome = EndpointMeters.ERROR;
         try {
-            final ByteArrayOutputStream output = new ByteArrayOutputStream();
-            final String model = resolveImageEditModel();
-            final boolean isDallE2 = isDallE2Model(model);
-            final String imageFieldName = isDallE2 ? "image" : "image[]";
-
-            writeTextPart(output, boundary, "model", model);
-            writeTextPart(output, boundary, "prompt", prompt);
-            if (isDallE2) {
-                writeTextPart(output, boundary, "response_format", "b64_json");
-            }
-            writeFilePart(
-                    output,
+            final HttpResponse<T> response = httpClient.send(request, bodyHandler);
+            outcome = EndpointMeters.outcomeOf(response.statusCode());
+            return responseHandler.handle(response);
+        } catch (HttpTimeoutException ex) {
+            outcome = EndpointMeters.TIMEOUT;
+            throw ex;
+        } finally {
+            inFlight.release();
+            meters.requests(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private HttpRequest.BodyPublisher buildImageEditMultipartBody(String boundary,
+                                                                  String prompt,
+                                                                  byte[] baseImage,
+                                                                  String baseImageMime,
+                                                                  byte[] referenceImage,
+                                                                  String referenceImageMime,
+                                                                  byte[] maskPngBytes) {
+        final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+        final String model = resolveImageEditModel();
+        final boolean isDallE2 = isDallE2Model(model);
+        final String imageFieldName = isDallE2 ? "image" : "image[]";
+
+        addTextPart(parts, boundary, "model", model);
+        addTextPart(parts, boundary, "prompt", prompt);
+        if (isDallE2) {
+            addTextPart(parts, boundary, "response_format", "b64_json");
+        }
+        addFilePart(
+                parts,
+                boundary,
+                imageFieldName,
+                "person-image" + fileExtension(baseImageMime),
+                safeMime(baseImageMime),
+                baseImage
+        );
+        if (!isDallE2 && referenceImage != null && referenceImage.length > 0) {
+            addFilePart(
+                    parts,
                     boundary,
                     imageFieldName,
-                    "person-image.png",
-                    safeMime(baseImageMime),
-                    baseImage
+                    "clothing-image" + fileExtension(referenceImageMime),
+                    safeMime(referenceImageMime),
+                    referenceImage
             );
-            if (!isDallE2 && referenceImage != null && referenceImage.length > 0) {
-                writeFilePart(
-                        output,
-                        boundary,
-                        imageFieldName,
-                        "clothing-image.png",
-                        safeMime(referenceImageMime),
-                        referenceImage
-                );
-            }
-            writeFilePart(
-                    output,
-                    boundary,
-                    "mask",
-                    "person-mask.png",
-                    MediaType.IMAGE_PNG_VALUE,
-                    maskPngBytes
-            );
-
-            output.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
-            return output.toByteArray();
-        } catch (IOException ex) {
-            throw new IllegalStateException("Unable to build multipart request", ex);
         }
+        addFilePart(
+                parts,
+                boundary,
+                "mask",
+                "person-mask.png",
+                MediaType.IMAGE_PNG_VALUE,
+                maskPngBytes
+        );
+
+        parts.add(utf8("--" + boundary + "--\r\n"));
+        return HttpRequest.BodyPublishers.concat(parts.toArray(HttpRequest.BodyPublisher[]::new));
     }
 
-    private void writeTextPart(ByteArrayOutputStream output, String boundary, String name, String value) throws IOException {
-        output.write(("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8));
-        output.write(("Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n").getBytes(StandardCharsets.UTF_8));
-        output.write(value.getBytes(StandardCharsets.UTF_8));
-        output.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    private void addTextPart(List<HttpRequest.BodyPublisher> parts, String boundary, String name, String value) {
+        parts.add(utf8("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n"));
     }
 
-    private void writeFilePart(ByteArrayOutputStream output,
-                               String boundary,
-                               String name,
-                               String filename,
-                               String contentType,
-                               byte[] bytes) throws IOException {
-        output.write(("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8));
-        output.write(("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n")
-                .getBytes(StandardCharsets.UTF_8));
-        output.write(("Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
-        output.write(bytes);
-        output.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    private void addFilePart(List<HttpRequest.BodyPublisher> parts,
+                             String boundary,
+                             String name,
+                             String filename,
+                             String contentType,
+                             byte[] bytes) {
+        parts.add(utf8("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n"));
+        parts.add(HttpRequest.BodyPublishers.ofByteArray(bytes));
+        parts.add(utf8("\r\n"));
     }
 
-    private OpenAiTryOnResult decodeBase64Image(String imageBase64) {
-        try {
-            final byte[] imageBytes = Base64.getDecoder().decode(imageBase64);
-            if (imageBytes.length == 0) {
-                throw new ExternalServiceException("OpenAI returned empty image");
-            }
-            return new OpenAiTryOnResult(imageBytes, DEFAULT_IMAGE_MIME);
-        } catch (IllegalArgumentException ex) {
-            throw new ExternalServiceException("OpenAI returned invalid image payload");
-        }
+    private HttpRequest.BodyPublisher utf8(String value) {
+        return HttpRequest.BodyPublishers.ofString(value, StandardCharsets.UTF_8);
     }
 
-    private JsonNode parseImageEditResponse(byte[] responseBodyBytes, String contentType) throws IOException {
-        if (responseBodyBytes == null || responseBodyBytes.length == 0) {
+    private OpenAiTryOnResult parseImageEditResponse(InputStream responseBody, String contentType) throws IOException {
+        final BufferedInputStream input = new BufferedInputStream(responseBody);
+        input.mark(PAYLOAD_SNIFF_BYTES);
+        final byte[] head = input.readNBytes(PAYLOAD_SNIFF_BYTES);
+        input.reset();
+        if (head.length == 0) {
             throw new ExternalServiceException("OpenAI image edit response is empty");
         }
 
-        if (isJsonContentType(contentType) || looksLikeJsonPayload(responseBodyBytes)) {
-            return objectMapper.readTree(responseBodyBytes);
+        if (isJsonContentType(contentType) || looksLikeJsonPayload(head)) {
+            return new OpenAiTryOnResult(readImageFromJson(input), DEFAULT_IMAGE_MIME);
         }
 
-        if (isImageContentType(contentType) || looksLikeImagePayload(responseBodyBytes)) {
-            return objectMapper.createObjectNode()
-                    .put("image_base64", Base64.getEncoder().encodeToString(responseBodyBytes));
+        if (isImageContentType(contentType) || looksLikeImagePayload(head)) {
+            return new OpenAiTryOnResult(input.readAllBytes(), DEFAULT_IMAGE_MIME);
         }
 
-        final String bodyText = new String(responseBodyBytes, StandardCharsets.UTF_8);
+        final String bodyText = new String(input.readNBytes(301), StandardCharsets.UTF_8);
         final String snippet = bodyText.length() > 300 ? bodyText.substring(0, 300) + "..." : bodyText;
         throw new ExternalServiceException("OpenAI image edit unexpected response: " + snippet);
     }
 
-    private byte[] toPng(byte[] sourceBytes) {
+    private byte[] readImageFromJson(InputStream input) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME) {
+                    continue;
+                }
+                final String field = parser.currentName();
+                if (!isImagePayloadField(parser.getParsingContext(), field)) {
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                    continue;
+                }
+
+                final byte[] image = "result".equals(field)
+                        ? decodeOptionalImage(parser.getText())
+                        : readImage(parser);
+                if (image.length > 0) {
+                    return image;
+                }
+            }
+        }
+        throw new ExternalServiceException("OpenAI image edit response does not contain image");
+    }
+
+    /**
+     * Matches {@code image_base64} at the root and {@code data[].b64_json} / {@code output[].result}
+     * one level down, so same-named fields elsewhere in the payload are never decoded as the image.
+     */
+    private boolean isImagePayloadField(JsonStreamContext object, String field) {
+        final JsonStreamContext parent = object.getParent();
+        if (parent.inRoot()) {
+            return TOP_LEVEL_IMAGE_FIELD.equals(field);
+        }
+        final JsonStreamContext container = parent.getParent();
+        return parent.inArray()
+                && container.inObject()
+                && container.getParent().inRoot()
+                && field.equals(ARRAY_IMAGE_FIELDS.get(container.getCurrentName()));
+    }
+
+    private byte[] readImage(JsonParser parser) throws IOException {
+        final ByteArrayOutputStream image = new ByteArrayOutputStream();
+        try {
+            parser.readBinaryValue(IMAGE_BASE64, image);
+        } catch (JsonParseException | IllegalArgumentException ex) {
+            throw new ExternalServiceException("OpenAI returned invalid image payload");
+        }
+        return image.toByteArray();
+    }
+
+    // output[].result also carries non-image tool output, so anything that is not a base64 image is skipped.
+    private byte[] decodeOptionalImage(String value) {
+        try {
+            final byte[] decoded = Base64.getDecoder().decode(value);
+            return looksLikeImagePayload(decoded) ? decoded : new byte[0];
+        } catch (IllegalArgumentException ex) {
+            return new byte[0];
+        }
+    }
+
+    private BufferedImage decodeImage(byte[] sourceBytes) {
         try {
             final BufferedImage source = ImageIO.read(new ByteArrayInputStream(sourceBytes));
             if (source == null) {
                 throw new ExternalServiceException("Unable to decode person image");
             }
+            return source;
+        } catch (IOException ex) {
+            throw new ExternalServiceException("Unable to prepare person image");
+        }
+    }
+
+    private TryOnInputImage toUpload(byte[] bytes, String mime, BufferedImage decoded, boolean pngOnly) {
+        final String normalizedMime = mime == null ? "" : mime.toLowerCase(Locale.ROOT);
+        if (normalizedMime.equals(MediaType.IMAGE_PNG_VALUE)
+                || (!pngOnly && normalizedMime.equals(MediaType.IMAGE_JPEG_VALUE))) {
+            return new TryOnInputImage(bytes, normalizedMime);
+        }
+        return new TryOnInputImage(
+                encodePng(decoded != null ? decoded : decodeImage(bytes)),
+                MediaType.IMAGE_PNG_VALUE
+        );
+    }
 
+    private byte[] encodePng(BufferedImage source) {
+        try {
             final ByteArrayOutputStream output = new ByteArrayOutputStream();
             final boolean written = ImageIO.write(source, "png", output);
             if (!written) {
@@ -350,8 +493,8 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
         );
     }
 
-    private NormalizedBoundingBox resolveMaskRegion(byte[] personImagePng, GarmentRegion garmentRegion) {
-        final NormalizedBoundingBox personBounds = inpaintMaskBuilder.detectForegroundBoundingBox(personImagePng);
+    private NormalizedBoundingBox resolveMaskRegion(BufferedImage personImage, GarmentRegion garmentRegion) {
+        final NormalizedBoundingBox personBounds = inpaintMaskBuilder.detectForegroundBoundingBox(personImage);
 
         final double expandedX = clamp01(personBounds.x() - personBounds.width() * garmentRegion.horizontalPadding());
         final double expandedRight = clamp01(
@@ -446,96 +589,6 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
                 """.formatted(safeName);
     }
 
-    private String extractImageEditBase64(JsonNode body) {
-        final String direct = extractGeneratedImageBase64(body);
-        if (direct != null && !direct.isBlank()) {
-            return direct;
-        }
-
-        final JsonNode data = body.path("data");
-        if (!data.isArray()) {
-            return null;
-        }
-
-        for (JsonNode item : data) {
-            final String base64 = firstNonBlank(
-                    item.path("b64_json").asText(null),
-                    item.path("image_base64").asText(null)
-            );
-            if (base64 != null) {
-                return base64;
-            }
-        }
-        return null;
-    }
-
-    private String extractGeneratedImageBase64(JsonNode body) {
-        final JsonNode output = body.path("output");
-        if (output.isArray()) {
-            for (JsonNode item : output) {
-                final String itemType = item.path("type").asText("");
-                if ("image_generation_call".equals(itemType)) {
-                    final String result = item.path("result").asText(null);
-                    if (result != null && !result.isBlank()) {
-                        return result;
-                    }
-                }
-
-                final String fromContent = extractImageFromContent(item.path("content"));
-                if (fromContent != null && !fromContent.isBlank()) {
-                    return fromContent;
-                }
-            }
-        }
-
-        final String directData = firstNonBlank(
-                body.path("image_base64").asText(null),
-                body.path("b64_json").asText(null),
-                body.path("result").asText(null)
-        );
-        if (directData != null) {
-            return directData;
-        }
-
-        final JsonNode data = body.path("data");
-        if (data.isArray()) {
-            for (JsonNode item : data) {
-                final String base64 = firstNonBlank(
-                        item.path("b64_json").asText(null),
-                        item.path("image_base64").asText(null),
-                        item.path("result").asText(null)
-                );
-                if (base64 != null) {
-                    return base64;
-                }
-            }
-        }
-
-        return null;
-    }
-
-    private String extractImageFromContent(JsonNode content) {
-        if (!content.isArray()) {
-            return null;
-        }
-
-        for (JsonNode part : content) {
-            final String type = part.path("type").asText("");
-            if ("output_image".equals(type) || "image".equals(type) || "image_generation_call".equals(type)) {
-                final String base64 = firstNonBlank(
-                        part.path("image_base64").asText(null),
-                        part.path("b64_json").asText(null),
-                        part.path("result").asText(null)
-                );
-                if (base64 != null) {
-                    return base64;
-                }
-            }
-        }
-
-        return null;
-    }
-
     private String extractOutputText(JsonNode body) {
         final JsonNode output = body.path("output");
         if (output.isArray()) {
@@ -780,6 +833,10 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
         return (mimeType == null || mimeType.isBlank()) ? MediaType.IMAGE_JPEG_VALUE : mimeType;
     }
 
+    private String fileExtension(String mimeType) {
+        return MediaType.IMAGE_PNG_VALUE.equals(mimeType) ? ".png" : ".jpg";
+    }
+
     private String firstNonBlank(String... values) {
         for (String value : values) {
             if (value != null && !value.isBlank()) {
@@ -901,6 +958,74 @@ public class OpenAiTryOnClientImpl implements OpenAiTryOnClient {
         return (configured == null || configured.isBlank()) ? DEFAULT_STYLE_HINT_MODEL : configured;
     }
 
+    @FunctionalInterface
+    private interface ResponseHandler<T, R> {
+        R handle(HttpResponse<T> response) throws IOException;
+    }
+
+    /**
+     * Queue-wait and request timers for one endpoint, registered up front so the hot path only records.
+     * Status codes are folded into a fixed set of outcomes to keep the tag cardinality bounded.
+     */
+    private static final class EndpointMeters {
+        private static final String SUCCESS = "success";
+        private static final String CLIENT_ERROR = "client_error";
+        private static final String SERVER_ERROR = "server_error";
+        private static final String TIMEOUT = "timeout";
+        private static final String ERROR = "error";
+
+        private final Timer queueWaitAcquired;
+        private final Timer queueWaitRejected;
+        private final Map<String, Timer> requestsByOutcome;
+
+        private EndpointMeters(MeterRegistry meterRegistry, String endpoint) {
+            this.queueWaitAcquired = queueWaitTimer(meterRegistry, endpoint, true);
+            this.queueWaitRejected = queueWaitTimer(meterRegistry, endpoint, false);
+            this.requestsByOutcome = Map.of(
+                    SUCCESS, requestTimer(meterRegistry, endpoint, SUCCESS),
+                    CLIENT_ERROR, requestTimer(meterRegistry, endpoint, CLIENT_ERROR),
+                    SERVER_ERROR, requestTimer(meterRegistry, endpoint, SERVER_ERROR),
+                    TIMEOUT, requestTimer(meterRegistry, endpoint, TIMEOUT),
+                    ERROR, requestTimer(meterRegistry, endpoint, ERROR)
+            );
+        }
+
+        private Timer queueWait(boolean acquired) {
+            return acquired ? queueWaitAcquired : queueWaitRejected;
+        }
+
+        private Timer requests(String outcome) {
+            return requestsByOutcome.get(outcome);
+        }
+
+        private static String outcomeOf(int statusCode) {
+            if (statusCode >= 200 && statusCode < 300) {
+                return SUCCESS;
+            }
+            if (statusCode >= 400 && statusCode < 500) {
+                return CLIENT_ERROR;
+            }
+            if (statusCode >= 500) {
+                return SERVER_ERROR;
+            }
+            return ERROR;
+        }
+
+        private static Timer queueWaitTimer(MeterRegistry meterRegistry, String endpoint, boolean acquired) {
+            return Timer.builder("openai.client.queue.wait")
+                    .tag("endpoint", endpoint)
+                    .tag("acquired", String.valueOf(acquired))
+                    .register(meterRegistry);
+        }
+
+        private static Timer requestTimer(MeterRegistry meterRegistry, String endpoint, String outcome) {
+            return Timer.builder("openai.client.requests")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
     private record GarmentRegion(
             String regionKey,
             double relativeTop,
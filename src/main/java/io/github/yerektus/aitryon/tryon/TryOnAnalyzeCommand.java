@@ -12,6 +12,7 @@ public record TryOnAnalyzeCommand(
         int heightCm,
         int weightKg,
         UserGender gender,
-        int ageYears
+        int ageYears,
+        boolean reuseResult
 ) {
 }
@@ -1,12 +1,15 @@
 package io.github.yerektus.aitryon.tryon;
 
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.domain.UserGender;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
+import io.github.yerektus.aitryon.storage.BlobResponses;
 import io.github.yerektus.aitryon.tryon.dto.TryOnAnalyzeResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnHistoryItemResponse;
-import io.github.yerektus.aitryon.tryon.dto.TryOnResultBinary;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnStyleHintsResponse;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,8 +19,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.List;
@@ -29,9 +34,11 @@ import java.util.UUID;
 public class TryOnController {
 
     private final TryOnService tryOnService;
+    private final TryOnImageNormalizer tryOnImageNormalizer;
 
-    public TryOnController(TryOnService tryOnService) {
+    public TryOnController(TryOnService tryOnService, TryOnImageNormalizer tryOnImageNormalizer) {
         this.tryOnService = tryOnService;
+        this.tryOnImageNormalizer = tryOnImageNormalizer;
     }
 
     @PostMapping(value = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -43,34 +50,38 @@ public class TryOnController {
                                         @RequestParam("heightCm") int heightCm,
                                         @RequestParam("weightKg") int weightKg,
                                         @RequestParam("gender") String gender,
-                                        @RequestParam("ageYears") int ageYears) throws IOException {
-
-        final TryOnAnalyzeCommand command = new TryOnAnalyzeCommand(
-                personImage.getBytes(),
-                normalizeInputImageMime(personImage.getContentType()),
-                clothingImage.getBytes(),
-                normalizeInputImageMime(clothingImage.getContentType()),
-                clothingName,
-                clothingSize,
-                heightCm,
-                weightKg,
-                parseGender(gender),
-                ageYears
+                                        @RequestParam("ageYears") int ageYears,
+                                        @RequestParam(name = "reuseResult", defaultValue = "true") boolean reuseResult) throws IOException {
+        final TryOnAnalyzeCommand command = toCommand(
+                personImage, clothingImage, clothingName, clothingSize, heightCm, weightKg, gender, ageYears, reuseResult
         );
-
         return tryOnService.analyze(user.userId(), command);
     }
 
+    @PostMapping(value = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "mode=async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TryOnJobResponse submit(@AuthenticationPrincipal AuthenticatedUser user,
+                                   @RequestPart("personImage") MultipartFile personImage,
+                                   @RequestPart("clothingImage") MultipartFile clothingImage,
+                                   @RequestParam("clothingName") String clothingName,
+                                   @RequestParam("clothingSize") String clothingSize,
+                                   @RequestParam("heightCm") int heightCm,
+                                   @RequestParam("weightKg") int weightKg,
+                                   @RequestParam("gender") String gender,
+                                   @RequestParam("ageYears") int ageYears,
+                                   @RequestParam(name = "reuseResult", defaultValue = "true") boolean reuseResult) throws IOException {
+        final TryOnAnalyzeCommand command = toCommand(
+                personImage, clothingImage, clothingName, clothingSize, heightCm, weightKg, gender, ageYears, reuseResult
+        );
+        return tryOnService.submit(user.userId(), command);
+    }
+
     @PostMapping(value = "/style-hints", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public TryOnStyleHintsResponse styleHints(@AuthenticationPrincipal AuthenticatedUser user,
                                               @RequestPart("clothingImage") MultipartFile clothingImage,
                                               @RequestParam(name = "clothingName", required = false) String clothingName) throws IOException {
-        return tryOnService.styleHints(
-                user.userId(),
-                clothingImage.getBytes(),
-                normalizeInputImageMime(clothingImage.getContentType()),
-                clothingName
-        );
+        final TryOnInputImage clothing = normalizeInputImage(clothingImage);
+        return tryOnService.styleHints(user.userId(), clothing.bytes(), clothing.mimeType(), clothingName);
     }
 
     @GetMapping("/history")
@@ -79,25 +90,58 @@ public class TryOnController {
         return tryOnService.history(user.userId(), limit);
     }
 
+    @GetMapping("/jobs/{jobId}")
+    public TryOnJobResponse job(@AuthenticationPrincipal AuthenticatedUser user,
+                                @PathVariable UUID jobId) {
+        return tryOnService.job(user.userId(), jobId);
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter jobEvents(@AuthenticationPrincipal AuthenticatedUser user,
+                                @PathVariable UUID jobId) {
+        return tryOnService.subscribe(user.userId(), jobId);
+    }
+
     @GetMapping("/jobs/{jobId}/result")
-    public ResponseEntity<byte[]> result(@AuthenticationPrincipal AuthenticatedUser user,
-                                         @PathVariable UUID jobId) {
-        final TryOnResultBinary binary = tryOnService.result(user.userId(), jobId);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, normalizeResultMime(binary.mimeType()))
-                .body(binary.bytes());
+    public ResponseEntity<Resource> result(@AuthenticationPrincipal AuthenticatedUser user,
+                                           @PathVariable UUID jobId,
+                                           @RequestParam(name = "size", required = false) String size) {
+        return BlobResponses.ok(tryOnService.result(user.userId(), jobId, ImageRenditionSize.fromApiValue(size)));
     }
 
-    private String normalizeInputImageMime(String mime) {
-        if (mime == null || mime.isBlank()) {
-            return MediaType.IMAGE_JPEG_VALUE;
-        }
-        return mime;
+    private TryOnAnalyzeCommand toCommand(MultipartFile personImage,
+                                          MultipartFile clothingImage,
+                                          String clothingName,
+                                          String clothingSize,
+                                          int heightCm,
+                                          int weightKg,
+                                          String gender,
+                                          int ageYears,
+                                          boolean reuseResult) throws IOException {
+        final TryOnInputImage person = normalizeInputImage(personImage);
+        final TryOnInputImage clothing = normalizeInputImage(clothingImage);
+        return new TryOnAnalyzeCommand(
+                person.bytes(),
+                person.mimeType(),
+                clothing.bytes(),
+                clothing.mimeType(),
+                clothingName,
+                clothingSize,
+                heightCm,
+                weightKg,
+                parseGender(gender),
+                ageYears,
+                reuseResult
+        );
     }
 
-    private String normalizeResultMime(String mime) {
+    private TryOnInputImage normalizeInputImage(MultipartFile image) throws IOException {
+        return tryOnImageNormalizer.normalize(image.getBytes(), normalizeInputImageMime(image.getContentType()));
+    }
+
+    private String normalizeInputImageMime(String mime) {
         if (mime == null || mime.isBlank()) {
-            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            return MediaType.IMAGE_JPEG_VALUE;
         }
         return mime;
     }
@@ -0,0 +1,77 @@
+package io.github.yerektus.aitryon.tryon;
+
+import io.github.yerektus.aitryon.config.TryOnProperties;
+import io.github.yerektus.aitryon.storage.ImageProcessing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+@Component
+public class TryOnImageNormalizer {
+
+    private static final Logger log = LoggerFactory.getLogger(TryOnImageNormalizer.class);
+
+    private final TryOnProperties tryOnProperties;
+
+    public TryOnImageNormalizer(TryOnProperties tryOnProperties) {
+        this.tryOnProperties = tryOnProperties;
+    }
+
+    public TryOnInputImage normalize(byte[] bytes, String mimeType) {
+        final BufferedImage decoded;
+        try {
+            decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        } catch (IOException ex) {
+            return new TryOnInputImage(bytes, mimeType);
+        }
+        if (decoded == null) {
+            return new TryOnInputImage(bytes, mimeType);
+        }
+
+        final boolean jpeg = isJpeg(bytes);
+        final int orientation = jpeg ? ImageProcessing.readExifOrientation(bytes) : 1;
+        final int maxEdgePx = Math.max(1, tryOnProperties.getInputMaxEdgePx());
+        final boolean fits = Math.max(decoded.getWidth(), decoded.getHeight()) <= maxEdgePx;
+        if (fits && orientation == 1 && (jpeg || isPng(bytes))) {
+            return new TryOnInputImage(bytes, jpeg ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE);
+        }
+
+        final BufferedImage normalized = ImageProcessing.applyExifOrientation(
+                ImageProcessing.scaleToFit(decoded, maxEdgePx),
+                orientation
+        );
+        try {
+            if (normalized.getColorModel().hasAlpha()) {
+                return new TryOnInputImage(ImageProcessing.encodePng(normalized), MediaType.IMAGE_PNG_VALUE);
+            }
+            return new TryOnInputImage(
+                    ImageProcessing.encodeJpeg(normalized, tryOnProperties.getInputJpegQuality()),
+                    MediaType.IMAGE_JPEG_VALUE
+            );
+        } catch (IOException ex) {
+            log.warn("Unable to re-encode try-on input image: error={}", ex.getMessage());
+            return new TryOnInputImage(bytes, mimeType);
+        }
+    }
+
+    private boolean isJpeg(byte[] bytes) {
+        return bytes.length > 2
+                && (bytes[0] & 0xFF) == 0xFF
+                && (bytes[1] & 0xFF) == 0xD8
+                && (bytes[2] & 0xFF) == 0xFF;
+    }
+
+    private boolean isPng(byte[] bytes) {
+        return bytes.length > 8
+                && (bytes[0] & 0xFF) == 0x89
+                && bytes[1] == 'P'
+                && bytes[2] == 'N'
+                && bytes[3] == 'G';
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.yerektus.aitryon.tryon;
+
+public record TryOnInputImage(
+        byte[] bytes,
+        String mimeType
+) {
+}
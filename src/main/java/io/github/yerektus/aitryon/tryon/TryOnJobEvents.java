@@ -0,0 +1,22 @@
+package io.github.yerektus.aitryon.tryon;
+
+import io.github.yerektus.aitryon.common.SseEmitterRegistry;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class TryOnJobEvents extends SseEmitterRegistry<UUID, TryOnJobResponse> {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+    public TryOnJobEvents() {
+        super(
+                EMITTER_TIMEOUT_MILLIS,
+                TryOnJobResponse::jobId,
+                job -> TryOnJobStatus.valueOf(job.status()).isTerminal()
+        );
+    }
+}
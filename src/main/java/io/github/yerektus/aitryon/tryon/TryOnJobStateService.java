@@ -0,0 +1,156 @@
+package io.github.yerektus.aitryon.tryon;
+
+import io.github.yerektus.aitryon.billing.CreditService;
+import io.github.yerektus.aitryon.common.NotFoundException;
+import io.github.yerektus.aitryon.config.TryOnProperties;
+import io.github.yerektus.aitryon.domain.TryOnJobEntity;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
+import io.github.yerektus.aitryon.domain.repo.TryOnJobRepository;
+import io.github.yerektus.aitryon.storage.BlobStore;
+import io.github.yerektus.aitryon.storage.StoredBlob;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TryOnJobStateService {
+
+    private static final int STALE_JOB_BATCH_SIZE = 100;
+    private static final int TRY_ON_COST = 1;
+
+    private final TryOnJobRepository tryOnJobRepository;
+    private final CreditService creditService;
+    private final BlobStore blobStore;
+    private final TryOnProperties tryOnProperties;
+
+    public TryOnJobStateService(TryOnJobRepository tryOnJobRepository,
+                                CreditService creditService,
+                                BlobStore blobStore,
+                                TryOnProperties tryOnProperties) {
+        this.tryOnJobRepository = tryOnJobRepository;
+        this.creditService = creditService;
+        this.blobStore = blobStore;
+        this.tryOnProperties = tryOnProperties;
+    }
+
+    @Transactional
+    public TryOnJobEntity open(TryOnJobEntity job) {
+        final TryOnJobEntity saved = tryOnJobRepository.save(job);
+        final Duration holdTtl = Duration.ofMinutes(Math.max(1, tryOnProperties.getCreditHoldTtlMinutes()));
+        creditService.placeHold(saved.getUser().getId(), saved, TRY_ON_COST, Instant.now().plus(holdTtl));
+        return saved;
+    }
+
+    @Transactional
+    public boolean start(UUID jobId) {
+        final TryOnJobEntity job = getJobForUpdate(jobId);
+        if (job.getStatus() != TryOnJobStatus.PROCESSING) {
+            return false;
+        }
+
+        job.setStartedAt(Instant.now());
+        tryOnJobRepository.save(job);
+        return true;
+    }
+
+    @Transactional
+    public TryOnJobResponse markSucceeded(UUID jobId, TryOnOutputImage output) {
+        final TryOnJobEntity job = getJobForUpdate(jobId);
+        if (job.getStatus() != TryOnJobStatus.PROCESSING) {
+            return toResponse(job);
+        }
+
+        final StoredBlob resultImage = blobStore.put(output.bytes());
+        job.setResultImageKey(resultImage.key());
+        job.setResultImageSize(resultImage.sizeBytes());
+        job.setResultImageMime(output.mimeType());
+        job.setStatus(TryOnJobStatus.SUCCEEDED);
+        job.setErrorMessage(null);
+        job.setCreditsSpent(TRY_ON_COST);
+        job.setUpdatedAt(Instant.now());
+        tryOnJobRepository.save(job);
+
+        creditService.captureHold(job);
+        return toResponse(job);
+    }
+
+    @Transactional
+    public TryOnJobResponse markFailed(UUID jobId, String errorMessage) {
+        final TryOnJobEntity job = getJobForUpdate(jobId);
+        if (job.getStatus() != TryOnJobStatus.PROCESSING) {
+            return toResponse(job);
+        }
+
+        job.setStatus(TryOnJobStatus.FAILED);
+        job.setErrorMessage(errorMessage);
+        job.setUpdatedAt(Instant.now());
+        tryOnJobRepository.save(job);
+
+        creditService.releaseHold(job);
+        return toResponse(job);
+    }
+
+    @Transactional
+    public List<TryOnJobResponse> failStaleJobs(Instant startedBefore) {
+        final List<UUID> staleJobIds = tryOnJobRepository.findIdsByStatusAndStartedAtBefore(
+                TryOnJobStatus.PROCESSING,
+                startedBefore,
+                PageRequest.of(0, STALE_JOB_BATCH_SIZE)
+        );
+
+        final List<TryOnJobResponse> failed = new ArrayList<>(staleJobIds.size());
+        for (UUID jobId : staleJobIds) {
+            failed.add(markFailed(jobId, "Try-on job timed out"));
+        }
+        return failed;
+    }
+
+    @Transactional
+    public List<TryOnJobResponse> releaseExpiredHolds(Instant now) {
+        final List<UUID> jobIds = creditService.findJobsWithExpiredHolds(now, STALE_JOB_BATCH_SIZE);
+
+        final List<TryOnJobResponse> released = new ArrayList<>(jobIds.size());
+        for (UUID jobId : jobIds) {
+            final TryOnJobEntity job = getJobForUpdate(jobId);
+            if (job.getStatus() == TryOnJobStatus.PROCESSING) {
+                released.add(markFailed(jobId, "Try-on job timed out"));
+            } else {
+                creditService.releaseHold(job);
+            }
+        }
+        return released;
+    }
+
+    @Transactional(readOnly = true)
+    public TryOnJobResponse describe(UUID userId, UUID jobId) {
+        return tryOnJobRepository.findByIdAndUser_Id(jobId, userId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Try-on job not found"));
+    }
+
+    TryOnJobResponse toResponse(TryOnJobEntity job) {
+        return new TryOnJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getClothingName(),
+                job.getClothingSize(),
+                job.getCreditsSpent(),
+                job.getErrorMessage(),
+                job.getResultImageKey() != null,
+                job.getCreatedAt(),
+                job.getUpdatedAt()
+        );
+    }
+
+    private TryOnJobEntity getJobForUpdate(UUID jobId) {
+        return tryOnJobRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new NotFoundException("Try-on job not found"));
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.yerektus.aitryon.tryon;
+
+import io.github.yerektus.aitryon.common.TooManyRequestsException;
+import io.github.yerektus.aitryon.config.TryOnProperties;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class TryOnJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(TryOnJobWorker.class);
+
+    private final OpenAiTryOnClient openAiTryOnClient;
+    private final TryOnJobStateService tryOnJobStateService;
+    private final TryOnJobEvents tryOnJobEvents;
+    private final TryOnProperties tryOnProperties;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final AtomicInteger pendingJobs = new AtomicInteger();
+
+    public TryOnJobWorker(OpenAiTryOnClient openAiTryOnClient,
+                          TryOnJobStateService tryOnJobStateService,
+                          TryOnJobEvents tryOnJobEvents,
+                          TryOnProperties tryOnProperties) {
+        this.openAiTryOnClient = openAiTryOnClient;
+        this.tryOnJobStateService = tryOnJobStateService;
+        this.tryOnJobEvents = tryOnJobEvents;
+        this.tryOnProperties = tryOnProperties;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("try-on-worker-", 0).factory());
+        this.permits = new Semaphore(Math.max(1, tryOnProperties.getWorkerConcurrency()), true);
+    }
+
+    public void dispatch(UUID jobId, TryOnAnalyzeCommand command) {
+        if (pendingJobs.incrementAndGet() > Math.max(1, tryOnProperties.getMaxPendingJobs())) {
+            pendingJobs.decrementAndGet();
+            throw new TooManyRequestsException("Too many try-on jobs in progress, retry later");
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId, command);
+                } finally {
+                    pendingJobs.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            pendingJobs.decrementAndGet();
+            throw new TooManyRequestsException("Try-on worker is not accepting jobs, retry later");
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void failStaleJobs() {
+        final Instant cutoff = Instant.now().minus(Math.max(1, tryOnProperties.getStaleJobMinutes()), ChronoUnit.MINUTES);
+        for (TryOnJobResponse job : tryOnJobStateService.failStaleJobs(cutoff)) {
+            log.warn("Try-on job timed out: job_id={}", job.jobId());
+            tryOnJobEvents.publish(job);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void releaseExpiredHolds() {
+        for (TryOnJobResponse job : tryOnJobStateService.releaseExpiredHolds(Instant.now())) {
+            log.warn("Try-on credit hold expired: job_id={}", job.jobId());
+            tryOnJobEvents.publish(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(UUID jobId, TryOnAnalyzeCommand command) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            tryOnJobEvents.publish(tryOnJobStateService.markFailed(jobId, "Try-on job was interrupted"));
+            return;
+        }
+
+        TryOnJobResponse outcome;
+        try {
+            if (!tryOnJobStateService.start(jobId)) {
+                log.info("Try-on job no longer processing, skipping: job_id={}", jobId);
+                return;
+            }
+            final OpenAiTryOnResult result = openAiTryOnClient.generateInpaint(command);
+            outcome = tryOnJobStateService.markSucceeded(
+                    jobId,
+                    new TryOnOutputImage(TryOnOutputId.INPAINT, result.bytes(), result.mimeType())
+            );
+            if (!TryOnJobStatus.SUCCEEDED.name().equals(outcome.status())) {
+                log.warn("Try-on result discarded, job already {}: job_id={}", outcome.status(), jobId);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Try-on job failed: job_id={} error={}", jobId, ex.getMessage());
+            outcome = tryOnJobStateService.markFailed(jobId, ex.getMessage());
+        } finally {
+            permits.release();
+        }
+
+        tryOnJobEvents.publish(outcome);
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.yerektus.aitryon.tryon;
+
+import io.github.yerektus.aitryon.config.TryOnProperties;
+import io.github.yerektus.aitryon.domain.TryOnJobEntity;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
+import io.github.yerektus.aitryon.domain.repo.TryOnJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+public class TryOnResultCache {
+
+    private static final Set<TryOnJobStatus> COMPLETED = EnumSet.of(TryOnJobStatus.SUCCEEDED);
+    private static final Set<TryOnJobStatus> COMPLETED_OR_IN_FLIGHT =
+            EnumSet.of(TryOnJobStatus.SUCCEEDED, TryOnJobStatus.PROCESSING);
+
+    private final TryOnJobRepository tryOnJobRepository;
+    private final TryOnProperties tryOnProperties;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public TryOnResultCache(TryOnJobRepository tryOnJobRepository,
+                            TryOnProperties tryOnProperties,
+                            MeterRegistry meterRegistry) {
+        this.tryOnJobRepository = tryOnJobRepository;
+        this.tryOnProperties = tryOnProperties;
+        this.hits = Counter.builder("tryon.result-cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("tryon.result-cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder("tryon.result-cache")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+    }
+
+    public String fingerprint(TryOnAnalyzeCommand command) {
+        final MessageDigest digest = sha256();
+        digest.update(sha256().digest(command.personImage()));
+        digest.update(sha256().digest(command.clothingImage()));
+        digest.update(String.join(
+                "\n",
+                command.clothingName().trim().toLowerCase(Locale.ROOT),
+                command.clothingSize().trim().toLowerCase(Locale.ROOT),
+                Integer.toString(command.heightCm()),
+                Integer.toString(command.weightKg()),
+                String.valueOf(command.gender()),
+                Integer.toString(command.ageYears())
+        ).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Optional<TryOnJobEntity> findReusable(UUID userId,
+                                                 TryOnAnalyzeCommand command,
+                                                 String fingerprint,
+                                                 boolean includeInFlight) {
+        if (!tryOnProperties.isResultCacheEnabled() || !command.reuseResult()) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        final Instant createdAfter = Instant.now()
+                .minus(Duration.ofMinutes(Math.max(1, tryOnProperties.getResultCacheTtlMinutes())));
+        final Optional<TryOnJobEntity> reusable = tryOnJobRepository
+                .findFirstByUser_IdAndRequestFingerprintAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+                        userId,
+                        fingerprint,
+                        includeInFlight ? COMPLETED_OR_IN_FLIGHT : COMPLETED,
+                        createdAfter
+                )
+                .filter(job -> job.getStatus() != TryOnJobStatus.SUCCEEDED || job.getResultImageKey() != null);
+        (reusable.isPresent() ? hits : misses).increment();
+        return reusable;
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -2,110 +2,135 @@ package io.github.yerektus.aitryon.tryon;
 
 import io.github.yerektus.aitryon.billing.CreditService;
 import io.github.yerektus.aitryon.common.BadRequestException;
+import io.github.yerektus.aitryon.common.ConflictException;
 import io.github.yerektus.aitryon.common.NotFoundException;
 import io.github.yerektus.aitryon.common.PaymentRequiredException;
-import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.common.TooManyRequestsException;
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.domain.TryOnJobEntity;
 import io.github.yerektus.aitryon.domain.TryOnJobStatus;
 import io.github.yerektus.aitryon.domain.UserEntity;
 import io.github.yerektus.aitryon.domain.UserGender;
 import io.github.yerektus.aitryon.domain.repo.TryOnJobRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.storage.BlobContent;
+import io.github.yerektus.aitryon.storage.BlobStore;
+import io.github.yerektus.aitryon.storage.ImageRenditionService;
+import io.github.yerektus.aitryon.storage.StoredBlob;
 import io.github.yerektus.aitryon.tryon.dto.TryOnAnalyzeResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnHistoryItemResponse;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnOutputResponse;
-import io.github.yerektus.aitryon.tryon.dto.TryOnResultBinary;
 import io.github.yerektus.aitryon.tryon.dto.TryOnStyleHintResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnStyleHintsResponse;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class TryOnService {
 
+    private static final String RESULT_THUMBNAIL_PATH = "/api/v1/try-on/jobs/%s/result?size=" + ImageRenditionSize.MEDIUM.toApiValue();
+
     private final TryOnJobRepository tryOnJobRepository;
     private final UserRepository userRepository;
     private final OpenAiTryOnClient openAiTryOnClient;
     private final CreditService creditService;
+    private final TryOnJobStateService tryOnJobStateService;
+    private final TryOnJobWorker tryOnJobWorker;
+    private final TryOnJobEvents tryOnJobEvents;
+    private final BlobStore blobStore;
+    private final ImageRenditionService imageRenditionService;
+    private final TryOnResultCache tryOnResultCache;
 
     public TryOnService(TryOnJobRepository tryOnJobRepository,
                         UserRepository userRepository,
                         OpenAiTryOnClient openAiTryOnClient,
-                        CreditService creditService) {
+                        CreditService creditService,
+                        TryOnJobStateService tryOnJobStateService,
+                        TryOnJobWorker tryOnJobWorker,
+                        TryOnJobEvents tryOnJobEvents,
+                        BlobStore blobStore,
+                        ImageRenditionService imageRenditionService,
+                        TryOnResultCache tryOnResultCache) {
         this.tryOnJobRepository = tryOnJobRepository;
         this.userRepository = userRepository;
         this.openAiTryOnClient = openAiTryOnClient;
         this.creditService = creditService;
+        this.tryOnJobStateService = tryOnJobStateService;
+        this.tryOnJobWorker = tryOnJobWorker;
+        this.tryOnJobEvents = tryOnJobEvents;
+        this.blobStore = blobStore;
+        this.imageRenditionService = imageRenditionService;
+        this.tryOnResultCache = tryOnResultCache;
     }
 
     public TryOnAnalyzeResponse analyze(UUID userId, TryOnAnalyzeCommand command) {
         validate(command);
-
-        final UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
-
-        if (user.getCreditsBalance() < 1) {
-            throw new PaymentRequiredException("Not enough credits");
+        final String fingerprint = tryOnResultCache.fingerprint(command);
+        final Optional<TryOnJobEntity> reusable = tryOnResultCache.findReusable(userId, command, fingerprint, false);
+        if (reusable.isPresent()) {
+            return toReusedResponse(userId, reusable.get());
         }
 
-        final TryOnJobEntity job = new TryOnJobEntity();
-        job.setUser(user);
-        job.setPersonImage(command.personImage());
-        job.setPersonImageMime(command.personImageMime());
-        job.setClothingImage(command.clothingImage());
-        job.setClothingImageMime(command.clothingImageMime());
-        job.setClothingName(command.clothingName().trim());
-        job.setClothingSize(command.clothingSize().trim());
-        job.setHeightCm(command.heightCm());
-        job.setWeightKg(command.weightKg());
-        job.setGender(command.gender());
-        job.setAgeYears(command.ageYears());
-        job.setStatus(TryOnJobStatus.PROCESSING);
-        job.setCreditsSpent(0);
-        final TryOnJobEntity saved = tryOnJobRepository.save(job);
+        final TryOnJobEntity saved = createJob(userId, command, fingerprint, Instant.now());
 
         try {
             final TryOnOutputImage inpaintOutput = toOutput(TryOnOutputId.INPAINT, openAiTryOnClient.generateInpaint(command));
-            final List<TryOnOutputImage> generatedOutputs = List.of(inpaintOutput);
-
-            saved.setResultImage(inpaintOutput.bytes());
-            saved.setResultImageMime(inpaintOutput.mimeType());
-            saved.setStatus(TryOnJobStatus.SUCCEEDED);
-            saved.setErrorMessage(null);
-            saved.setCreditsSpent(1);
-            tryOnJobRepository.save(saved);
-
-            final int remainingCredits = creditService.adjustCredits(
-                    userId,
-                    -1,
-                    CreditLedgerReason.TRY_ON_CHARGE,
-                    null,
-                    saved
-            );
+            final TryOnJobResponse completed = tryOnJobStateService.markSucceeded(saved.getId(), inpaintOutput);
+            if (!TryOnJobStatus.SUCCEEDED.name().equals(completed.status())) {
+                // The stale-job reaper may have failed and refunded the job while generation was running.
+                throw new ConflictException("Try-on job is no longer processing: " + completed.status());
+            }
 
             return new TryOnAnalyzeResponse(
                     saved.getId(),
                     Base64.getEncoder().encodeToString(inpaintOutput.bytes()),
                     inpaintOutput.mimeType(),
-                    1,
-                    remainingCredits,
-                    generatedOutputs.stream()
-                            .map(this::toResponseOutput)
-                            .toList()
+                    completed.creditsSpent(),
+                    creditService.getBalance(userId),
+                    List.of(toResponseOutput(inpaintOutput))
             );
         } catch (RuntimeException ex) {
-            saved.setStatus(TryOnJobStatus.FAILED);
-            saved.setErrorMessage(ex.getMessage());
-            saved.setUpdatedAt(Instant.now());
-            tryOnJobRepository.save(saved);
+            tryOnJobStateService.markFailed(saved.getId(), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    public TryOnJobResponse submit(UUID userId, TryOnAnalyzeCommand command) {
+        validate(command);
+        final String fingerprint = tryOnResultCache.fingerprint(command);
+        final Optional<TryOnJobEntity> reusable = tryOnResultCache.findReusable(userId, command, fingerprint, true);
+        if (reusable.isPresent()) {
+            return tryOnJobStateService.toResponse(reusable.get());
+        }
+
+        final TryOnJobEntity saved = createJob(userId, command, fingerprint, null);
+
+        try {
+            tryOnJobWorker.dispatch(saved.getId(), command);
+        } catch (TooManyRequestsException ex) {
+            tryOnJobStateService.markFailed(saved.getId(), ex.getMessage());
             throw ex;
         }
+
+        return tryOnJobStateService.toResponse(saved);
+    }
+
+    public TryOnJobResponse job(UUID userId, UUID jobId) {
+        return tryOnJobStateService.describe(userId, jobId);
+    }
+
+    public SseEmitter subscribe(UUID userId, UUID jobId) {
+        tryOnJobStateService.describe(userId, jobId);
+        return tryOnJobEvents.subscribe(jobId, () -> tryOnJobStateService.describe(userId, jobId));
     }
 
     @Transactional(readOnly = true)
@@ -142,21 +167,79 @@ public class TryOnService {
                         job.getCreditsSpent(),
                         job.getCreatedAt(),
                         job.getErrorMessage(),
-                        job.getResultImage() != null && job.getResultImage().length > 0
+                        job.getResultImageKey() != null,
+                        job.getResultImageKey() != null
+                                ? RESULT_THUMBNAIL_PATH.formatted(job.getId())
+                                : null
                 ))
                 .toList();
     }
 
-    @Transactional(readOnly = true)
-    public TryOnResultBinary result(UUID userId, UUID jobId) {
+    public BlobContent result(UUID userId, UUID jobId, ImageRenditionSize size) {
         final TryOnJobEntity job = tryOnJobRepository.findByIdAndUser_Id(jobId, userId)
                 .orElseThrow(() -> new NotFoundException("Try-on job not found"));
 
-        if (job.getStatus() != TryOnJobStatus.SUCCEEDED || job.getResultImage() == null || job.getResultImage().length == 0) {
+        if (job.getStatus() != TryOnJobStatus.SUCCEEDED || job.getResultImageKey() == null) {
             throw new NotFoundException("Result media not found");
         }
 
-        return new TryOnResultBinary(job.getResultImage(), job.getResultImageMime());
+        final BlobContent original = new BlobContent(
+                job.getResultImageKey(),
+                job.getResultImageMime(),
+                blobStore.open(job.getResultImageKey())
+        );
+        return imageRenditionService.resolve(original, size);
+    }
+
+    private TryOnJobEntity createJob(UUID userId, TryOnAnalyzeCommand command, String fingerprint, Instant startedAt) {
+        final UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        if (user.getCreditsBalance() < 1) {
+            throw new PaymentRequiredException("Not enough credits");
+        }
+
+        final StoredBlob personImage = blobStore.put(command.personImage());
+        final StoredBlob clothingImage = blobStore.put(command.clothingImage());
+
+        final TryOnJobEntity job = new TryOnJobEntity();
+        job.setUser(user);
+        job.setPersonImageKey(personImage.key());
+        job.setPersonImageSize(personImage.sizeBytes());
+        job.setPersonImageMime(command.personImageMime());
+        job.setClothingImageKey(clothingImage.key());
+        job.setClothingImageSize(clothingImage.sizeBytes());
+        job.setClothingImageMime(command.clothingImageMime());
+        job.setClothingName(command.clothingName().trim());
+        job.setClothingSize(command.clothingSize().trim());
+        job.setHeightCm(command.heightCm());
+        job.setWeightKg(command.weightKg());
+        job.setGender(command.gender());
+        job.setAgeYears(command.ageYears());
+        job.setStatus(TryOnJobStatus.PROCESSING);
+        job.setStartedAt(startedAt);
+        job.setCreditsSpent(0);
+        job.setRequestFingerprint(fingerprint);
+        return tryOnJobStateService.open(job);
+    }
+
+    private TryOnAnalyzeResponse toReusedResponse(UUID userId, TryOnJobEntity job) {
+        final UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        final TryOnOutputImage output = new TryOnOutputImage(
+                TryOnOutputId.INPAINT,
+                blobStore.read(job.getResultImageKey()),
+                job.getResultImageMime()
+        );
+
+        return new TryOnAnalyzeResponse(
+                job.getId(),
+                Base64.getEncoder().encodeToString(output.bytes()),
+                output.mimeType(),
+                0,
+                user.getCreditsBalance(),
+                List.of(toResponseOutput(output))
+        );
     }
 
     private void validate(TryOnAnalyzeCommand command) {
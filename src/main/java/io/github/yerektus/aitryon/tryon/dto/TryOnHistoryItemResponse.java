@@ -11,6 +11,7 @@ public record TryOnHistoryItemResponse(
         int creditsSpent,
         Instant createdAt,
         String errorMessage,
-        boolean hasResult
+        boolean hasResult,
+        String thumbnailUrl
 ) {
 }
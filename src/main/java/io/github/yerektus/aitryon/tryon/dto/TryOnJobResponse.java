@@ -0,0 +1,17 @@
+package io.github.yerektus.aitryon.tryon.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TryOnJobResponse(
+        UUID jobId,
+        String status,
+        String clothingName,
+        String clothingSize,
+        int creditsSpent,
+        String errorMessage,
+        boolean hasResult,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
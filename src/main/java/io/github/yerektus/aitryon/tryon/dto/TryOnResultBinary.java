@@ -1,7 +0,0 @@
-package io.github.yerektus.aitryon.tryon.dto;
-
-public record TryOnResultBinary(
-        byte[] bytes,
-        String mimeType
-) {
-}
@@ -0,0 +1,20 @@
+CREATE TABLE social_timeline_entries (
+    owner_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    look_id UUID NOT NULL REFERENCES social_looks(id) ON DELETE CASCADE,
+    author_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (owner_id, look_id)
+);
+
+CREATE INDEX idx_social_timeline_owner_created_look ON social_timeline_entries (owner_id, created_at DESC, look_id DESC);
+CREATE INDEX idx_social_timeline_owner_author ON social_timeline_entries (owner_id, author_id);
+
+INSERT INTO social_timeline_entries (owner_id, look_id, author_id, created_at)
+SELECT l.author_id, l.id, l.author_id, l.created_at
+FROM social_looks l;
+
+INSERT INTO social_timeline_entries (owner_id, look_id, author_id, created_at)
+SELECT f.follower_id, l.id, l.author_id, l.created_at
+FROM social_follows f
+JOIN social_looks l ON l.author_id = f.followee_id
+WHERE l.visibility IN ('PUBLIC', 'FOLLOWERS');
@@ -0,0 +1,6 @@
+CREATE TABLE auth_revocations (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    not_before TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_auth_revocations_not_before ON auth_revocations (not_before);
@@ -0,0 +1,6 @@
+ALTER TABLE try_on_jobs
+    ADD COLUMN request_fingerprint VARCHAR(64);
+
+CREATE INDEX idx_try_on_jobs_user_fingerprint_created
+    ON try_on_jobs (user_id, request_fingerprint, created_at DESC)
+    WHERE request_fingerprint IS NOT NULL;
@@ -0,0 +1,13 @@
+CREATE TABLE credit_holds (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    try_on_job_id UUID NOT NULL REFERENCES try_on_jobs(id) ON DELETE CASCADE,
+    amount INTEGER NOT NULL CHECK (amount > 0),
+    status VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE UNIQUE INDEX uq_credit_holds_try_on_job ON credit_holds (try_on_job_id);
+CREATE INDEX idx_credit_holds_held_expires ON credit_holds (expires_at) WHERE status = 'HELD';
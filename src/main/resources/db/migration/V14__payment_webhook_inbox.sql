@@ -0,0 +1,15 @@
+ALTER TABLE payment_webhook_events
+    ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'PROCESSED',
+    ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    ADD COLUMN last_error VARCHAR(1024),
+    ADD COLUMN received_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+UPDATE payment_webhook_events SET received_at = processed_at;
+
+ALTER TABLE payment_webhook_events
+    ALTER COLUMN status DROP DEFAULT,
+    ALTER COLUMN processed_at DROP NOT NULL,
+    ALTER COLUMN processed_at DROP DEFAULT;
+
+CREATE INDEX idx_payment_webhook_events_pending ON payment_webhook_events (next_attempt_at) WHERE status = 'PENDING';
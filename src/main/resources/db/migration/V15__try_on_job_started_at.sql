@@ -0,0 +1,5 @@
+ALTER TABLE try_on_jobs ADD COLUMN started_at TIMESTAMPTZ;
+
+UPDATE try_on_jobs SET started_at = created_at WHERE status = 'PROCESSING';
+
+CREATE INDEX idx_try_on_jobs_processing_started ON try_on_jobs (started_at) WHERE status = 'PROCESSING';
@@ -0,0 +1,3 @@
+ALTER TABLE social_looks ADD COLUMN fan_out_on_read BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_social_looks_fan_out_on_read_created ON social_looks (created_at DESC, id DESC) WHERE fan_out_on_read;
@@ -0,0 +1,18 @@
+ALTER TABLE try_on_jobs
+    ADD COLUMN person_image_key VARCHAR(64),
+    ADD COLUMN person_image_size BIGINT,
+    ADD COLUMN clothing_image_key VARCHAR(64),
+    ADD COLUMN clothing_image_size BIGINT,
+    ADD COLUMN result_image_key VARCHAR(64),
+    ADD COLUMN result_image_size BIGINT,
+    ALTER COLUMN person_image DROP NOT NULL,
+    ALTER COLUMN clothing_image DROP NOT NULL;
+
+ALTER TABLE social_looks
+    ADD COLUMN image_key VARCHAR(64),
+    ADD COLUMN image_size BIGINT,
+    ALTER COLUMN image_data DROP NOT NULL;
+
+ALTER TABLE social_look_drafts
+    ADD COLUMN image_key VARCHAR(64),
+    ADD COLUMN image_size BIGINT;
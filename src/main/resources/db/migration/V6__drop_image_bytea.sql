@@ -0,0 +1,16 @@
+ALTER TABLE try_on_jobs
+    DROP COLUMN person_image,
+    DROP COLUMN clothing_image,
+    DROP COLUMN result_image,
+    ALTER COLUMN person_image_key SET NOT NULL,
+    ALTER COLUMN person_image_size SET NOT NULL,
+    ALTER COLUMN clothing_image_key SET NOT NULL,
+    ALTER COLUMN clothing_image_size SET NOT NULL;
+
+ALTER TABLE social_looks
+    DROP COLUMN image_data,
+    ALTER COLUMN image_key SET NOT NULL,
+    ALTER COLUMN image_size SET NOT NULL;
+
+ALTER TABLE social_look_drafts
+    DROP COLUMN image_data;
@@ -0,0 +1,10 @@
+CREATE TABLE image_renditions (
+    source_key VARCHAR(64) NOT NULL,
+    variant VARCHAR(16) NOT NULL,
+    blob_key VARCHAR(64) NOT NULL,
+    mime VARCHAR(64) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (source_key, variant),
+    CONSTRAINT chk_image_renditions_variant CHECK (variant IN ('SMALL', 'MEDIUM', 'LARGE'))
+);
@@ -0,0 +1,13 @@
+DROP INDEX IF EXISTS idx_social_looks_created;
+DROP INDEX IF EXISTS idx_social_looks_author_created;
+DROP INDEX IF EXISTS idx_social_follows_followee_created;
+DROP INDEX IF EXISTS idx_social_follows_follower_created;
+DROP INDEX IF EXISTS idx_social_comments_look_parent_created;
+DROP INDEX IF EXISTS idx_social_comments_parent_created;
+
+CREATE INDEX idx_social_looks_visibility_created_id ON social_looks (visibility, created_at DESC, id DESC);
+CREATE INDEX idx_social_looks_author_created_id ON social_looks (author_id, created_at DESC, id DESC);
+CREATE INDEX idx_social_follows_followee_created_follower ON social_follows (followee_id, created_at DESC, follower_id DESC);
+CREATE INDEX idx_social_follows_follower_created_followee ON social_follows (follower_id, created_at DESC, followee_id DESC);
+CREATE INDEX idx_social_comments_look_parent_created_id ON social_comments (look_id, parent_id, created_at DESC, id DESC);
+CREATE INDEX idx_social_comments_parent_created_id ON social_comments (parent_id, created_at DESC, id DESC);
@@ -0,0 +1,17 @@
+ALTER TABLE users
+    ADD COLUMN followers_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN following_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN looks_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE social_looks
+    ADD COLUMN likes_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN comments_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET followers_count = (SELECT COUNT(*) FROM social_follows f WHERE f.followee_id = u.id),
+    following_count = (SELECT COUNT(*) FROM social_follows f WHERE f.follower_id = u.id),
+    looks_count = (SELECT COUNT(*) FROM social_looks l WHERE l.author_id = u.id);
+
+UPDATE social_looks l
+SET likes_count = (SELECT COUNT(*) FROM social_look_likes sl WHERE sl.look_id = l.id),
+    comments_count = (SELECT COUNT(*) FROM social_comments c WHERE c.look_id = l.id);
@@ -0,0 +1,20 @@
+package io.github.yerektus.aitryon;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Real Postgres for tests that exercise native SQL H2 cannot stand in for.
+ * Pair with {@code @ActiveProfiles("postgres")} so Flyway builds the schema.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresContainerConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer postgresContainer() {
+        return new PostgreSQLContainer("postgres:16-alpine");
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.yerektus.aitryon.auth;
+
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.AuthRevocationRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.security.JwtKeyRing;
+import io.github.yerektus.aitryon.security.JwtService;
+import io.github.yerektus.aitryon.security.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class AuthSessionIntegrationTests {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthRevocationRepository authRevocationRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        final String token = "session_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("session");
+        user.setUsername(token);
+        user.setCreditsBalance(0);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        authRevocationRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void revokingSessionsRejectsPreviouslyIssuedAccessTokens() throws Exception {
+        final String accessToken = accessTokenIssuedAt(Instant.now().minusSeconds(5));
+
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()));
+
+        mockMvc.perform(delete("/api/v1/me/sessions").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+
+        tokenRevocationService.refresh();
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void revokedTokensAreRejectedEvenWhenVerificationIsCached() throws Exception {
+        final String accessToken = accessTokenIssuedAt(Instant.now().minusSeconds(5));
+        assertThat(jwtService.parseAndValidate(accessToken)).isSameAs(jwtService.parseAndValidate(accessToken));
+
+        tokenRevocationService.revokeAll(user.getId());
+
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void tokenIssuedInSameSecondAsRevocationIsRejected() throws Exception {
+        final String accessToken = jwtService.createAccessToken(user);
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        tokenRevocationService.revokeAll(user.getId());
+
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void tokensIssuedAfterRevocationSecondAreAccepted() throws Exception {
+        final String accessToken = jwtService.createAccessToken(user);
+        mockMvc.perform(delete("/api/v1/me/sessions").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        final String freshToken = accessTokenIssuedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1));
+
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + freshToken))
+                .andExpect(status().isOk());
+        tokenRevocationService.refresh();
+        mockMvc.perform(get("/api/v1/me").header("Authorization", "Bearer " + freshToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId().toString()));
+    }
+
+    @Test
+    void actuatorExposesOnlyHealth() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components").doesNotExist());
+
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + jwtService.createAccessToken(user)))
+                .andExpect(status().isNotFound());
+    }
+
+    private String accessTokenIssuedAt(Instant issuedAt) {
+        return Jwts.builder()
+                .header().keyId(jwtKeyRing.activeKeyId()).and()
+                .subject(user.getId().toString())
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plus(15, ChronoUnit.MINUTES)))
+                .claims(Map.of("email", user.getEmail(), "type", "access"))
+                .signWith(jwtKeyRing.signingKey())
+                .compact();
+    }
+}
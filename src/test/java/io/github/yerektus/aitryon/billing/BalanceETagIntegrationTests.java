@@ -0,0 +1,103 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.security.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class BalanceETagIntegrationTests {
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "credits_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("credits");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditLedgerRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void balanceEndpointAnswersNotModifiedFromCacheUntilLedgerChanges() throws Exception {
+        final MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        final String authorization = "Bearer " + jwtService.createAccessToken(user);
+
+        final String eTag = mockMvc.perform(get("/api/v1/billing/balance").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creditsBalance").value(1))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/billing/balance")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        creditService.adjustCredits(user.getId(), 2, CreditLedgerReason.PAYMENT_TOPUP, null, null);
+
+        mockMvc.perform(get("/api/v1/billing/balance")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creditsBalance").value(3));
+        mockMvc.perform(get("/api/v1/me").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creditsBalance").value(3));
+    }
+}
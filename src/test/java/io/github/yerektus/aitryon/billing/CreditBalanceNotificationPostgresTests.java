@@ -0,0 +1,67 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.PostgresContainerConfiguration;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Import(PostgresContainerConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CreditBalanceNotificationPostgresTests {
+
+    @Autowired
+    private CreditBalanceCache creditBalanceCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "notify_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("notify");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        userRepository.delete(user);
+    }
+
+    @Test
+    void notificationFromAnotherNodeEvictsCachedBalance() throws Exception {
+        assertThat(creditBalanceCache.get(user.getId())).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE users SET credits_balance = 5 WHERE id = ?", user.getId());
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CreditBalanceCache.NOTIFY_CHANNEL, user.getId().toString());
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (creditBalanceCache.get(user.getId()) != 5 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(creditBalanceCache.get(user.getId())).isEqualTo(5);
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.common.PaymentRequiredException;
+import io.github.yerektus.aitryon.domain.CreditHoldStatus;
+import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.TryOnJobEntity;
+import io.github.yerektus.aitryon.domain.TryOnJobStatus;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.UserGender;
+import io.github.yerektus.aitryon.domain.repo.CreditHoldRepository;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.TryOnJobRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.tryon.TryOnJobStateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CreditHoldIntegrationTests {
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private TryOnJobStateService tryOnJobStateService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TryOnJobRepository tryOnJobRepository;
+
+    @Autowired
+    private CreditHoldRepository creditHoldRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "credits_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("credits");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditHoldRepository.deleteAll();
+        creditLedgerRepository.deleteAll();
+        tryOnJobRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void holdReservesCreditAndBlocksSecondJobUntilReleased() {
+        final TryOnJobEntity first = tryOnJobStateService.open(newJob());
+
+        assertThat(balance()).isZero();
+        assertThatThrownBy(() -> tryOnJobStateService.open(newJob()))
+                .isInstanceOf(PaymentRequiredException.class);
+        assertThat(tryOnJobRepository.findAll()).hasSize(1);
+
+        tryOnJobStateService.markFailed(first.getId(), "OpenAI down");
+
+        assertThat(balance()).isEqualTo(1);
+        assertThat(creditHoldRepository.findByTryOnJob_Id(first.getId()).orElseThrow().getStatus())
+                .isEqualTo(CreditHoldStatus.RELEASED);
+        assertThat(ledgerReasons()).containsExactlyInAnyOrder(
+                CreditLedgerReason.TRY_ON_HOLD,
+                CreditLedgerReason.TRY_ON_HOLD_RELEASE
+        );
+    }
+
+    @Test
+    void captureKeepsHeldCreditAndIgnoresLateRelease() {
+        final TryOnJobEntity job = tryOnJobStateService.open(newJob());
+        creditService.captureHold(tryOnJobRepository.findById(job.getId()).orElseThrow());
+
+        assertThat(creditService.releaseHold(tryOnJobRepository.findById(job.getId()).orElseThrow())).isFalse();
+        assertThat(balance()).isZero();
+        assertThat(creditHoldRepository.findByTryOnJob_Id(job.getId()).orElseThrow().getStatus())
+                .isEqualTo(CreditHoldStatus.CAPTURED);
+        assertThat(ledgerReasons()).containsExactlyInAnyOrder(
+                CreditLedgerReason.TRY_ON_HOLD,
+                CreditLedgerReason.TRY_ON_HOLD_CAPTURE
+        );
+        assertThat(creditLedgerRepository.findAll())
+                .filteredOn(entry -> entry.getReason() == CreditLedgerReason.TRY_ON_HOLD_CAPTURE)
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getDelta()).isZero();
+                    assertThat(entry.getBalanceAfter()).isZero();
+                    assertThat(entry.getTryOnJob().getId()).isEqualTo(job.getId());
+                });
+    }
+
+    @Test
+    void sweeperFailsJobsWhoseHoldExpired() {
+        final TryOnJobEntity job = tryOnJobStateService.open(newJob());
+
+        tryOnJobStateService.releaseExpiredHolds(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        assertThat(balance()).isEqualTo(1);
+        assertThat(tryOnJobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(TryOnJobStatus.FAILED);
+    }
+
+    private TryOnJobEntity newJob() {
+        final TryOnJobEntity job = new TryOnJobEntity();
+        job.setUser(user);
+        job.setPersonImageKey("a".repeat(64));
+        job.setPersonImageSize(1);
+        job.setPersonImageMime("image/jpeg");
+        job.setClothingImageKey("b".repeat(64));
+        job.setClothingImageSize(1);
+        job.setClothingImageMime("image/jpeg");
+        job.setClothingName("Jacket");
+        job.setClothingSize("m");
+        job.setHeightCm(180);
+        job.setWeightKg(75);
+        job.setGender(UserGender.male);
+        job.setAgeYears(30);
+        job.setStatus(TryOnJobStatus.PROCESSING);
+        return job;
+    }
+
+    private int balance() {
+        return userRepository.findCreditsBalance(user.getId()).orElseThrow();
+    }
+
+    private List<CreditLedgerReason> ledgerReasons() {
+        return creditLedgerRepository.findAll().stream()
+                .map(CreditLedgerEntity::getReason)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.common.PaymentRequiredException;
+import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CreditLedgerConcurrencyTests {
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "credits_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("credits");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditLedgerRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void concurrentAdjustmentsKeepLedgerAndBalanceInSync() throws Exception {
+        final int threads = 8;
+        final int operationsPerThread = 50;
+        final int[] deltas = {-1, -2, 1, -1};
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger applied = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                final int offset = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        final int delta = deltas[(offset + i) % deltas.length];
+                        try {
+                            final CreditLedgerReason reason = delta > 0
+                                    ? CreditLedgerReason.PAYMENT_TOPUP
+                                    : CreditLedgerReason.TRY_ON_CHARGE;
+                            creditService.adjustCredits(user.getId(), delta, reason, null, null);
+                            applied.incrementAndGet();
+                        } catch (PaymentRequiredException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<CreditLedgerEntity> ledger = creditLedgerRepository.findAll();
+        assertThat(applied.get() + rejected.get()).isEqualTo(threads * operationsPerThread);
+        assertThat(rejected.get()).isPositive();
+        assertThat(ledger).hasSize(applied.get());
+        assertThat(ledger).allSatisfy(entry -> assertThat(entry.getBalanceAfter()).isNotNegative());
+        assertThat(balance()).isNotNegative();
+        assertThat(balance()).isEqualTo(1 + ledger.stream().mapToInt(CreditLedgerEntity::getDelta).sum());
+    }
+
+    private int balance() {
+        return userRepository.findCreditsBalance(user.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.PostgresContainerConfiguration;
+import io.github.yerektus.aitryon.common.PaymentRequiredException;
+import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.PaymentEntity;
+import io.github.yerektus.aitryon.domain.PaymentPackageEntity;
+import io.github.yerektus.aitryon.domain.PaymentProvider;
+import io.github.yerektus.aitryon.domain.PaymentStatus;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentPackageRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Import(PostgresContainerConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class CreditLedgerWriterPostgresTests {
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentPackageRepository paymentPackageRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "ledger_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("ledger");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditLedgerRepository.deleteAll();
+        paymentRepository.deleteAll();
+        paymentPackageRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void singleStatementWritesLedgerRowsWithAndWithoutReferences() {
+        final PaymentEntity payment = newPayment();
+
+        assertThat(creditService.adjustCredits(user.getId(), 20, CreditLedgerReason.PAYMENT_TOPUP, payment, null))
+                .isEqualTo(21);
+        assertThat(creditService.adjustCredits(user.getId(), -1, CreditLedgerReason.TRY_ON_CHARGE, null, null))
+                .isEqualTo(20);
+
+        final List<CreditLedgerEntity> ledger = creditLedgerRepository.findAll();
+        assertThat(ledger).hasSize(2);
+        assertThat(ledger)
+                .filteredOn(entry -> entry.getReason() == CreditLedgerReason.PAYMENT_TOPUP)
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getBalanceAfter()).isEqualTo(21);
+                    assertThat(entry.getPayment().getId()).isEqualTo(payment.getId());
+                });
+        assertThat(ledger)
+                .filteredOn(entry -> entry.getReason() == CreditLedgerReason.TRY_ON_CHARGE)
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getBalanceAfter()).isEqualTo(20);
+                    assertThat(entry.getPayment()).isNull();
+                    assertThat(entry.getTryOnJob()).isNull();
+                });
+    }
+
+    @Test
+    void singleStatementRejectsOverdraftWithoutLedgerRow() {
+        assertThatThrownBy(() -> creditService.adjustCredits(user.getId(), -2, CreditLedgerReason.TRY_ON_CHARGE, null, null))
+                .isInstanceOf(PaymentRequiredException.class);
+
+        assertThat(creditLedgerRepository.findAll()).isEmpty();
+        assertThat(userRepository.findCreditsBalance(user.getId()).orElseThrow()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAdjustmentsKeepLedgerAndBalanceInSync() throws Exception {
+        final int threads = 8;
+        final int operationsPerThread = 25;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                final int delta = thread % 2 == 0 ? -1 : 1;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        try {
+                            creditService.adjustCredits(user.getId(), delta, CreditLedgerReason.TRY_ON_CHARGE, null, null);
+                        } catch (PaymentRequiredException ignored) {
+                            // Overdrafts are expected to be rejected under contention.
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        final List<CreditLedgerEntity> ledger = creditLedgerRepository.findAll();
+        assertThat(ledger).allSatisfy(entry -> assertThat(entry.getBalanceAfter()).isNotNegative());
+        assertThat(userRepository.findCreditsBalance(user.getId()).orElseThrow())
+                .isEqualTo(1 + ledger.stream().mapToInt(CreditLedgerEntity::getDelta).sum());
+    }
+
+    private PaymentEntity newPayment() {
+        final PaymentPackageEntity paymentPackage = new PaymentPackageEntity();
+        paymentPackage.setCode("CREDITS_PG_" + UUID.randomUUID().toString().substring(0, 8));
+        paymentPackage.setTitle("20 credits");
+        paymentPackage.setCredits(20);
+        paymentPackage.setAmountMinor(499000);
+        paymentPackage.setCurrency("KZT");
+        final PaymentEntity payment = new PaymentEntity();
+        payment.setUser(user);
+        payment.setPaymentPackage(paymentPackageRepository.save(paymentPackage));
+        payment.setProvider(PaymentProvider.STRIPE);
+        payment.setProviderInvoiceId("cs_test_" + UUID.randomUUID());
+        payment.setAmountMinor(499000);
+        payment.setCurrency("KZT");
+        payment.setStatus(PaymentStatus.PENDING);
+        return paymentRepository.save(payment);
+    }
+}
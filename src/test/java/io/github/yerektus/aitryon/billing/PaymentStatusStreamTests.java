@@ -0,0 +1,221 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.domain.PaymentEntity;
+import io.github.yerektus.aitryon.domain.PaymentPackageEntity;
+import io.github.yerektus.aitryon.domain.PaymentProvider;
+import io.github.yerektus.aitryon.domain.PaymentStatus;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentPackageRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class PaymentStatusStreamTests {
+
+    @MockitoBean
+    private StripeClient stripeClient;
+
+    @Autowired
+    private PaymentSettlementService paymentSettlementService;
+
+    @Autowired
+    private PaymentStatusReconciler paymentStatusReconciler;
+
+    @Autowired
+    private PaymentStatusEvents paymentStatusEvents;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentPackageRepository paymentPackageRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private MockMvc mockMvc;
+    private UserEntity user;
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        final String token = "payments_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("payments");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+        authorization = "Bearer " + jwtService.createAccessToken(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditLedgerRepository.deleteAll();
+        paymentRepository.deleteAll();
+        paymentPackageRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void paymentStatusStreamPushesSettlementToSubscribers() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        when(stripeClient.getCheckoutSessionStatus(anyString()))
+                .thenReturn(new StripeStatusResult(payment.getProviderInvoiceId(), PaymentStatus.PENDING, "{}"));
+
+        final MvcResult stream = mockMvc.perform(get("/api/v1/billing/payments/{paymentId}/events", payment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(stream.getResponse().getContentAsString()).contains("\"status\":\"PENDING\"");
+
+        paymentSettlementService.applyProviderStatus(payment.getId(), PaymentStatus.PAID, "{}");
+
+        assertThat(stream.getResponse().getContentAsString()).contains("\"status\":\"PAID\"");
+        assertThat(userRepository.findCreditsBalance(user.getId()).orElseThrow()).isEqualTo(21);
+    }
+
+    @Test
+    void reconcilerPushesSettlementAppliedByAnotherNode() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        when(stripeClient.getCheckoutSessionStatus(payment.getProviderInvoiceId())).thenAnswer(invocation -> {
+            // Another node settles the payment while this one is polling Stripe; its push never reaches this node.
+            final long subscribedBy = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!paymentStatusEvents.isSubscribed(payment.getId()) && System.nanoTime() < subscribedBy) {
+                Thread.sleep(10);
+            }
+            final PaymentEntity settled = paymentRepository.findById(payment.getId()).orElseThrow();
+            settled.setStatus(PaymentStatus.PAID);
+            settled.setPaidAt(Instant.now());
+            paymentRepository.save(settled);
+            return new StripeStatusResult(payment.getProviderInvoiceId(), PaymentStatus.PENDING, "{}");
+        });
+
+        final MvcResult stream = mockMvc.perform(get("/api/v1/billing/payments/{paymentId}/events", payment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!stream.getResponse().getContentAsString().contains("\"status\":\"PAID\"")
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(stream.getResponse().getContentAsString()).contains("\"status\":\"PAID\"");
+    }
+
+    @Test
+    void concurrentPollsAndOpenStreamsReconcileOncePerInterval() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        when(stripeClient.getCheckoutSessionStatus(payment.getProviderInvoiceId()))
+                .thenReturn(new StripeStatusResult(payment.getProviderInvoiceId(), PaymentStatus.PENDING, "{}"));
+
+        mockMvc.perform(get("/api/v1/billing/payments/{paymentId}/events", payment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(request().asyncStarted());
+
+        final int polls = 16;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(polls)) {
+            for (int i = 0; i < polls; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    mockMvc.perform(get("/api/v1/billing/payments/{paymentId}", payment.getId())
+                                    .header(HttpHeaders.AUTHORIZATION, authorization))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.status").value("PENDING"));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        paymentStatusReconciler.reconcileSubscribed();
+        paymentStatusReconciler.reconcileSubscribed();
+
+        verify(stripeClient, timeout(5_000)).getCheckoutSessionStatus(payment.getProviderInvoiceId());
+        verify(stripeClient, after(500)).getCheckoutSessionStatus(payment.getProviderInvoiceId());
+    }
+
+    @Test
+    void terminalPaymentsAreNotReconciled() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        paymentSettlementService.applyProviderStatus(payment.getId(), PaymentStatus.PAID, "{}");
+
+        mockMvc.perform(get("/api/v1/billing/payments/{paymentId}", payment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAID"));
+
+        verify(stripeClient, after(500).never()).getCheckoutSessionStatus(anyString());
+    }
+
+    private PaymentEntity newPendingPayment() {
+        final PaymentPackageEntity paymentPackage = new PaymentPackageEntity();
+        paymentPackage.setCode("CREDITS_TEST_" + UUID.randomUUID().toString().substring(0, 8));
+        paymentPackage.setTitle("20 credits");
+        paymentPackage.setCredits(20);
+        paymentPackage.setAmountMinor(499000);
+        paymentPackage.setCurrency("KZT");
+        final PaymentEntity payment = new PaymentEntity();
+        payment.setUser(user);
+        payment.setPaymentPackage(paymentPackageRepository.save(paymentPackage));
+        payment.setProvider(PaymentProvider.STRIPE);
+        payment.setProviderInvoiceId("cs_test_" + UUID.randomUUID());
+        payment.setAmountMinor(499000);
+        payment.setCurrency("KZT");
+        payment.setStatus(PaymentStatus.PENDING);
+        return paymentRepository.save(payment);
+    }
+}
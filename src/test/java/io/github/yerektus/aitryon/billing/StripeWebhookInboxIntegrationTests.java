@@ -0,0 +1,222 @@
+package io.github.yerektus.aitryon.billing;
+
+import io.github.yerektus.aitryon.domain.CreditLedgerEntity;
+import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.domain.PaymentEntity;
+import io.github.yerektus.aitryon.domain.PaymentPackageEntity;
+import io.github.yerektus.aitryon.domain.PaymentProvider;
+import io.github.yerektus.aitryon.domain.PaymentStatus;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventEntity;
+import io.github.yerektus.aitryon.domain.PaymentWebhookEventStatus;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.CreditLedgerRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentPackageRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentRepository;
+import io.github.yerektus.aitryon.domain.repo.PaymentWebhookEventRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StripeWebhookInboxIntegrationTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Autowired
+    private PaymentPackageRepository paymentPackageRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentWebhookEventRepository webhookEventRepository;
+
+    @Autowired
+    private StripeWebhookInbox stripeWebhookInbox;
+
+    @Autowired
+    private StripeWebhookWorker stripeWebhookWorker;
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "credits_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("credits");
+        user.setUsername(token);
+        user.setCreditsBalance(1);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        creditLedgerRepository.deleteAll();
+        webhookEventRepository.deleteAll();
+        paymentRepository.deleteAll();
+        paymentPackageRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void stripeWebhookIsAcknowledgedOnceAndSettledByInboxWorker() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        final UUID paymentId = payment.getId();
+
+        final String body = """
+                {"id":"evt_%s","type":"checkout.session.completed","data":{"object":{"id":"%s","status":"complete","payment_status":"paid"}}}
+                """.formatted(UUID.randomUUID(), payment.getProviderInvoiceId()).trim();
+        final long timestamp = Instant.now().getEpochSecond();
+        final String signature = "t=" + timestamp + ",v1=" + hmacSha256("test-webhook-secret", timestamp + "." + body);
+        final MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/webhooks/stripe")
+                            .header("Stripe-Signature", signature)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/v1/webhooks/stripe")
+                        .header("Stripe-Signature", "t=" + timestamp + ",v1=deadbeef")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (paymentRepository.findById(paymentId).orElseThrow().getStatus() != PaymentStatus.PAID
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(paymentRepository.findById(paymentId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(balance()).isEqualTo(21);
+        assertThat(ledgerReasons()).containsExactly(CreditLedgerReason.PAYMENT_TOPUP);
+        final List<PaymentWebhookEventEntity> events = webhookEventRepository.findAll();
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().getStatus()).isEqualTo(PaymentWebhookEventStatus.PROCESSED);
+        assertThat(events.getFirst().getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void malformedWebhookPayloadFailsOnFirstAttempt() throws Exception {
+        final String providerEventId = "evt_" + UUID.randomUUID();
+        assertThat(stripeWebhookInbox.enqueue(providerEventId, "{\"id\":")).isTrue();
+
+        stripeWebhookWorker.wakeUp();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (webhookEventRepository.findAll().getFirst().getStatus() == PaymentWebhookEventStatus.PENDING
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        final PaymentWebhookEventEntity event = webhookEventRepository.findAll().getFirst();
+        assertThat(event.getStatus()).isEqualTo(PaymentWebhookEventStatus.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).contains("not valid JSON");
+    }
+
+    @Test
+    void webhookEventReclaimedAfterLeaseExpiryIsAppliedOnce() throws Exception {
+        final PaymentEntity payment = newPendingPayment();
+        final String body = """
+                {"id":"evt_%s","type":"checkout.session.completed","data":{"object":{"id":"%s","status":"complete","payment_status":"paid"}}}
+                """.formatted(UUID.randomUUID(), payment.getProviderInvoiceId()).trim();
+        stripeWebhookInbox.enqueue("evt_" + UUID.randomUUID(), body);
+        final UUID eventId = webhookEventRepository.findAll().getFirst().getId();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    billingService.processStripeWebhookEvent(eventId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        assertThat(webhookEventRepository.findById(eventId).orElseThrow().getStatus())
+                .isEqualTo(PaymentWebhookEventStatus.PROCESSED);
+        assertThat(ledgerReasons()).containsExactly(CreditLedgerReason.PAYMENT_TOPUP);
+        assertThat(balance()).isEqualTo(21);
+    }
+
+    private PaymentEntity newPendingPayment() {
+        final PaymentPackageEntity paymentPackage = new PaymentPackageEntity();
+        paymentPackage.setCode("CREDITS_TEST_" + UUID.randomUUID().toString().substring(0, 8));
+        paymentPackage.setTitle("20 credits");
+        paymentPackage.setCredits(20);
+        paymentPackage.setAmountMinor(499000);
+        paymentPackage.setCurrency("KZT");
+        final PaymentEntity payment = new PaymentEntity();
+        payment.setUser(user);
+        payment.setPaymentPackage(paymentPackageRepository.save(paymentPackage));
+        payment.setProvider(PaymentProvider.STRIPE);
+        payment.setProviderInvoiceId("cs_test_" + UUID.randomUUID());
+        payment.setAmountMinor(499000);
+        payment.setCurrency("KZT");
+        payment.setStatus(PaymentStatus.PENDING);
+        return paymentRepository.save(payment);
+    }
+
+    private int balance() {
+        return userRepository.findCreditsBalance(user.getId()).orElseThrow();
+    }
+
+    private List<CreditLedgerReason> ledgerReasons() {
+        return creditLedgerRepository.findAll().stream()
+                .map(CreditLedgerEntity::getReason)
+                .toList();
+    }
+
+    private String hmacSha256(String secret, String payload) throws Exception {
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.config.JwtProperties;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+    private static final String SECRET = "this-is-a-test-secret-at-least-32-characters-long";
+
+    @Test
+    void asymmetricTokensCarryKeyIdAndVerifyAgainstPublishedKey() {
+        final JwtKeyRing keyRing = keyRing(properties("ES256"));
+        final JwtService jwtService = jwtService("ES256", keyRing);
+        final UserEntity user = user();
+
+        final Claims claims = jwtService.parseAndValidate(jwtService.createAccessToken(user));
+
+        assertThat(jwtService.userIdFromClaims(claims)).isEqualTo(user.getId());
+        final List<?> keys = (List<?>) keyRing.jwks().get("keys");
+        assertThat(keys).hasSize(1);
+        final Map<?, ?> jwk = (Map<?, ?>) keys.getFirst();
+        assertThat(jwk.get("kid")).isEqualTo(keyRing.activeKeyId());
+        assertThat(jwk.get("alg")).isEqualTo("ES256");
+        assertThat(jwk.get("use")).isEqualTo("sig");
+        assertThat(jwk.containsKey("d")).isFalse();
+    }
+
+    @Test
+    void hmacTokensStayValidUntilLegacyCutoff() {
+        final JwtService hmacService = jwtService("HS256", keyRing(properties("HS256")));
+        final JwtProperties ecProperties = properties("ES256");
+        ecProperties.setLegacyHmacAcceptedUntil(Instant.now().plus(1, ChronoUnit.HOURS).toString());
+        final JwtService ecService = jwtService("ES256", keyRing(ecProperties));
+        final UserEntity user = user();
+
+        final String legacyToken = hmacService.createAccessToken(user);
+
+        assertThat(ecService.userIdFromClaims(ecService.parseAndValidate(legacyToken))).isEqualTo(user.getId());
+    }
+
+    @Test
+    void tokensWithoutKeyIdAreRejectedOnceAsymmetricSigningIsActive() {
+        final JwtService hmacService = jwtService("HS256", keyRing(properties("HS256")));
+        final JwtProperties expired = properties("ES256");
+        expired.setLegacyHmacAcceptedUntil(Instant.now().minus(1, ChronoUnit.MINUTES).toString());
+
+        final String legacyToken = hmacService.createAccessToken(user());
+
+        assertThatThrownBy(() -> jwtService("ES256", keyRing(properties("ES256"))).parseAndValidate(legacyToken))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService("ES256", keyRing(expired)).parseAndValidate(legacyToken))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void asymmetricSigningWithoutConfiguredKeysFailsOutsideDevAndTest() {
+        final MockEnvironment production = new MockEnvironment();
+        production.setActiveProfiles("prod");
+
+        assertThatThrownBy(() -> new JwtKeyRing(properties("ES256"), production))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("signing-keys");
+    }
+
+    @Test
+    void tokensSignedByUnknownKeyAreRejected() {
+        final JwtService issuer = jwtService("ES256", keyRing(properties("ES256")));
+        final JwtService verifier = jwtService("ES256", keyRing(properties("ES256")));
+
+        final String token = issuer.createAccessToken(user());
+
+        assertThatThrownBy(() -> verifier.parseAndValidate(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void cachedTokensSkipSignatureVerification() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final JwtService jwtService = jwtService("ES256", keyRing(properties("ES256")), meterRegistry);
+        final String token = jwtService.createAccessToken(user());
+
+        final Claims first = jwtService.parseAndValidate(token);
+        final Claims second = jwtService.parseAndValidate(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(cacheGets(meterRegistry, "miss")).isEqualTo(1);
+        assertThat(cacheGets(meterRegistry, "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokensExpireAtTheirExpClaim() throws InterruptedException {
+        final JwtKeyRing keyRing = keyRing(properties("ES256"));
+        final JwtService jwtService = jwtService("ES256", keyRing);
+        final Instant expiresAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(2);
+        final String token = signedToken(keyRing, expiresAt);
+
+        assertThat(jwtService.parseAndValidate(token).getExpiration().toInstant()).isEqualTo(expiresAt);
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 100);
+
+        assertThatThrownBy(() -> jwtService.parseAndValidate(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tamperedSignatureMissesCacheOfOriginalToken() {
+        final JwtService jwtService = jwtService("ES256", keyRing(properties("ES256")));
+        final String token = jwtService.createAccessToken(user());
+        jwtService.parseAndValidate(token);
+
+        final int index = token.lastIndexOf('.') + 10;
+        final char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        final String tampered = token.substring(0, index) + replacement + token.substring(index + 1);
+
+        assertThatThrownBy(() -> jwtService.parseAndValidate(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtService.parseAndValidate(token).getSubject()).isNotNull();
+    }
+
+    private static JwtService jwtService(String algorithm, JwtKeyRing keyRing) {
+        return jwtService(algorithm, keyRing, new SimpleMeterRegistry());
+    }
+
+    private static JwtService jwtService(String algorithm, JwtKeyRing keyRing, SimpleMeterRegistry meterRegistry) {
+        return new JwtService(properties(algorithm), keyRing, new TokenHashService(), meterRegistry);
+    }
+
+    private static double cacheGets(SimpleMeterRegistry meterRegistry, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static String signedToken(JwtKeyRing keyRing, Instant expiresAt) {
+        return Jwts.builder()
+                .header().keyId(keyRing.activeKeyId()).and()
+                .subject(UUID.randomUUID().toString())
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(keyRing.signingKey())
+                .compact();
+    }
+
+    private static JwtKeyRing keyRing(JwtProperties properties) {
+        final MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("test");
+        return new JwtKeyRing(properties, environment);
+    }
+
+    private static JwtProperties properties(String algorithm) {
+        final JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setAlgorithm(algorithm);
+        return properties;
+    }
+
+    private static UserEntity user() {
+        final UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail("jwt@example.com");
+        return user;
+    }
+}
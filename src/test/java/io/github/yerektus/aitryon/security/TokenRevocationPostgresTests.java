@@ -0,0 +1,117 @@
+package io.github.yerektus.aitryon.security;
+
+import io.github.yerektus.aitryon.PostgresContainerConfiguration;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.AuthRevocationRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Import(PostgresContainerConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TokenRevocationPostgresTests {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private AuthRevocationRepository authRevocationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        final String token = "revoke_" + UUID.randomUUID().toString().substring(0, 8);
+        user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName("revoke");
+        user.setUsername(token);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanup() {
+        authRevocationRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void revokeAllCreatesThenRaisesNotBefore() {
+        tokenRevocationService.revokeAll(user.getId());
+        final Instant first = authRevocationRepository.findById(user.getId()).orElseThrow().getNotBefore();
+
+        tokenRevocationService.revokeAll(user.getId());
+
+        assertThat(authRevocationRepository.findById(user.getId()).orElseThrow().getNotBefore())
+                .isAfterOrEqualTo(first);
+        assertThat(tokenRevocationService.isRevoked(user.getId(), first)).isTrue();
+    }
+
+    @Test
+    void earlierNotBeforeNeverLowersStoredValue() {
+        final Instant later = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(60);
+        final Instant earlier = later.minusSeconds(120);
+
+        write(later);
+        write(earlier);
+
+        assertThat(authRevocationRepository.findById(user.getId()).orElseThrow().getNotBefore()).isEqualTo(later);
+    }
+
+    @Test
+    void concurrentRevokesForOneUserDoNotCollide() throws Exception {
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    tokenRevocationService.revokeAll(user.getId());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(authRevocationRepository.findById(user.getId())).isPresent();
+    }
+
+    private void write(Instant notBefore) {
+        transactionTemplate.executeWithoutResult(status -> {
+            authRevocationRepository.insertIfAbsent(user.getId(), notBefore);
+            authRevocationRepository.raiseNotBefore(user.getId(), notBefore);
+        });
+    }
+}
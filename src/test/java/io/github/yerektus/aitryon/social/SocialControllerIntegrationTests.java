@@ -2,23 +2,33 @@ package io.github.yerektus.aitryon.social;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.yerektus.aitryon.domain.ImageRenditionId;
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
 import io.github.yerektus.aitryon.domain.SocialCommentEntity;
 import io.github.yerektus.aitryon.domain.SocialFollowEntity;
 import io.github.yerektus.aitryon.domain.SocialFollowId;
 import io.github.yerektus.aitryon.domain.SocialLookEntity;
 import io.github.yerektus.aitryon.domain.SocialLookVisibility;
 import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.ImageRenditionRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialCommentRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialFollowRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookDraftRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookLikeRepository;
 import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
+import io.github.yerektus.aitryon.domain.repo.SocialTimelineEntryRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
+import io.github.yerektus.aitryon.storage.BlobStore;
+import io.github.yerektus.aitryon.storage.StoredBlob;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,14 +37,25 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.WebApplicationContext;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -42,6 +63,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -74,18 +97,41 @@ class SocialControllerIntegrationTests {
     @Autowired
     private SocialLookDraftRepository socialLookDraftRepository;
 
+    @Autowired
+    private ImageRenditionRepository imageRenditionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SocialCounterReconciler socialCounterReconciler;
+
+    @Autowired
+    private SocialTimelineEntryRepository socialTimelineEntryRepository;
+
+    @Autowired
+    private SocialTimelineService socialTimelineService;
+
+    @Autowired
+    private BlobStore blobStore;
+
     @BeforeEach
     void cleanup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
                 .apply(springSecurity())
                 .build();
 
+        socialTimelineEntryRepository.deleteAll();
         socialLookLikeRepository.deleteAll();
         socialCommentRepository.deleteAll();
         socialLookRepository.deleteAll();
         socialFollowRepository.deleteAll();
         socialLookDraftRepository.deleteAll();
         userRepository.deleteAll();
+        imageRenditionRepository.deleteAll();
     }
 
     @Test
@@ -133,6 +179,64 @@ class SocialControllerIntegrationTests {
                 .andExpect(jsonPath("$.followersCount").value(0));
     }
 
+    @Test
+    void socialCountersFollowMutationsAndReconcileFixesDrift() throws Exception {
+        final UserEntity author = createUser("author_cnt");
+        final UserEntity viewer = createUser("viewer_cnt");
+
+        mockMvc.perform(post("/api/v1/social/follows/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.PUBLIC, "Counted");
+        transactionTemplate.executeWithoutResult(status -> userRepository.adjustLooksCount(author.getId(), 1));
+        mockMvc.perform(post("/api/v1/social/looks/{lookId}/likes", look.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(1));
+
+        final MvcResult parent = mockMvc.perform(post("/api/v1/social/looks/{lookId}/comments", look.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"body\":\"Parent\",\"parentId\":null}")
+                        .with(auth(viewer)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        final String parentId = json(parent).path("id").asText();
+        mockMvc.perform(post("/api/v1/social/looks/{lookId}/comments", look.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"body\":\"Reply\",\"parentId\":\"" + parentId + "\"}")
+                        .with(auth(author)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", look.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentsCount").value(2));
+
+        mockMvc.perform(delete("/api/v1/social/comments/{commentId}", parentId).with(auth(viewer)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", look.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentsCount").value(0));
+
+        mockMvc.perform(get("/api/v1/social/profiles/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.followersCount").value(1))
+                .andExpect(jsonPath("$.followingCount").value(0))
+                .andExpect(jsonPath("$.looksCount").value(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.adjustFollowersCount(author.getId(), 5);
+            socialLookRepository.adjustLikesCount(look.getId(), -1);
+        });
+
+        socialCounterReconciler.reconcile();
+
+        mockMvc.perform(get("/api/v1/social/profiles/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.followersCount").value(1));
+        mockMvc.perform(get("/api/v1/social/looks/{id}", look.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(1));
+    }
+
     @Test
     void patchProfileUpdatesDisplayNameBioAndAvatar() throws Exception {
         final UserEntity me = createUser("patch_me");
@@ -184,6 +288,88 @@ class SocialControllerIntegrationTests {
                 .andExpect(jsonPath("$.items[0].title").value("Urban fit"));
     }
 
+    @Test
+    void lookImageSupportsConditionalAndRangeRequests() throws Exception {
+        final UserEntity author = createUser("author_img");
+        final UserEntity stranger = createUser("stranger_img");
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.PUBLIC, "Image");
+        final SocialLookEntity privateLook = createLook(author, SocialLookVisibility.PRIVATE, "Hidden");
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", look.getId()).with(auth(stranger)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrl").value("/api/v1/social/looks/" + look.getId() + "/image"))
+                .andExpect(jsonPath("$.thumbnailUrl").value("/api/v1/social/looks/" + look.getId() + "/image?size=512"));
+
+        final MvcResult imageResult = mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId()).with(auth(stranger)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + look.getImageKey() + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("private")))
+                .andExpect(content().bytes("img-Image".getBytes(StandardCharsets.UTF_8)))
+                .andReturn();
+
+        final String etag = imageResult.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(auth(stranger)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .header(HttpHeaders.RANGE, "bytes=0-2")
+                        .with(auth(stranger)))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("img".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", privateLook.getId()).with(auth(stranger)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void lookImageServesDownscaledRenditions() throws Exception {
+        final UserEntity author = createUser("author_rend");
+        final UserEntity viewer = createUser("viewer_rend");
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.PUBLIC, "Rendition");
+        final StoredBlob original = blobStore.put(png(1600, 800));
+        look.setImageKey(original.key());
+        look.setImageSize(original.sizeBytes());
+        look.setImageMime("image/png");
+        socialLookRepository.save(look);
+
+        final MvcResult small = mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .param("size", "128")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andReturn();
+
+        final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(small.getResponse().getContentAsByteArray()));
+        assertThat(decoded.getWidth()).isEqualTo(128);
+        assertThat(decoded.getHeight()).isEqualTo(64);
+        assertThat(imageRenditionRepository.findById(new ImageRenditionId(original.key(), ImageRenditionSize.SMALL)))
+                .isPresent();
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .param("size", "small")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, small.getResponse().getHeader(HttpHeaders.ETAG)));
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .param("size", "1024")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + imageRenditionRepository
+                        .findById(new ImageRenditionId(original.key(), ImageRenditionSize.LARGE))
+                        .orElseThrow()
+                        .getBlobKey() + "\""));
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}/image", look.getId())
+                        .param("size", "2048")
+                        .with(auth(viewer)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void visibilityRulesAppliedForListAndFetch() throws Exception {
         final UserEntity author = createUser("author_v");
@@ -223,6 +409,34 @@ class SocialControllerIntegrationTests {
                 .andExpect(jsonPath("$.id").value(followersLook.getId().toString()));
     }
 
+    @Test
+    void cachedFollowEdgesAreInvalidatedByFollowAndUnfollow() throws Exception {
+        final UserEntity author = createUser("author_c");
+        final UserEntity viewer = createUser("viewer_c");
+        final SocialLookEntity followersLook = createLook(author, SocialLookVisibility.FOLLOWERS, "Followers");
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", followersLook.getId()).with(auth(viewer)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/v1/social/follows/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", followersLook.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/social/profiles/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isFollowing").value(true));
+
+        mockMvc.perform(delete("/api/v1/social/follows/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/social/looks/{id}", followersLook.getId()).with(auth(viewer)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/social/profiles/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isFollowing").value(false));
+    }
+
     @Test
     void publishedLooksEndpointReturnsOnlyPublicLooksWithCursorPagination() throws Exception {
         final UserEntity authorA = createUser("author_a");
@@ -271,6 +485,262 @@ class SocialControllerIntegrationTests {
                 .andExpect(jsonPath("$.hasMore").value(false));
     }
 
+    @Test
+    void publishedLooksCursorIsStableAcrossInsertsAndAcceptsLegacyPageCursor() throws Exception {
+        final UserEntity author = createUser("author_seek");
+        final UserEntity viewer = createUser("viewer_seek");
+
+        final Instant now = Instant.now();
+        final SocialLookEntity oldest = createLookAt(author, "Oldest", now.minusSeconds(300));
+        final SocialLookEntity middle = createLookAt(author, "Middle", now.minusSeconds(200));
+        final SocialLookEntity newest = createLookAt(author, "Newest", now.minusSeconds(100));
+
+        final MvcResult firstPage = mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(newest.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(middle.getId().toString()))
+                .andReturn();
+
+        createLook(author, SocialLookVisibility.PUBLIC, "Inserted");
+
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "2")
+                        .param("cursor", json(firstPage).path("nextCursor").asText())
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(oldest.getId().toString()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        final String legacyCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("p:1".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "2")
+                        .param("cursor", legacyCursor)
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(middle.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(oldest.getId().toString()));
+
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("cursor", "not-a-cursor")
+                        .with(auth(viewer)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listEndpointsFetchEachPageWithSingleQuery() throws Exception {
+        final UserEntity author = createUser("author_q");
+        final UserEntity viewer = createUser("viewer_q");
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.PUBLIC, "Query 1");
+        createLook(author, SocialLookVisibility.PUBLIC, "Query 2");
+        createLook(author, SocialLookVisibility.PUBLIC, "Query 3");
+        follow(viewer, author);
+        follow(createUser("follower_q"), author);
+        follow(createUser("follower_q"), author);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/social/looks/{lookId}/comments", look.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"body\":\"Comment " + i + "\",\"parentId\":null}")
+                            .with(auth(viewer)))
+                    .andExpect(status().isCreated());
+        }
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true));
+        mockMvc.perform(get("/api/v1/social/profiles/{id}/looks", author.getId())
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(true));
+        assertThat(pageQueryExecutions(statistics, "SocialLookEntity")).isEqualTo(2);
+
+        mockMvc.perform(get("/api/v1/social/profiles/{id}/followers", author.getId())
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(true));
+        assertThat(pageQueryExecutions(statistics, "SocialFollowEntity")).isEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/social/looks/{lookId}/comments", look.getId())
+                        .param("limit", "3")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        assertThat(pageQueryExecutions(statistics, "SocialCommentEntity")).isEqualTo(1);
+    }
+
+    @Test
+    void followerListLoadsViewerFollowStateWithSingleQuery() throws Exception {
+        final UserEntity author = createUser("author_fs");
+        final UserEntity viewer = createUser("viewer_fs");
+        final List<UserEntity> followers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final UserEntity follower = createUser("follower_fs");
+            follow(follower, author);
+            followers.add(follower);
+        }
+        follow(viewer, followers.get(1));
+        follow(viewer, followers.get(3));
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/social/profiles/{id}/followers", author.getId())
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        final long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/social/profiles/{id}/followers", author.getId())
+                        .param("limit", "6")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(6))
+                .andExpect(jsonPath("$.items[?(@.id == '%s')].isFollowing", followers.get(1).getId()).value(true))
+                .andExpect(jsonPath("$.items[?(@.id == '%s')].isFollowing", followers.get(3).getId()).value(true))
+                .andExpect(jsonPath("$.items[?(@.id == '%s')].isFollowing", followers.get(0).getId()).value(false));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    void lookFeedQueryCountDoesNotGrowWithPageSize() throws Exception {
+        final UserEntity viewer = createUser("viewer_n1");
+        for (int i = 0; i < 6; i++) {
+            final SocialLookEntity look = createLook(createUser("author_n1"), SocialLookVisibility.PUBLIC, "N1 " + i);
+            mockMvc.perform(post("/api/v1/social/looks/{lookId}/likes", look.getId()).with(auth(viewer)))
+                    .andExpect(status().isOk());
+        }
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "2")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].likesCount").value(1))
+                .andExpect(jsonPath("$.items[0].isLikedByMe").value(true));
+        final long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/social/looks")
+                        .param("limit", "6")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(6));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    void homeFeedMergesFannedOutAndPulledLooksOfFollowedAuthors() throws Exception {
+        final UserEntity author = createUser("author_feed");
+        final UserEntity celebrity = createUser("celebrity_feed");
+        final UserEntity viewer = createUser("viewer_feed");
+        final Instant now = Instant.now();
+
+        final SocialLookEntity backfilled = publishLook(author, SocialLookVisibility.FOLLOWERS, "Backfilled", now.minusSeconds(500));
+        mockMvc.perform(post("/api/v1/social/follows/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.adjustFollowersCount(celebrity.getId(), 20_000));
+        mockMvc.perform(post("/api/v1/social/follows/{id}", celebrity.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+
+        final SocialLookEntity fannedOut = publishLook(author, SocialLookVisibility.PUBLIC, "Fanned out", now.minusSeconds(300));
+        publishLook(author, SocialLookVisibility.PRIVATE, "Private", now.minusSeconds(250));
+        final SocialLookEntity olderPulled = publishLook(celebrity, SocialLookVisibility.FOLLOWERS, "Pulled 1", now.minusSeconds(400));
+        final SocialLookEntity newerPulled = publishLook(celebrity, SocialLookVisibility.PUBLIC, "Pulled 2", now.minusSeconds(200));
+
+        assertThat(socialTimelineEntryRepository.findAll())
+                .noneMatch(entry -> entry.getId().getOwnerId().equals(viewer.getId())
+                        && entry.getAuthor().getId().equals(celebrity.getId()));
+
+        final MvcResult firstPage = mockMvc.perform(get("/api/v1/social/feed")
+                        .param("limit", "3")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].id").value(newerPulled.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(fannedOut.getId().toString()))
+                .andExpect(jsonPath("$.items[2].id").value(olderPulled.getId().toString()))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/social/feed")
+                        .param("limit", "3")
+                        .param("cursor", json(firstPage).path("nextCursor").asText())
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(backfilled.getId().toString()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(delete("/api/v1/social/follows/{id}", author.getId()).with(auth(viewer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/social/feed")
+                        .param("limit", "10")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(newerPulled.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(olderPulled.getId().toString()));
+    }
+
+    @Test
+    void homeFeedRechecksVisibilityAndKeepsPulledLooksAfterThresholdDrops() throws Exception {
+        final UserEntity author = createUser("author_recheck");
+        final UserEntity celebrity = createUser("celebrity_recheck");
+        final UserEntity viewer = createUser("viewer_recheck");
+        final Instant now = Instant.now();
+        follow(viewer, author);
+        follow(viewer, celebrity);
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.adjustFollowersCount(celebrity.getId(), 20_000));
+        final SocialLookEntity pulled = publishLook(celebrity, SocialLookVisibility.PUBLIC, "Pulled", now.minusSeconds(300));
+        transactionTemplate.executeWithoutResult(status -> userRepository.adjustFollowersCount(celebrity.getId(), -20_000));
+
+        final SocialLookEntity fannedOut = publishLook(author, SocialLookVisibility.PUBLIC, "Fanned out", now.minusSeconds(200));
+        final SocialLookEntity madePrivate = publishLook(author, SocialLookVisibility.FOLLOWERS, "Made private", now.minusSeconds(100));
+        socialTimelineService.publish(fannedOut);
+        socialTimelineService.onFollow(viewer.getId(), userRepository.findById(author.getId()).orElseThrow());
+
+        madePrivate.setVisibility(SocialLookVisibility.PRIVATE);
+        socialLookRepository.save(madePrivate);
+
+        mockMvc.perform(get("/api/v1/social/feed")
+                        .param("limit", "10")
+                        .with(auth(viewer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(fannedOut.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(pulled.getId().toString()));
+
+        mockMvc.perform(get("/api/v1/social/feed")
+                        .param("limit", "10")
+                        .with(auth(author)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(madePrivate.getId().toString()));
+    }
+
     @Test
     void commentFlowSupportsRepliesDepthGuardAndDeletePermissions() throws Exception {
         final UserEntity author = createUser("author_c");
@@ -362,15 +832,22 @@ class SocialControllerIntegrationTests {
                         .with(auth(me)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Draft title"))
-                .andExpect(jsonPath("$.imageDataUri").isNotEmpty())
+                .andExpect(jsonPath("$.imageUrl").isNotEmpty())
                 .andReturn();
 
-        final String draftImageDataUri = json(upsertResult).get("imageDataUri").asText();
-        assertThat(draftImageDataUri).startsWith("data:image/jpeg;base64,");
+        final String draftImageUrl = json(upsertResult).get("imageUrl").asText();
+        assertThat(draftImageUrl).startsWith("/api/v1/social/look-drafts/me/image");
+
+        mockMvc.perform(get(draftImageUrl).with(auth(me)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes("small-image".getBytes(StandardCharsets.UTF_8)));
 
         mockMvc.perform(get("/api/v1/social/look-drafts/me").with(auth(me)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title").value("Draft title"));
+                .andExpect(jsonPath("$.title").value("Draft title"))
+                .andExpect(jsonPath("$.imageDataUri").value("data:image/jpeg;base64,"
+                        + Base64.getEncoder().encodeToString("small-image".getBytes(StandardCharsets.UTF_8))));
 
         mockMvc.perform(delete("/api/v1/social/look-drafts/me").with(auth(me)))
                 .andExpect(status().isNoContent());
@@ -444,7 +921,9 @@ class SocialControllerIntegrationTests {
     private SocialLookEntity createLook(UserEntity author, SocialLookVisibility visibility, String title) {
         final SocialLookEntity look = new SocialLookEntity();
         look.setAuthor(author);
-        look.setImageData(("img-" + title).getBytes(StandardCharsets.UTF_8));
+        final StoredBlob image = blobStore.put(("img-" + title).getBytes(StandardCharsets.UTF_8));
+        look.setImageKey(image.key());
+        look.setImageSize(image.sizeBytes());
         look.setImageMime("image/jpeg");
         look.setTitle(title);
         look.setDescription("desc");
@@ -454,6 +933,38 @@ class SocialControllerIntegrationTests {
         return socialLookRepository.save(look);
     }
 
+    private SocialLookEntity publishLook(UserEntity author,
+                                         SocialLookVisibility visibility,
+                                         String title,
+                                         Instant createdAt) {
+        final SocialLookEntity look = createLook(author, visibility, title);
+        look.setCreatedAt(createdAt);
+        final SocialLookEntity saved = socialLookRepository.save(look);
+        saved.setAuthor(userRepository.findById(author.getId()).orElseThrow());
+        socialTimelineService.publish(saved);
+        return saved;
+    }
+
+    private long pageQueryExecutions(Statistics statistics, String entityName) {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("from " + entityName) && query.contains(") < ("))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+
+    private SocialLookEntity createLookAt(UserEntity author, String title, Instant createdAt) {
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.PUBLIC, title);
+        look.setCreatedAt(createdAt);
+        return socialLookRepository.save(look);
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
     private void follow(UserEntity follower, UserEntity followee) {
         final SocialFollowEntity relation = new SocialFollowEntity();
         relation.setId(new SocialFollowId(follower.getId(), followee.getId()));
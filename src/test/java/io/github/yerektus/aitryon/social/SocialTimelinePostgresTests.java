@@ -0,0 +1,112 @@
+package io.github.yerektus.aitryon.social;
+
+import io.github.yerektus.aitryon.PostgresContainerConfiguration;
+import io.github.yerektus.aitryon.domain.SocialFollowEntity;
+import io.github.yerektus.aitryon.domain.SocialFollowId;
+import io.github.yerektus.aitryon.domain.SocialLookEntity;
+import io.github.yerektus.aitryon.domain.SocialLookVisibility;
+import io.github.yerektus.aitryon.domain.UserEntity;
+import io.github.yerektus.aitryon.domain.repo.SocialFollowRepository;
+import io.github.yerektus.aitryon.domain.repo.SocialLookRepository;
+import io.github.yerektus.aitryon.domain.repo.SocialTimelineEntryRepository;
+import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Import(PostgresContainerConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class SocialTimelinePostgresTests {
+
+    @Autowired
+    private SocialTimelineService socialTimelineService;
+
+    @Autowired
+    private SocialTimelineEntryRepository socialTimelineEntryRepository;
+
+    @Autowired
+    private SocialLookRepository socialLookRepository;
+
+    @Autowired
+    private SocialFollowRepository socialFollowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void repeatedPublishAndOverlappingBackfillDoNotDuplicateEntries() {
+        final UserEntity author = createUser("pg_author");
+        final UserEntity follower = createUser("pg_follower");
+        follow(follower, author);
+
+        final SocialLookEntity look = createLook(author, SocialLookVisibility.FOLLOWERS);
+        socialTimelineService.publish(look);
+        socialTimelineService.publish(look);
+        socialTimelineService.onFollow(follower.getId(), author);
+
+        assertThat(socialTimelineEntryRepository.findAll())
+                .filteredOn(entry -> entry.getId().getLookId().equals(look.getId()))
+                .extracting(entry -> entry.getId().getOwnerId())
+                .containsExactlyInAnyOrder(author.getId(), follower.getId());
+    }
+
+    @Test
+    void looksPublishedAboveThresholdArePulledForFollowers() {
+        final UserEntity celebrity = createUser("pg_celebrity");
+        final UserEntity follower = createUser("pg_fan");
+        follow(follower, celebrity);
+        celebrity.setFollowersCount(20_000);
+
+        final SocialLookEntity look = createLook(celebrity, SocialLookVisibility.PUBLIC);
+        socialTimelineService.publish(look);
+
+        assertThat(socialLookRepository.findById(look.getId()).orElseThrow().isFanOutOnRead()).isTrue();
+        assertThat(socialTimelineService.readPage(follower.getId(), PageCursor.first(), 10).getContent())
+                .extracting(SocialLookEntity::getId)
+                .containsExactly(look.getId());
+    }
+
+    private UserEntity createUser(String prefix) {
+        final String token = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        final UserEntity user = new UserEntity();
+        user.setEmail(token + "@example.com");
+        user.setDisplayName(prefix);
+        user.setUsername(token);
+        user.setCreditsBalance(0);
+        return userRepository.save(user);
+    }
+
+    private SocialLookEntity createLook(UserEntity author, SocialLookVisibility visibility) {
+        final SocialLookEntity look = new SocialLookEntity();
+        look.setAuthor(author);
+        look.setImageKey("look-" + UUID.randomUUID());
+        look.setImageSize(1);
+        look.setImageMime("image/jpeg");
+        look.setTitle("Look");
+        look.setDescription("desc");
+        look.setTagsJson("[\"tag\"]");
+        look.setStyle("Casual");
+        look.setVisibility(visibility);
+        look.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        return socialLookRepository.save(look);
+    }
+
+    private void follow(UserEntity follower, UserEntity followee) {
+        final SocialFollowEntity relation = new SocialFollowEntity();
+        relation.setId(new SocialFollowId(follower.getId(), followee.getId()));
+        relation.setFollower(follower);
+        relation.setFollowee(followee);
+        socialFollowRepository.save(relation);
+    }
+}
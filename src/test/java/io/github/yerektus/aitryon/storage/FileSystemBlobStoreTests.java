@@ -0,0 +1,98 @@
+package io.github.yerektus.aitryon.storage;
+
+import io.github.yerektus.aitryon.common.NotFoundException;
+import io.github.yerektus.aitryon.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemBlobStoreTests {
+
+    @TempDir
+    Path rootDir;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        final StorageProperties properties = new StorageProperties();
+        properties.setRootDir(rootDir.toString());
+        blobStore = new FileSystemBlobStore(properties);
+    }
+
+    @Test
+    void storesBlobUnderShardedContentHashKey() throws Exception {
+        final byte[] bytes = "person image".getBytes(StandardCharsets.UTF_8);
+
+        final StoredBlob blob = blobStore.put(bytes);
+
+        final String key = sha256Hex(bytes);
+        assertThat(blob.key()).isEqualTo(key);
+        assertThat(blob.sizeBytes()).isEqualTo(bytes.length);
+        final Path stored = rootDir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+        assertThat(stored).isRegularFile().hasBinaryContent(bytes);
+        try (var siblings = Files.list(stored.getParent())) {
+            assertThat(siblings).containsExactly(stored);
+        }
+    }
+
+    @Test
+    void puttingSameBytesTwiceReusesExistingBlob() throws Exception {
+        final byte[] bytes = "shared look".getBytes(StandardCharsets.UTF_8);
+        final StoredBlob first = blobStore.put(bytes);
+        final Path stored = rootDir.resolve(first.key().substring(0, 2)).resolve(first.key().substring(2, 4)).resolve(first.key());
+        final long modifiedAt = Files.getLastModifiedTime(stored).toMillis();
+
+        final StoredBlob second = blobStore.put(bytes);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(Files.getLastModifiedTime(stored).toMillis()).isEqualTo(modifiedAt);
+    }
+
+    @Test
+    void readsAndOpensStoredBlob() throws IOException {
+        final byte[] bytes = "result image".getBytes(StandardCharsets.UTF_8);
+        final String key = blobStore.put(bytes).key();
+
+        assertThat(blobStore.exists(key)).isTrue();
+        assertThat(blobStore.read(key)).isEqualTo(bytes);
+        final Resource resource = blobStore.open(key);
+        assertThat(resource.contentLength()).isEqualTo(bytes.length);
+        try (InputStream input = resource.getInputStream()) {
+            assertThat(input.readAllBytes()).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    void missingBlobsAreNotFound() throws Exception {
+        final String key = sha256Hex("never stored".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(blobStore.exists(key)).isFalse();
+        assertThatThrownBy(() -> blobStore.read(key)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> blobStore.open(key)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void rejectsKeysThatAreNotContentHashes() {
+        assertThatThrownBy(() -> blobStore.read("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.open(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.exists("ABCDEF")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String sha256Hex(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.yerektus.aitryon.storage;
+
+import io.github.yerektus.aitryon.config.StorageProperties;
+import io.github.yerektus.aitryon.domain.ImageRenditionEntity;
+import io.github.yerektus.aitryon.domain.ImageRenditionId;
+import io.github.yerektus.aitryon.domain.ImageRenditionSize;
+import io.github.yerektus.aitryon.domain.repo.ImageRenditionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageRenditionServiceTests {
+
+    @TempDir
+    Path rootDir;
+
+    private final Map<ImageRenditionId, ImageRenditionEntity> rows = new HashMap<>();
+    private ImageRenditionRepository repository;
+    private FileSystemBlobStore blobStore;
+    private ImageRenditionService service;
+
+    @BeforeEach
+    void setUp() {
+        final StorageProperties properties = new StorageProperties();
+        properties.setRootDir(rootDir.toString());
+        blobStore = new FileSystemBlobStore(properties);
+        repository = mock(ImageRenditionRepository.class);
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.getArgument(0))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            final ImageRenditionEntity rendition = invocation.getArgument(0);
+            rows.put(rendition.getId(), rendition);
+            return rendition;
+        });
+        service = new ImageRenditionService(repository, blobStore);
+    }
+
+    @Test
+    void undecodableSourceIsRecordedAsServeOriginal() {
+        final BlobContent original = stored("not an image".getBytes(StandardCharsets.UTF_8), "image/png");
+
+        assertThat(service.resolve(original, ImageRenditionSize.SMALL)).isSameAs(original);
+        assertThat(service.resolve(original, ImageRenditionSize.SMALL)).isSameAs(original);
+
+        verify(repository, times(1)).save(any());
+        final ImageRenditionEntity rendition = rows.get(new ImageRenditionId(original.key(), ImageRenditionSize.SMALL));
+        assertThat(rendition.getBlobKey()).isEqualTo(original.key());
+        assertThat(rendition.getMime()).isEqualTo("image/png");
+    }
+
+    @Test
+    void largeSourceIsDownscaledOnceAndReused() throws IOException {
+        final int edge = ImageRenditionSize.SMALL.maxEdgePx() * 2;
+        final BlobContent original = stored(png(edge, edge), "image/png");
+
+        final BlobContent first = service.resolve(original, ImageRenditionSize.SMALL);
+        final BlobContent second = service.resolve(original, ImageRenditionSize.SMALL);
+
+        assertThat(first.key()).isNotEqualTo(original.key()).isEqualTo(second.key());
+        assertThat(first.mimeType()).isEqualTo("image/jpeg");
+        final BufferedImage scaled = ImageIO.read(blobStore.open(first.key()).getInputStream());
+        assertThat(Math.max(scaled.getWidth(), scaled.getHeight())).isEqualTo(ImageRenditionSize.SMALL.maxEdgePx());
+        verify(repository, times(1)).save(any());
+    }
+
+    private BlobContent stored(byte[] bytes, String mimeType) {
+        final String key = blobStore.put(bytes).key();
+        return new BlobContent(key, mimeType, blobStore.open(key));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.yerektus.aitryon.storage;
+
+import io.github.yerektus.aitryon.config.StorageProperties;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class V5MoveImagesToBlobStoreTests {
+
+    @TempDir
+    Path rootDir;
+
+    private Connection connection;
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:v5-" + UUID.randomUUID() + ";MODE=PostgreSQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE try_on_jobs (
+                        id UUID PRIMARY KEY,
+                        person_image VARBINARY, person_image_key VARCHAR(64), person_image_size BIGINT,
+                        clothing_image VARBINARY, clothing_image_key VARCHAR(64), clothing_image_size BIGINT,
+                        result_image VARBINARY, result_image_key VARCHAR(64), result_image_size BIGINT
+                    )""");
+            statement.execute("""
+                    CREATE TABLE social_looks (
+                        id UUID PRIMARY KEY,
+                        image_data VARBINARY, image_key VARCHAR(64), image_size BIGINT
+                    )""");
+            statement.execute("""
+                    CREATE TABLE social_look_drafts (
+                        user_id UUID PRIMARY KEY,
+                        image_data VARBINARY, image_key VARCHAR(64), image_size BIGINT
+                    )""");
+        }
+
+        final StorageProperties properties = new StorageProperties();
+        properties.setRootDir(rootDir.toString());
+        blobStore = new FileSystemBlobStore(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void movesInlineImagesToBlobStoreAndRecordsKeys() throws Exception {
+        final UUID jobId = UUID.randomUUID();
+        final UUID pendingJobId = UUID.randomUUID();
+        final UUID draftUserId = UUID.randomUUID();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO try_on_jobs (id, person_image, clothing_image, result_image) VALUES (?, ?, ?, ?)")) {
+            insert.setObject(1, jobId);
+            insert.setBytes(2, bytes("person"));
+            insert.setBytes(3, bytes("clothing"));
+            insert.setBytes(4, bytes("result"));
+            insert.executeUpdate();
+            insert.setObject(1, pendingJobId);
+            insert.setBytes(2, bytes("person"));
+            insert.setBytes(3, bytes("other clothing"));
+            insert.setBytes(4, null);
+            insert.executeUpdate();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO social_look_drafts (user_id, image_data) VALUES (?, ?)")) {
+            insert.setObject(1, draftUserId);
+            insert.setBytes(2, bytes("draft"));
+            insert.executeUpdate();
+        }
+
+        migrate();
+
+        assertMoved("try_on_jobs", "id", jobId, "person_image", "person_image_key", "person_image_size");
+        assertMoved("try_on_jobs", "id", jobId, "clothing_image", "clothing_image_key", "clothing_image_size");
+        assertMoved("try_on_jobs", "id", jobId, "result_image", "result_image_key", "result_image_size");
+        assertMoved("try_on_jobs", "id", pendingJobId, "clothing_image", "clothing_image_key", "clothing_image_size");
+        assertMoved("social_look_drafts", "user_id", draftUserId, "image_data", "image_key", "image_size");
+        assertThat(stringColumn("try_on_jobs", "id", pendingJobId, "result_image_key")).isNull();
+        assertThat(stringColumn("try_on_jobs", "id", pendingJobId, "person_image_key"))
+                .isEqualTo(stringColumn("try_on_jobs", "id", jobId, "person_image_key"));
+    }
+
+    @Test
+    void movesRowsAcrossMultipleBatchesAndIsSafeToRerun() throws Exception {
+        final int rows = 250;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO social_looks (id, image_data) VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setBytes(2, bytes("look-" + i));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        migrate();
+        migrate();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT image_data, image_key, image_size FROM social_looks")) {
+            int moved = 0;
+            while (result.next()) {
+                final byte[] inline = result.getBytes(1);
+                assertThat(blobStore.read(result.getString(2))).isEqualTo(inline);
+                assertThat(result.getLong(3)).isEqualTo(inline.length);
+                moved++;
+            }
+            assertThat(moved).isEqualTo(rows);
+        }
+    }
+
+    private void migrate() throws Exception {
+        final Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+        new V5__MoveImagesToBlobStore(blobStore).migrate(context);
+    }
+
+    private void assertMoved(String table,
+                             String idColumn,
+                             UUID id,
+                             String dataColumn,
+                             String keyColumn,
+                             String sizeColumn) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT " + dataColumn + ", " + keyColumn + ", " + sizeColumn + " FROM " + table + " WHERE " + idColumn + " = ?")) {
+            select.setObject(1, id);
+            try (ResultSet result = select.executeQuery()) {
+                assertThat(result.next()).isTrue();
+                final byte[] inline = result.getBytes(1);
+                assertThat(result.getString(2)).isNotNull();
+                assertThat(blobStore.read(result.getString(2))).isEqualTo(inline);
+                assertThat(result.getLong(3)).isEqualTo(inline.length);
+            }
+        }
+    }
+
+    private String stringColumn(String table, String idColumn, UUID id, String column) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT " + column + " FROM " + table + " WHERE " + idColumn + " = ?")) {
+            select.setObject(1, id);
+            try (ResultSet result = select.executeQuery()) {
+                assertThat(result.next()).isTrue();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
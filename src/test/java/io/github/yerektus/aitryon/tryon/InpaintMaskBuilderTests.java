@@ -60,6 +60,57 @@ class InpaintMaskBuilderTests {
         assertThat(bbox.height()).isBetween(0.72, 0.84);
     }
 
+    @Test
+    void rasterFastPathsMatchAcrossImageTypes() throws IOException {
+        final NormalizedBoundingBox expected = builder.detectForegroundBoundingBox(
+                createImageWithSubject(120, 200, 36, 20, 48, 152)
+        );
+
+        for (int type : new int[]{
+                BufferedImage.TYPE_INT_RGB,
+                BufferedImage.TYPE_INT_ARGB,
+                BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_4BYTE_ABGR,
+                BufferedImage.TYPE_USHORT_565_RGB
+        }) {
+            final BufferedImage image = drawSubject(type, 120, 200, 36, 20, 48, 152);
+            assertThat(builder.detectForegroundBoundingBox(image)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void detectsForegroundOnLargeImagesWithinPadding() {
+        final BufferedImage image = drawSubject(BufferedImage.TYPE_3BYTE_BGR, 3000, 4000, 900, 400, 1200, 3040);
+
+        final NormalizedBoundingBox bbox = builder.detectForegroundBoundingBox(image);
+
+        assertThat(bbox.x()).isBetween(0.28, 0.30);
+        assertThat(bbox.y()).isBetween(0.08, 0.10);
+        assertThat(bbox.x() + bbox.width()).isBetween(0.70, 0.72);
+        assertThat(bbox.y() + bbox.height()).isBetween(0.86, 0.88);
+    }
+
+    @Test
+    void stridedScanOnLargeImagesKeepsExactBounds() {
+        for (int type : new int[]{
+                BufferedImage.TYPE_INT_RGB,
+                BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_USHORT_565_RGB
+        }) {
+            final BufferedImage image = drawSubject(type, 3000, 4000, 901, 403, 1205, 3037);
+
+            final NormalizedBoundingBox bbox = builder.detectForegroundBoundingBox(image);
+
+            // Subject spans x 901..2105 and y 403..3439, padded by width / 80 and height / 80.
+            assertThat(bbox).isEqualTo(new NormalizedBoundingBox(
+                    864 / 3000.0,
+                    353 / 4000.0,
+                    (2142 - 864 + 1) / 3000.0,
+                    (3489 - 353 + 1) / 4000.0
+            ));
+        }
+    }
+
     private byte[] createImage(int width, int height) throws IOException {
         final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         final Graphics2D graphics = image.createGraphics();
@@ -97,6 +148,26 @@ class InpaintMaskBuilderTests {
         return output.toByteArray();
     }
 
+    private BufferedImage drawSubject(int type,
+                                      int width,
+                                      int height,
+                                      int subjectX,
+                                      int subjectY,
+                                      int subjectWidth,
+                                      int subjectHeight) {
+        final BufferedImage image = new BufferedImage(width, height, type);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(new Color(25, 25, 25));
+            graphics.fillRect(subjectX, subjectY, subjectWidth, subjectHeight);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
     private int alpha(int argb) {
         return (argb >>> 24) & 0xff;
     }
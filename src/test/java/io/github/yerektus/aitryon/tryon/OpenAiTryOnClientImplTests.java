@@ -0,0 +1,436 @@
+package io.github.yerektus.aitryon.tryon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.yerektus.aitryon.common.ExternalServiceException;
+import io.github.yerektus.aitryon.common.TooManyRequestsException;
+import io.github.yerektus.aitryon.config.OpenAiProperties;
+import io.github.yerektus.aitryon.domain.UserGender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OpenAiTryOnClientImplTests {
+
+    @Mock
+    private HttpClient httpClient;
+
+    private OpenAiProperties openAiProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private byte[] png;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        openAiProperties = new OpenAiProperties();
+        openAiProperties.setApiKey("test-key");
+        meterRegistry = new SimpleMeterRegistry();
+        png = png(8, 8);
+    }
+
+    @Test
+    void readsImageFromImagesEditDataArray() throws Exception {
+        respond("application/json", """
+                {"created":1713833628,"background":"opaque","data":[{"b64_json":"%s"}],
+                 "output_format":"png","usage":{"input_tokens":50,"output_tokens":4160}}
+                """.formatted(base64(png)));
+
+        final OpenAiTryOnResult result = client().generateInpaint(command());
+
+        assertThat(result.bytes()).isEqualTo(png);
+    }
+
+    @Test
+    void ignoresImageFieldNamesOutsideExpectedPaths() throws Exception {
+        respond("application/json", """
+                {"metadata":{"b64_json":"not base64 at all","image_base64":"%%%%"},
+                 "data":[{"revised_prompt":"a person","b64_json":"%s"}]}
+                """.formatted(base64(png)));
+
+        assertThat(client().generateInpaint(command()).bytes()).isEqualTo(png);
+    }
+
+    @Test
+    void skipsResponsesOutputEntriesThatAreNotImages() throws Exception {
+        respond("application/json", """
+                {"output":[
+                  {"type":"web_search_call","result":"plain text result"},
+                  {"type":"image_generation_call","status":"completed","result":"%s"}
+                ]}
+                """.formatted(base64(png)));
+
+        assertThat(client().generateInpaint(command()).bytes()).isEqualTo(png);
+    }
+
+    @Test
+    void rejectsCorruptImagePayload() throws Exception {
+        respond("application/json", """
+                {"data":[{"b64_json":"@@@@"}]}
+                """);
+
+        assertThatThrownBy(() -> client().generateInpaint(command()))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("invalid image payload");
+    }
+
+    @Test
+    void rejectsResponseWithoutImage() throws Exception {
+        respond("application/json", """
+                {"data":[{"url":"https://example.com/image.png"}]}
+                """);
+
+        assertThatThrownBy(() -> client().generateInpaint(command()))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("does not contain image");
+    }
+
+    @Test
+    void holdsInFlightPermitUntilResponseBodyIsRead() throws Exception {
+        openAiProperties.setMaxInFlight(1);
+        openAiProperties.setAcquireTimeoutSeconds(0);
+        final OpenAiTryOnClientImpl client = client();
+        final AtomicReference<RuntimeException> concurrentCall = new AtomicReference<>();
+        final byte[] json = """
+                {"data":[{"b64_json":"%s"}]}
+                """.formatted(base64(png)).getBytes(StandardCharsets.UTF_8);
+        respond("application/json", new ByteArrayInputStream(json) {
+            private boolean probed;
+
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                if (!probed) {
+                    probed = true;
+                    try {
+                        client.suggestStyles(png, "image/png", "Shirt");
+                    } catch (RuntimeException ex) {
+                        concurrentCall.set(ex);
+                    }
+                }
+                return super.read(buffer, offset, length);
+            }
+        });
+
+        assertThat(client.generateInpaint(command()).bytes()).isEqualTo(png);
+        assertThat(concurrentCall.get()).isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.get("openai.client.requests")
+                .tag("endpoint", "/images/edits")
+                .tag("outcome", "success")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsRequestsBeyondInFlightLimitAndReleasesPermitAfterward() throws Exception {
+        openAiProperties.setMaxInFlight(1);
+        openAiProperties.setAcquireTimeoutSeconds(0);
+        final OpenAiTryOnClientImpl client = client();
+        final HttpResponse<InputStream> response = response(200, "application/json", imageEditBody());
+        final CountDownLatch sent = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sent.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        }).when(httpClient).send(any(), any());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<OpenAiTryOnResult> first = executor.submit(() -> client.generateInpaint(command()));
+            assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> client.generateInpaint(command()))
+                    .isInstanceOf(TooManyRequestsException.class);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).bytes()).isEqualTo(png);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        respond("application/json", imageEditBody());
+        assertThat(client.generateInpaint(command()).bytes()).isEqualTo(png);
+        assertThat(queueWaitCount("false")).isEqualTo(1);
+        assertThat(queueWaitCount("true")).isEqualTo(2);
+    }
+
+    @Test
+    void timedOutRequestsAreRecordedAndReleaseTheirPermit() throws Exception {
+        openAiProperties.setMaxInFlight(1);
+        openAiProperties.setAcquireTimeoutSeconds(0);
+        final OpenAiTryOnClientImpl client = client();
+        doThrow(new HttpTimeoutException("request timed out")).when(httpClient).send(any(), any());
+
+        assertThatThrownBy(() -> client.generateInpaint(command()))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("timed out");
+        assertThatThrownBy(() -> client.generateInpaint(command()))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("timed out");
+
+        assertThat(requestCount("timeout")).isEqualTo(2);
+        assertThat(queueWaitCount("false")).isZero();
+    }
+
+    @Test
+    void registersMetersUpFrontAndFoldsStatusCodesIntoOutcomes() throws Exception {
+        final OpenAiTryOnClientImpl client = client();
+
+        assertThat(meterRegistry.find("openai.client.requests").timers()).hasSize(10);
+        assertThat(meterRegistry.find("openai.client.queue.wait").timers()).hasSize(4);
+
+        doReturn(response(503, "application/json", new ByteArrayInputStream(
+                "{\"error\":{\"message\":\"overloaded\"}}".getBytes(StandardCharsets.UTF_8)
+        ))).when(httpClient).send(any(), any());
+        assertThatThrownBy(() -> client.generateInpaint(command()))
+                .isInstanceOf(ExternalServiceException.class);
+
+        assertThat(requestCount("server_error")).isEqualTo(1);
+        assertThat(requestCount("success")).isZero();
+        assertThat(meterRegistry.find("openai.client.requests").timers()).hasSize(10);
+    }
+
+    @Test
+    void imageEditMultipartBodyIsCrlfFramedWithOnePartPerField() throws Exception {
+        respond("application/json", imageEditBody());
+
+        client().generateInpaint(command());
+
+        final HttpRequest request = sentRequest();
+        final String boundary = boundaryOf(request);
+        final byte[] wire = drain(request.bodyPublisher().orElseThrow());
+        assertThat(request.bodyPublisher().orElseThrow().contentLength()).isEqualTo(wire.length);
+
+        final List<MultipartPart> parts = multipartParts(wire, boundary);
+        assertThat(parts).extracting(MultipartPart::disposition).containsExactly(
+                "form-data; name=\"model\"",
+                "form-data; name=\"prompt\"",
+                "form-data; name=\"image[]\"; filename=\"person-image.png\"",
+                "form-data; name=\"image[]\"; filename=\"clothing-image.png\"",
+                "form-data; name=\"mask\"; filename=\"person-mask.png\""
+        );
+        assertThat(parts.get(0).text()).isEqualTo("gpt-image-1");
+        assertThat(parts.get(0).contentType()).isNull();
+        assertThat(parts.get(1).text()).isNotBlank();
+        assertThat(parts.get(2).contentType()).isEqualTo("image/png");
+        assertThat(parts.get(2).content()).isEqualTo(png);
+        assertThat(parts.get(3).content()).isEqualTo(png);
+        assertThat(parts.get(4).contentType()).isEqualTo("image/png");
+        assertThat(ImageIO.read(new ByteArrayInputStream(parts.get(4).content()))).isNotNull();
+    }
+
+    @Test
+    void dallE2MultipartBodySendsSingleImageAndResponseFormat() throws Exception {
+        openAiProperties.setImageEditModel("dall-e-2");
+        respond("application/json", imageEditBody());
+
+        client().generateInpaint(command());
+
+        final HttpRequest request = sentRequest();
+        final List<MultipartPart> parts = multipartParts(drain(request.bodyPublisher().orElseThrow()), boundaryOf(request));
+        assertThat(parts).extracting(MultipartPart::disposition).containsExactly(
+                "form-data; name=\"model\"",
+                "form-data; name=\"prompt\"",
+                "form-data; name=\"response_format\"",
+                "form-data; name=\"image\"; filename=\"person-image.png\"",
+                "form-data; name=\"mask\"; filename=\"person-mask.png\""
+        );
+        assertThat(parts.get(2).text()).isEqualTo("b64_json");
+        assertThat(parts.get(3).content()).isEqualTo(png);
+    }
+
+    private double requestCount(String outcome) {
+        return meterRegistry.get("openai.client.requests")
+                .tag("endpoint", "/images/edits")
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    private double queueWaitCount(String acquired) {
+        return meterRegistry.get("openai.client.queue.wait")
+                .tag("endpoint", "/images/edits")
+                .tag("acquired", acquired)
+                .timer()
+                .count();
+    }
+
+    private InputStream imageEditBody() {
+        return new ByteArrayInputStream(("{\"data\":[{\"b64_json\":\"" + base64(png) + "\"}]}")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest sentRequest() throws Exception {
+        final ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(request.capture(), any());
+        return request.getValue();
+    }
+
+    private static String boundaryOf(HttpRequest request) {
+        final String contentType = request.headers().firstValue("Content-Type").orElseThrow();
+        assertThat(contentType).startsWith("multipart/form-data; boundary=");
+        return contentType.substring("multipart/form-data; boundary=".length());
+    }
+
+    private static byte[] drain(HttpRequest.BodyPublisher publisher) throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final CompletableFuture<Void> completed = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                final byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                output.writeBytes(chunk);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        completed.get(5, TimeUnit.SECONDS);
+        return output.toByteArray();
+    }
+
+    /**
+     * Splits a multipart body on its CRLF-delimited boundaries. ISO-8859-1 maps bytes to chars one to one,
+     * so binary part content survives the round trip.
+     */
+    private static List<MultipartPart> multipartParts(byte[] wire, String boundary) {
+        final String body = new String(wire, StandardCharsets.ISO_8859_1);
+        final String opening = "--" + boundary + "\r\n";
+        final String closing = "\r\n--" + boundary + "--\r\n";
+        assertThat(body).startsWith(opening).endsWith(closing);
+
+        final List<MultipartPart> parts = new ArrayList<>();
+        final String inner = body.substring(opening.length(), body.length() - closing.length());
+        for (String part : inner.split(Pattern.quote("\r\n--" + boundary + "\r\n"), -1)) {
+            final int headerEnd = part.indexOf("\r\n\r\n");
+            assertThat(headerEnd).isPositive();
+            String disposition = null;
+            String contentType = null;
+            for (String header : part.substring(0, headerEnd).split("\r\n", -1)) {
+                assertThat(header).doesNotContain("\n", "\r");
+                if (header.startsWith("Content-Disposition: ")) {
+                    disposition = header.substring("Content-Disposition: ".length());
+                } else if (header.startsWith("Content-Type: ")) {
+                    contentType = header.substring("Content-Type: ".length());
+                } else {
+                    throw new AssertionError("Unexpected part header: " + header);
+                }
+            }
+            parts.add(new MultipartPart(
+                    disposition,
+                    contentType,
+                    part.substring(headerEnd + 4).getBytes(StandardCharsets.ISO_8859_1)
+            ));
+        }
+        return parts;
+    }
+
+    private OpenAiTryOnClientImpl client() {
+        return new OpenAiTryOnClientImpl(httpClient, new ObjectMapper(), openAiProperties, meterRegistry);
+    }
+
+    private void respond(String contentType, String body) throws Exception {
+        respond(contentType, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void respond(String contentType, InputStream body) throws Exception {
+        doReturn(response(200, contentType, body)).when(httpClient).send(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> response(int statusCode, String contentType, InputStream body) {
+        final HttpResponse<InputStream> response = mock(HttpResponse.class);
+        lenient().when(response.statusCode()).thenReturn(statusCode);
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(
+                Map.of("Content-Type", List.of(contentType)),
+                (name, value) -> true
+        ));
+        lenient().when(response.body()).thenReturn(body);
+        return response;
+    }
+
+    private TryOnAnalyzeCommand command() {
+        return new TryOnAnalyzeCommand(
+                png,
+                "image/png",
+                png,
+                "image/png",
+                "Shirt",
+                "M",
+                180,
+                75,
+                UserGender.male,
+                30,
+                false
+        );
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private record MultipartPart(String disposition, String contentType, byte[] content) {
+        String text() {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+    }
+}
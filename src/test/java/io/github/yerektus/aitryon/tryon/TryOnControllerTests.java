@@ -1,6 +1,8 @@
 package io.github.yerektus.aitryon.tryon;
 
+import io.github.yerektus.aitryon.config.TryOnProperties;
 import io.github.yerektus.aitryon.security.AuthenticatedUser;
+import io.github.yerektus.aitryon.storage.ImageProcessing;
 import io.github.yerektus.aitryon.tryon.dto.TryOnAnalyzeResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnOutputResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnStyleHintResponse;
@@ -10,6 +12,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.mock.web.MockMultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -30,7 +36,9 @@ class TryOnControllerTests {
     @BeforeEach
     void setUp() {
         tryOnService = mock(TryOnService.class);
-        controller = new TryOnController(tryOnService);
+        final TryOnProperties tryOnProperties = new TryOnProperties();
+        tryOnProperties.setInputMaxEdgePx(64);
+        controller = new TryOnController(tryOnService, new TryOnImageNormalizer(tryOnProperties));
     }
 
     @Test
@@ -68,7 +76,8 @@ class TryOnControllerTests {
                 180,
                 75,
                 "male",
-                30
+                30,
+                true
         );
 
         final ArgumentCaptor<TryOnAnalyzeCommand> captor = ArgumentCaptor.forClass(TryOnAnalyzeCommand.class);
@@ -99,4 +108,44 @@ class TryOnControllerTests {
         assertThat(response.hints()).hasSize(3);
         verify(tryOnService).styleHints(eq(user.userId()), any(), eq("image/jpeg"), eq("Пальто"));
     }
+
+    @Test
+    void analyzeOrientsAndDownscalesUploadedImages() throws IOException {
+        final AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "u@example.com");
+        final BufferedImage landscape = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        final byte[] rotatedJpeg = withExifOrientation(ImageProcessing.encodeJpeg(landscape, 0.9f), 6);
+        final MockMultipartFile personImage = new MockMultipartFile("personImage", "person.jpg", "image/jpeg", rotatedJpeg);
+        final MockMultipartFile clothingImage = new MockMultipartFile("clothingImage", "cloth.png", "image/png", rotatedJpeg);
+
+        controller.analyze(user, personImage, clothingImage, "Jacket", "m", 180, 75, "male", 30, true);
+
+        final ArgumentCaptor<TryOnAnalyzeCommand> captor = ArgumentCaptor.forClass(TryOnAnalyzeCommand.class);
+        verify(tryOnService).analyze(eq(user.userId()), captor.capture());
+        final BufferedImage person = ImageIO.read(new ByteArrayInputStream(captor.getValue().personImage()));
+        assertThat(person.getWidth()).isEqualTo(32);
+        assertThat(person.getHeight()).isEqualTo(64);
+        assertThat(ImageProcessing.readExifOrientation(captor.getValue().personImage())).isEqualTo(1);
+        assertThat(captor.getValue().personImageMime()).isEqualTo("image/jpeg");
+        assertThat(captor.getValue().clothingImageMime()).isEqualTo("image/jpeg");
+    }
+
+    private byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        final byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        final int segmentLength = 2 + 6 + tiff.length;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(jpeg, 0, 2);
+        output.write(0xFF);
+        output.write(0xE1);
+        output.write(segmentLength >> 8);
+        output.write(segmentLength & 0xFF);
+        output.writeBytes(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        output.writeBytes(tiff);
+        output.write(jpeg, 2, jpeg.length - 2);
+        return output.toByteArray();
+    }
 }
@@ -1,16 +1,22 @@
 package io.github.yerektus.aitryon.tryon;
 
 import io.github.yerektus.aitryon.billing.CreditService;
+import io.github.yerektus.aitryon.common.ConflictException;
 import io.github.yerektus.aitryon.common.ExternalServiceException;
-import io.github.yerektus.aitryon.domain.CreditLedgerReason;
+import io.github.yerektus.aitryon.config.TryOnProperties;
 import io.github.yerektus.aitryon.domain.TryOnJobEntity;
 import io.github.yerektus.aitryon.domain.TryOnJobStatus;
 import io.github.yerektus.aitryon.domain.UserEntity;
 import io.github.yerektus.aitryon.domain.UserGender;
 import io.github.yerektus.aitryon.domain.repo.TryOnJobRepository;
 import io.github.yerektus.aitryon.domain.repo.UserRepository;
+import io.github.yerektus.aitryon.storage.BlobStore;
+import io.github.yerektus.aitryon.storage.ImageRenditionService;
+import io.github.yerektus.aitryon.storage.StoredBlob;
 import io.github.yerektus.aitryon.tryon.dto.TryOnAnalyzeResponse;
+import io.github.yerektus.aitryon.tryon.dto.TryOnJobResponse;
 import io.github.yerektus.aitryon.tryon.dto.TryOnStyleHintsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,9 +33,12 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,13 +53,40 @@ class TryOnServiceTests {
     private OpenAiTryOnClient openAiTryOnClient;
     @Mock
     private CreditService creditService;
+    @Mock
+    private TryOnJobStateService tryOnJobStateService;
+    @Mock
+    private TryOnJobWorker tryOnJobWorker;
+    @Mock
+    private TryOnJobEvents tryOnJobEvents;
+    @Mock
+    private BlobStore blobStore;
+    @Mock
+    private ImageRenditionService imageRenditionService;
 
+    private SimpleMeterRegistry meterRegistry;
     private TryOnService tryOnService;
 
     @BeforeEach
     void setUp() {
-        tryOnService = new TryOnService(tryOnJobRepository, userRepository, openAiTryOnClient, creditService);
-        lenient().when(tryOnJobRepository.save(any(TryOnJobEntity.class))).thenAnswer(invocation -> {
+        meterRegistry = new SimpleMeterRegistry();
+        tryOnService = new TryOnService(
+                tryOnJobRepository,
+                userRepository,
+                openAiTryOnClient,
+                creditService,
+                tryOnJobStateService,
+                tryOnJobWorker,
+                tryOnJobEvents,
+                blobStore,
+                imageRenditionService,
+                new TryOnResultCache(tryOnJobRepository, new TryOnProperties(), meterRegistry)
+        );
+        lenient().when(blobStore.put(any())).thenAnswer(invocation -> {
+            final byte[] bytes = invocation.getArgument(0);
+            return new StoredBlob(UUID.nameUUIDFromBytes(bytes).toString(), bytes.length);
+        });
+        lenient().when(tryOnJobStateService.open(any(TryOnJobEntity.class))).thenAnswer(invocation -> {
             final TryOnJobEntity entity = invocation.getArgument(0);
             if (entity.getId() == null) {
                 entity.setId(UUID.randomUUID());
@@ -60,7 +96,7 @@ class TryOnServiceTests {
     }
 
     @Test
-    void analyzeReturnsSingleInpaintOutputAndChargesOneCredit() {
+    void analyzeReturnsSingleInpaintOutputAndCapturesHeldCredit() {
         final UUID userId = UUID.randomUUID();
         final UserEntity user = createUser(userId, 7);
         final TryOnAnalyzeCommand command = createCommand();
@@ -68,8 +104,9 @@ class TryOnServiceTests {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(openAiTryOnClient.generateInpaint(command))
                 .thenReturn(new OpenAiTryOnResult("inpaint".getBytes(StandardCharsets.UTF_8), "image/png"));
-        when(creditService.adjustCredits(eq(userId), eq(-1), eq(CreditLedgerReason.TRY_ON_CHARGE), eq(null), any(TryOnJobEntity.class)))
-                .thenReturn(6);
+        when(tryOnJobStateService.markSucceeded(any(), any(TryOnOutputImage.class))).thenAnswer(invocation ->
+                new TryOnJobResponse(invocation.getArgument(0), "SUCCEEDED", "Jacket", "m", 1, null, true, null, null));
+        when(creditService.getBalance(userId)).thenReturn(6);
 
         final TryOnAnalyzeResponse response = tryOnService.analyze(userId, command);
 
@@ -81,11 +118,33 @@ class TryOnServiceTests {
         assertThat(response.creditsSpent()).isEqualTo(1);
         assertThat(response.remainingCredits()).isEqualTo(6);
 
-        verify(creditService).adjustCredits(eq(userId), eq(-1), eq(CreditLedgerReason.TRY_ON_CHARGE), eq(null), any(TryOnJobEntity.class));
+        final ArgumentCaptor<TryOnJobEntity> opened = ArgumentCaptor.forClass(TryOnJobEntity.class);
+        verify(tryOnJobStateService).open(opened.capture());
+        verify(tryOnJobStateService).markSucceeded(eq(opened.getValue().getId()), any(TryOnOutputImage.class));
+        verify(tryOnJobStateService, never()).markFailed(any(), any());
     }
 
     @Test
-    void analyzeDoesNotChargeCreditsWhenGenerationFails() {
+    void analyzeFailsWhenJobStoppedProcessingBeforeResultWasStored() {
+        final UUID userId = UUID.randomUUID();
+        final UserEntity user = createUser(userId, 7);
+        final TryOnAnalyzeCommand command = createCommand();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(openAiTryOnClient.generateInpaint(command))
+                .thenReturn(new OpenAiTryOnResult("inpaint".getBytes(StandardCharsets.UTF_8), "image/png"));
+        when(tryOnJobStateService.markSucceeded(any(), any(TryOnOutputImage.class))).thenAnswer(invocation ->
+                new TryOnJobResponse(invocation.getArgument(0), "FAILED", "Jacket", "m", 0, "Try-on job timed out", false, null, null));
+
+        assertThatThrownBy(() -> tryOnService.analyze(userId, command))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("FAILED");
+
+        verify(creditService, never()).getBalance(any());
+    }
+
+    @Test
+    void analyzeReleasesHeldCreditWhenGenerationFails() {
         final UUID userId = UUID.randomUUID();
         final UserEntity user = createUser(userId, 4);
         final TryOnAnalyzeCommand command = createCommand();
@@ -98,12 +157,81 @@ class TryOnServiceTests {
                 .isInstanceOf(ExternalServiceException.class)
                 .hasMessageContaining("OpenAI down");
 
-        verify(creditService, never()).adjustCredits(eq(userId), eq(-1), eq(CreditLedgerReason.TRY_ON_CHARGE), eq(null), any(TryOnJobEntity.class));
+        final ArgumentCaptor<TryOnJobEntity> opened = ArgumentCaptor.forClass(TryOnJobEntity.class);
+        verify(tryOnJobStateService).open(opened.capture());
+        verify(tryOnJobStateService).markFailed(opened.getValue().getId(), "OpenAI down");
+        verify(tryOnJobStateService, never()).markSucceeded(any(), any());
+        verify(creditService, never()).adjustCredits(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void analyzeReusesRecentIdenticalResultWithoutChargingCredits() {
+        final UUID userId = UUID.randomUUID();
+        final UserEntity user = createUser(userId, 5);
+        final TryOnAnalyzeCommand command = createCommand();
+        final TryOnJobEntity previous = new TryOnJobEntity();
+        previous.setId(UUID.randomUUID());
+        previous.setStatus(TryOnJobStatus.SUCCEEDED);
+        previous.setResultImageKey("result-key");
+        previous.setResultImageMime("image/png");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(tryOnJobRepository.findFirstByUser_IdAndRequestFingerprintAndStatusInAndCreatedAtAfterOrderByCreatedAtDesc(
+                eq(userId), any(), any(), any()))
+                .thenReturn(Optional.of(previous));
+        when(blobStore.read("result-key")).thenReturn("inpaint".getBytes(StandardCharsets.UTF_8));
 
-        final ArgumentCaptor<TryOnJobEntity> captor = ArgumentCaptor.forClass(TryOnJobEntity.class);
-        verify(tryOnJobRepository, org.mockito.Mockito.atLeast(2)).save(captor.capture());
-        assertThat(captor.getAllValues().get(captor.getAllValues().size() - 1).getStatus())
-                .isEqualTo(TryOnJobStatus.FAILED);
+        final TryOnAnalyzeResponse response = tryOnService.analyze(userId, command);
+
+        assertThat(response.jobId()).isEqualTo(previous.getId());
+        assertThat(response.creditsSpent()).isZero();
+        assertThat(response.remainingCredits()).isEqualTo(5);
+        assertThat(response.resultMimeType()).isEqualTo("image/png");
+        assertThat(meterRegistry.counter("tryon.result-cache", "result", "hit").count()).isEqualTo(1.0);
+        verify(openAiTryOnClient, never()).generateInpaint(any());
+        verify(creditService, never()).adjustCredits(any(), anyInt(), any(), any(), any());
+        verify(tryOnJobStateService, never()).open(any(TryOnJobEntity.class));
+    }
+
+    @Test
+    void fingerprintIgnoresReuseFlagButTracksPromptParameters() {
+        final TryOnResultCache cache = new TryOnResultCache(tryOnJobRepository, new TryOnProperties(), meterRegistry);
+        final TryOnAnalyzeCommand command = createCommand();
+        final TryOnAnalyzeCommand optedOut = new TryOnAnalyzeCommand(
+                command.personImage(), command.personImageMime(), command.clothingImage(), command.clothingImageMime(),
+                " jacket ", "M", 180, 75, UserGender.male, 28, false
+        );
+        final TryOnAnalyzeCommand otherSize = new TryOnAnalyzeCommand(
+                command.personImage(), command.personImageMime(), command.clothingImage(), command.clothingImageMime(),
+                "Jacket", "l", 180, 75, UserGender.male, 28, true
+        );
+
+        assertThat(cache.fingerprint(optedOut)).isEqualTo(cache.fingerprint(command)).hasSize(64);
+        assertThat(cache.fingerprint(otherSize)).isNotEqualTo(cache.fingerprint(command));
+        assertThat(cache.findReusable(UUID.randomUUID(), optedOut, cache.fingerprint(optedOut), false)).isEmpty();
+        assertThat(meterRegistry.counter("tryon.result-cache", "result", "bypass").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void submitDispatchesProcessingJobWithoutCallingOpenAi() {
+        final UUID userId = UUID.randomUUID();
+        final UserEntity user = createUser(userId, 3);
+        final TryOnAnalyzeCommand command = createCommand();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(tryOnJobStateService.toResponse(any(TryOnJobEntity.class))).thenAnswer(invocation -> {
+            final TryOnJobEntity job = invocation.getArgument(0);
+            return new TryOnJobResponse(job.getId(), job.getStatus().name(), job.getClothingName(), job.getClothingSize(),
+                    job.getCreditsSpent(), null, false, null, null);
+        });
+
+        final TryOnJobResponse response = tryOnService.submit(userId, command);
+
+        assertThat(response.status()).isEqualTo("PROCESSING");
+        assertThat(response.jobId()).isNotNull();
+        verify(tryOnJobWorker).dispatch(response.jobId(), command);
+        verify(openAiTryOnClient, never()).generateInpaint(any());
+        verify(creditService, never()).adjustCredits(any(), anyInt(), any(), any(), any());
     }
 
     @Test
@@ -131,6 +259,28 @@ class TryOnServiceTests {
         assertThat(response.hints().get(1).reason()).contains("деловой");
     }
 
+    @Test
+    void workerSkipsJobsThatStoppedProcessingWhileQueued() {
+        final UUID jobId = UUID.randomUUID();
+        final TryOnJobWorker worker = new TryOnJobWorker(
+                openAiTryOnClient,
+                tryOnJobStateService,
+                tryOnJobEvents,
+                new TryOnProperties()
+        );
+        when(tryOnJobStateService.start(jobId)).thenReturn(false);
+
+        try {
+            worker.dispatch(jobId, createCommand());
+
+            verify(tryOnJobStateService, timeout(2000)).start(jobId);
+            verify(openAiTryOnClient, after(200).never()).generateInpaint(any());
+            verify(tryOnJobStateService, never()).markSucceeded(any(), any());
+        } finally {
+            worker.shutdown();
+        }
+    }
+
     private UserEntity createUser(UUID id, int credits) {
         final UserEntity user = new UserEntity();
         user.setId(id);
@@ -152,7 +302,8 @@ class TryOnServiceTests {
                 180,
                 75,
                 UserGender.male,
-                28
+                28,
+                true
         );
     }
 }